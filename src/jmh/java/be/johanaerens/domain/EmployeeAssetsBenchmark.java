@@ -0,0 +1,87 @@
+package be.johanaerens.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the assets of an employee holding many of them, all the assets having the same hash code.
+ * <p>
+ * {@code assemble} fills a set of assets, like Hibernate assembling the collection from the second-level cache or taking its
+ * snapshot, and {@code addAndRemoveAsset} assigns an asset to the employee and unassigns it. The {@code legacy} assets are
+ * not comparable, like the assets were before: their set degrades to linear lookups, and its filling to a quadratic time.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=EmployeeAssetsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class EmployeeAssetsBenchmark {
+
+    @Param({ "10000", "50000", "100000" })
+    public int size;
+
+    @Param({ "comparable", "legacy" })
+    public String assetType;
+
+    private Asset[] assets;
+
+    private Employee employee;
+
+    private Asset assigned;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LongFunction<Asset> newAsset = "legacy".equals(assetType) ? id -> new LegacyAsset().id(id) : id -> new Asset().id(id);
+        assets = new Asset[size];
+        for (int i = 0; i < size; i++) {
+            assets[i] = newAsset.apply(i + 1L);
+        }
+        Set<Asset> held = new HashSet<>();
+        for (Asset asset : assets) {
+            held.add(asset);
+        }
+        employee = new Employee().id(1L).assets(held);
+        assigned = newAsset.apply(size + 1L);
+    }
+
+    @Benchmark
+    public int assemble() {
+        Set<Asset> held = new HashSet<>();
+        for (Asset asset : assets) {
+            held.add(asset);
+        }
+        return held.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveAsset() {
+        employee.addAsset(assigned);
+        employee.removeAsset(assigned);
+        return employee.getAssets().size();
+    }
+
+    /**
+     * Asset which {@link java.util.HashMap} cannot compare, as it does not implement {@link Comparable} itself.
+     */
+    static class LegacyAsset extends Asset {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
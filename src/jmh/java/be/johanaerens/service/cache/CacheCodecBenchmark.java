@@ -0,0 +1,112 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.domain.enumeration.Status;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.SerializationCodec;
+
+/**
+ * Compares the size, encoding and decoding times of the cache entries with the Redis codecs.
+ * <p>
+ * The payloads are shaped like the second-level cache entries: the disassembled state of an asset, and the ids of the
+ * assets of an employee. The {@code encode} results report the encoded size in the {@code encodedBytes} secondary metric.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=CacheCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({ "java", "compact", "compact-lz4" })
+    public String codecName;
+
+    @Param({ "asset", "employee-assets" })
+    public String payloadName;
+
+    private Codec codec;
+
+    private Object payload;
+
+    private ByteBuf encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = switch (codecName) {
+            case "java" -> new SerializationCodec();
+            case "compact" -> new CompactCacheCodec(0);
+            default -> new CompactCacheCodec(1024);
+        };
+        payload = switch (payloadName) {
+            case "asset" -> assetState();
+            default -> LongStream.range(100_000, 100_500).boxed().toArray(Serializable[]::new);
+        };
+        encoded = codec.getValueEncoder().encode(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoded.release();
+    }
+
+    @Benchmark
+    public int encode(EncodedSize encodedSize) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(payload);
+        int size = buf.readableBytes();
+        buf.release();
+        encodedSize.encodedBytes = size;
+        return size;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.getValueDecoder().decode(encoded.duplicate(), null);
+    }
+
+    private static Serializable[] assetState() {
+        return new Serializable[] {
+            0L,
+            "ASSET-000123",
+            "Lenovo",
+            "ThinkPad T14 Gen 4",
+            "PF4XK2Z9",
+            Instant.parse("2024-01-15T09:30:00Z"),
+            Instant.parse("2027-01-15T09:30:00Z"),
+            "Docking station and charger included",
+            Status.IN_USE,
+            1001L,
+        };
+    }
+
+    /**
+     * Encoded size of the payload, reported as-is at the end of each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long encodedBytes;
+    }
+}
@@ -1,5 +1,8 @@
 package be.johanaerens.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +16,24 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final CsvImport csvImport = new CsvImport();
+
+    private final Cache cache = new Cache();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public CsvImport getCsvImport() {
+        return csvImport;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +48,480 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class CsvImport {
+
+        /**
+         * Number of CSV records parsed and written together.
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Number of parser threads, defaults to the number of available processors.
+         */
+        private int parallelism = 0;
+
+        /**
+         * Number of chunks waiting between two stages of the pipeline.
+         */
+        private int queueCapacity = 8;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings of the caches by name, the second-level cache regions being named after their entity or collection.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final Codec codec = new Codec();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final Fallback fallback = new Fallback();
+
+        private final HotKeys hotKeys = new HotKeys();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public Codec getCodec() {
+            return codec;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public Fallback getFallback() {
+            return fallback;
+        }
+
+        public HotKeys getHotKeys() {
+            return hotKeys;
+        }
+
+        /**
+         * @param name the name of the cache.
+         * @return the settings of the cache, the default ones if it has none.
+         */
+        public Region getRegion(String name) {
+            return regions.getOrDefault(name, Region.DEFAULT);
+        }
+
+        public static class Region {
+
+            static final Region DEFAULT = new Region();
+
+            /**
+             * Time to live of the entries, defaults to {@code jhipster.cache.redis.expiration}.
+             */
+            private Duration timeToLive;
+
+            /**
+             * Event starting the time to live of an entry.
+             */
+            private Expiry expiry = Expiry.CREATED;
+
+            /**
+             * Largest fraction of the time to live randomly removed from each entry, so that the entries cached together do
+             * not expire together.
+             */
+            private double timeToLiveJitter = 0.1;
+
+            /**
+             * Eagerness of the probabilistic refresh of the hot entries before they expire, 0 not to refresh them early.
+             */
+            private double earlyRefreshBeta = 1;
+
+            /**
+             * Longest time a second-level cache miss waits for another thread of the instance loading the same entry,
+             * 0 to load it right away.
+             */
+            private Duration loadWaitTimeout = Duration.ofMillis(200);
+
+            /**
+             * Maximum number of entries of a second-level cache region put by each instance, 0 for no maximum.
+             */
+            private int maxEntries = 0;
+
+            /**
+             * Maximum number of entries kept on-heap in front of the cache by each instance, 0 for no near cache.
+             */
+            private int nearCacheEntries = 0;
+
+            /**
+             * Time to live of the entries kept on-heap, bounding how long an entry can be stale if an invalidation is lost.
+             */
+            private Duration nearCacheTimeToLive = Duration.ofMinutes(1);
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Expiry getExpiry() {
+                return expiry;
+            }
+
+            public void setExpiry(Expiry expiry) {
+                this.expiry = expiry;
+            }
+
+            public double getTimeToLiveJitter() {
+                return timeToLiveJitter;
+            }
+
+            public void setTimeToLiveJitter(double timeToLiveJitter) {
+                this.timeToLiveJitter = timeToLiveJitter;
+            }
+
+            public double getEarlyRefreshBeta() {
+                return earlyRefreshBeta;
+            }
+
+            public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+                this.earlyRefreshBeta = earlyRefreshBeta;
+            }
+
+            public Duration getLoadWaitTimeout() {
+                return loadWaitTimeout;
+            }
+
+            public void setLoadWaitTimeout(Duration loadWaitTimeout) {
+                this.loadWaitTimeout = loadWaitTimeout;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getNearCacheEntries() {
+                return nearCacheEntries;
+            }
+
+            public void setNearCacheEntries(int nearCacheEntries) {
+                this.nearCacheEntries = nearCacheEntries;
+            }
+
+            public Duration getNearCacheTimeToLive() {
+                return nearCacheTimeToLive;
+            }
+
+            public void setNearCacheTimeToLive(Duration nearCacheTimeToLive) {
+                this.nearCacheTimeToLive = nearCacheTimeToLive;
+            }
+        }
+
+        public static class WarmUp {
+
+            /**
+             * Whether to load the hot entries into the caches on startup, before accepting traffic.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Number of threads loading the entries.
+             */
+            private int parallelism = 4;
+
+            /**
+             * Number of entities loaded together.
+             */
+            private int chunkSize = 1000;
+
+            /**
+             * Maximum number of the latest assets and employees to load.
+             */
+            private int maxEntries = 50000;
+
+            /**
+             * Number of the most recently modified users to load into the {@code usersByLogin} cache.
+             */
+            private int users = 1000;
+
+            /**
+             * Longest time to wait for the warm-up before accepting traffic.
+             */
+            private Duration timeout = Duration.ofMinutes(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class Fallback {
+
+            /**
+             * Number of consecutive failed reads switching the caches to the on-heap fallback caches, a failed write switching
+             * them right away.
+             */
+            private int failureThreshold = 3;
+
+            /**
+             * Longest time to wait for a Redis command, without retry.
+             */
+            private Duration operationTimeout = Duration.ofMillis(500);
+
+            /**
+             * Time between the checks of Redis while the fallback caches are used.
+             */
+            private Duration probeInterval = Duration.ofSeconds(5);
+
+            /**
+             * Maximum number of entries of each fallback cache.
+             */
+            private int maxEntries = 1000;
+
+            /**
+             * Time to live of the entries of the fallback caches, bounding the time an instance may read the entities changed
+             * by the other ones.
+             */
+            private Duration timeToLive = Duration.ofMinutes(1);
+
+            public int getFailureThreshold() {
+                return failureThreshold;
+            }
+
+            public void setFailureThreshold(int failureThreshold) {
+                this.failureThreshold = failureThreshold;
+            }
+
+            public Duration getOperationTimeout() {
+                return operationTimeout;
+            }
+
+            public void setOperationTimeout(Duration operationTimeout) {
+                this.operationTimeout = operationTimeout;
+            }
+
+            public Duration getProbeInterval() {
+                return probeInterval;
+            }
+
+            public void setProbeInterval(Duration probeInterval) {
+                this.probeInterval = probeInterval;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        public static class HotKeys {
+
+            /**
+             * Whether to count the reads of the entities, to admit the frequently read entries into the near caches and warm
+             * them up first.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Number of counters of each row of the frequency sketches, rounded up to a power of two: the larger, the fewer
+             * keys share a counter and are overestimated.
+             */
+            private int sketchWidth = 8192;
+
+            /**
+             * Number of the most frequently read keys tracked by cache.
+             */
+            private int topKeys = 100;
+
+            /**
+             * Time between the publications of the most frequently read keys to Redis, where the instances starting up read
+             * them.
+             */
+            private Duration publishInterval = Duration.ofMinutes(1);
+
+            /**
+             * Length of the periods the most frequently read keys are published by: the keys not read anymore age out with
+             * their period.
+             */
+            private Duration publishedPeriod = Duration.ofHours(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getSketchWidth() {
+                return sketchWidth;
+            }
+
+            public void setSketchWidth(int sketchWidth) {
+                this.sketchWidth = sketchWidth;
+            }
+
+            public int getTopKeys() {
+                return topKeys;
+            }
+
+            public void setTopKeys(int topKeys) {
+                this.topKeys = topKeys;
+            }
+
+            public Duration getPublishInterval() {
+                return publishInterval;
+            }
+
+            public void setPublishInterval(Duration publishInterval) {
+                this.publishInterval = publishInterval;
+            }
+
+            public Duration getPublishedPeriod() {
+                return publishedPeriod;
+            }
+
+            public void setPublishedPeriod(Duration publishedPeriod) {
+                this.publishedPeriod = publishedPeriod;
+            }
+        }
+
+        public static class Codec {
+
+            /**
+             * Encoding of the cache entries in Redis.
+             */
+            private CodecType type = CodecType.COMPACT;
+
+            /**
+             * Size in bytes above which the compact cache entries are compressed, 0 not to compress them.
+             */
+            private int compressionThreshold = 1024;
+
+            public CodecType getType() {
+                return type;
+            }
+
+            public void setType(CodecType type) {
+                this.type = type;
+            }
+
+            public int getCompressionThreshold() {
+                return compressionThreshold;
+            }
+
+            public void setCompressionThreshold(int compressionThreshold) {
+                this.compressionThreshold = compressionThreshold;
+            }
+        }
+
+        public enum CodecType {
+            /**
+             * Java serialization.
+             */
+            JAVA,
+            /**
+             * Java serialization without the class descriptors, optionally compressed.
+             */
+            COMPACT,
+        }
+
+        public enum Expiry {
+            /**
+             * The entries expire once their time to live elapsed since they were written.
+             */
+            CREATED,
+            /**
+             * The entries expire once their time to live elapsed since they were last read or written.
+             */
+            ACCESSED,
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
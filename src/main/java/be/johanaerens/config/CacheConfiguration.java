@@ -1,17 +1,34 @@
 package be.johanaerens.config;
 
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import be.johanaerens.service.cache.CacheMappingVerifier;
+import be.johanaerens.service.cache.CacheRegionFactory;
+import be.johanaerens.service.cache.CompactCacheCodec;
+import be.johanaerens.service.cache.DecoratingCacheManager;
+import be.johanaerens.service.cache.HotKeyTracker;
+import be.johanaerens.service.cache.JitteredExpiryPolicy;
+import be.johanaerens.service.cache.NearCache;
+import be.johanaerens.service.cache.SingleFlightCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
 import java.net.URI;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.function.Function;
+import javax.cache.configuration.FactoryBuilder;
 import javax.cache.configuration.MutableConfiguration;
-import javax.cache.expiry.CreatedExpiryPolicy;
-import javax.cache.expiry.Duration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.redisson.jcache.configuration.RedissonConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
@@ -31,21 +48,38 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
-    @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
-        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+    }
 
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient() {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
+        // Connect on the first command rather than on startup: the caches are local until Redis answers
+        config.setLazyInitialization(true);
+        int timeout = (int) applicationProperties.getCache().getFallback().getOperationTimeout().toMillis();
         // Fix Hibernate lazy initialization https://github.com/jhipster/generator-jhipster/issues/22889
-        config.setCodec(new org.redisson.codec.SerializationCodec());
+        ApplicationProperties.Cache.Codec codec = applicationProperties.getCache().getCodec();
+        config.setCodec(
+            codec.getType() == ApplicationProperties.Cache.CodecType.COMPACT
+                ? new CompactCacheCodec(codec.getCompressionThreshold())
+                : new org.redisson.codec.SerializationCodec()
+        );
         if (jHipsterProperties.getCache().getRedis().isCluster()) {
             ClusterServersConfig clusterServersConfig = config
                 .useClusterServers()
                 .setMasterConnectionPoolSize(jHipsterProperties.getCache().getRedis().getConnectionPoolSize())
                 .setMasterConnectionMinimumIdleSize(jHipsterProperties.getCache().getRedis().getConnectionMinimumIdleSize())
                 .setSubscriptionConnectionPoolSize(jHipsterProperties.getCache().getRedis().getSubscriptionConnectionPoolSize())
+                .setTimeout(timeout)
+                .setRetryAttempts(0)
                 .addNodeAddress(jHipsterProperties.getCache().getRedis().getServer());
 
             if (redisUri.getUserInfo() != null) {
@@ -57,26 +91,86 @@ public class CacheConfiguration {
                 .setConnectionPoolSize(jHipsterProperties.getCache().getRedis().getConnectionPoolSize())
                 .setConnectionMinimumIdleSize(jHipsterProperties.getCache().getRedis().getConnectionMinimumIdleSize())
                 .setSubscriptionConnectionPoolSize(jHipsterProperties.getCache().getRedis().getSubscriptionConnectionPoolSize())
+                .setTimeout(timeout)
+                .setRetryAttempts(0)
                 .setAddress(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
             if (redisUri.getUserInfo() != null) {
                 singleServerConfig.setPassword(redisUri.getUserInfo().substring(redisUri.getUserInfo().indexOf(':') + 1));
             }
         }
-        jcacheConfig.setStatisticsEnabled(true);
-        jcacheConfig.setExpiryPolicyFactory(
-            CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, jHipsterProperties.getCache().getRedis().getExpiration()))
-        );
-        return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
+        return Redisson.create(config);
+    }
+
+    /**
+     * The configuration of the caches without settings in {@code application.cache.regions}.
+     */
+    @Bean
+    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(RedissonClient redissonClient) {
+        return RedissonConfiguration.fromInstance(redissonClient, regionConfiguration(ApplicationProperties.Cache.Region.DEFAULT));
     }
 
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cm) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cm,
+        NearCache nearCache,
+        HotKeyTracker hotKeyTracker,
+        CacheCircuitBreaker circuitBreaker,
+        RedissonClient redissonClient,
+        MeterRegistry meterRegistry
+    ) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+            hibernateProperties.put(
+                AvailableSettings.SESSION_FACTORY_OBSERVER,
+                new CacheMappingVerifier(cm, redissonClient, circuitBreaker)
+            );
+            hibernateProperties.put(
+                AvailableSettings.CACHE_REGION_FACTORY,
+                new CacheRegionFactory(applicationProperties.getCache(), nearCache, hotKeyTracker, circuitBreaker, meterRegistry)
+            );
+        };
     }
 
+    /**
+     * Load the values of the Spring caches once, put the near caches in front of the ones with settings for them, like
+     * {@code usersByLogin}, and keep the values on-heap while Redis is unavailable.
+     */
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
+    public static BeanPostProcessor decoratingCacheManagerPostProcessor(
+        ObjectProvider<NearCache> nearCache,
+        ObjectProvider<CacheCircuitBreaker> circuitBreaker,
+        ObjectProvider<ApplicationProperties> applicationProperties
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof org.springframework.cache.CacheManager cacheManager) {
+                    return new DecoratingCacheManager(
+                        cacheManager,
+                        nearCache.getObject(),
+                        circuitBreaker.getObject(),
+                        applicationProperties.getObject().getCache()
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Keep the JCache metrics of the decorated Spring caches.
+     */
+    @Bean
+    public CacheMeterBinderProvider<SingleFlightCache> singleFlightCacheMeterBinderProvider() {
+        return (cache, tags) ->
+            cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache ? new JCacheMetrics<>(nativeCache, tags) : null;
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer(RedissonClient redissonClient) {
+        Function<String, javax.cache.configuration.Configuration<Object, Object>> jcacheConfiguration = cacheName ->
+            RedissonConfiguration.fromInstance(redissonClient, regionConfiguration(applicationProperties.getCache().getRegion(cacheName)));
         return cm -> {
             createCache(cm, be.johanaerens.repository.UserRepository.USERS_BY_LOGIN_CACHE, jcacheConfiguration);
             createCache(cm, be.johanaerens.repository.UserRepository.USERS_BY_EMAIL_CACHE, jcacheConfiguration);
@@ -84,23 +178,54 @@ public class CacheConfiguration {
             createCache(cm, be.johanaerens.domain.Authority.class.getName(), jcacheConfiguration);
             createCache(cm, be.johanaerens.domain.User.class.getName() + ".authorities", jcacheConfiguration);
             createCache(cm, be.johanaerens.domain.Asset.class.getName(), jcacheConfiguration);
+            createCache(cm, be.johanaerens.domain.Asset.class.getName() + "##NaturalId", jcacheConfiguration);
+            createCache(cm, be.johanaerens.service.NaturalKeyLookupService.ASSET_IDS_BY_SERIAL_NUMBER_CACHE, jcacheConfiguration);
             createCache(cm, be.johanaerens.domain.AssetHistory.class.getName(), jcacheConfiguration);
             createCache(cm, be.johanaerens.domain.Employee.class.getName(), jcacheConfiguration);
+            createCache(cm, be.johanaerens.domain.Employee.class.getName() + "##NaturalId", jcacheConfiguration);
             createCache(cm, be.johanaerens.domain.Employee.class.getName() + ".assets", jcacheConfiguration);
+            createCache(cm, be.johanaerens.service.TableGenerationService.TABLE_GENERATIONS_CACHE, jcacheConfiguration);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, jcacheConfiguration);
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, jcacheConfiguration);
+            createCache(cm, be.johanaerens.repository.AssetRepository.ASSETS_BY_EMPLOYEE_QUERY_CACHE, jcacheConfiguration);
+            createCache(cm, be.johanaerens.repository.AssetRepository.UNASSIGNED_ASSETS_QUERY_CACHE, jcacheConfiguration);
+            createCache(cm, be.johanaerens.repository.UserRepository.ACTIVATED_USERS_QUERY_CACHE, jcacheConfiguration);
             // jhipster-needle-redis-add-entry
         };
     }
 
+    private MutableConfiguration<Object, Object> regionConfiguration(ApplicationProperties.Cache.Region region) {
+        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
+        jcacheConfig.setStatisticsEnabled(true);
+        Duration timeToLive = region.getTimeToLive() != null
+            ? region.getTimeToLive()
+            : Duration.ofSeconds(jHipsterProperties.getCache().getRedis().getExpiration());
+        jcacheConfig.setExpiryPolicyFactory(
+            FactoryBuilder.factoryOf(
+                new JitteredExpiryPolicy(
+                    timeToLive,
+                    region.getTimeToLiveJitter(),
+                    region.getExpiry() == ApplicationProperties.Cache.Expiry.ACCESSED
+                )
+            )
+        );
+        return jcacheConfig;
+    }
+
     private void createCache(
         javax.cache.CacheManager cm,
         String cacheName,
-        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration
+        Function<String, javax.cache.configuration.Configuration<Object, Object>> jcacheConfiguration
     ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
-            cache.clear();
+            // The compact codec reads the entries written by other versions of the classes as misses, and the entity regions
+            // whose mapping changed are cleared by the CacheMappingVerifier: the entries can be kept
+            if (applicationProperties.getCache().getCodec().getType() == ApplicationProperties.Cache.CodecType.JAVA) {
+                cache.clear();
+            }
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration.apply(cacheName));
         }
     }
 
@@ -0,0 +1,35 @@
+package be.johanaerens.config;
+
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether the caches are shared through Redis, or local to the instance while Redis is unavailable.
+ * <p>
+ * The local mode is reported with the {@link #DEGRADED} status, which is left out of the aggregated status: the instance
+ * keeps serving its requests from the database and its fallback caches.
+ */
+@Component
+public class CacheHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis is unavailable, the caches are local to the instance");
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    public CacheHealthIndicator(CacheCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = circuitBreaker.isRemote() ? Health.up() : Health.status(DEGRADED);
+        health.withDetail("mode", circuitBreaker.getMode()).withDetail("since", circuitBreaker.getModeChangedAt());
+        if (circuitBreaker.getLastFailure() != null) {
+            health.withDetail("lastFailure", circuitBreaker.getLastFailure());
+        }
+        return health.build();
+    }
+}
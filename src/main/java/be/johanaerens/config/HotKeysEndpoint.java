@@ -0,0 +1,35 @@
+package be.johanaerens.config;
+
+import be.johanaerens.service.cache.FrequencySketch.HotKey;
+import be.johanaerens.service.cache.HotKeyTracker;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint listing the most frequently read cache keys of the instance, with their estimated number of reads,
+ * at {@code /management/hotkeys}, or {@code /management/hotkeys/{cacheName}} for a single cache.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys() {
+        return hotKeyTracker.topKeys();
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeys(@Selector String cacheName) {
+        return hotKeyTracker.topKeys(cacheName);
+    }
+}
@@ -0,0 +1,29 @@
+package be.johanaerens.config;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.Employee;
+import org.hibernate.Interceptor;
+
+/**
+ * Hibernate interceptor keeping the identifier as the way to tell new entities from existing ones.
+ * <p>
+ * Hibernate considers a versioned entity without version as transient, which would reject the relationships
+ * received as {@code {"id": ...}} references. The identifiers are generated, so an entity with an identifier
+ * is never transient.
+ */
+public class VersionedEntityInterceptor implements Interceptor {
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        Long id = null;
+        if (entity instanceof Asset asset) {
+            id = asset.getId();
+        } else if (entity instanceof Employee employee) {
+            id = employee.getId();
+        } else if (entity instanceof AssetHistory assetHistory) {
+            id = assetHistory.getId();
+        }
+        return id != null ? Boolean.FALSE : null;
+    }
+}
@@ -5,27 +5,45 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Comparator;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * A Asset.
+ * <p>
+ * The hash code is the same for all the assets, so that it does not change when an asset is persisted: a large hash set of
+ * assets, like the assets of an employee, keeps them all in a single bucket. The assets are comparable by id so that
+ * {@link java.util.HashMap} turns that bucket into a tree ordered by id, where an asset is found in a logarithmic time
+ * rather than a linear one.
  */
 @Entity
 @Table(name = "asset")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@NaturalIdCache
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Asset implements Serializable {
+public class Asset implements Serializable, Comparable<Asset> {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Comparator<Asset> BY_ID = Comparator.comparing(Asset::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
     @SequenceGenerator(name = "sequenceGenerator")
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "number")
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @NaturalId(mutable = true)
+    @Column(name = "number", unique = true)
     private String number;
 
     @Column(name = "brand")
@@ -34,7 +52,7 @@ public class Asset implements Serializable {
     @Column(name = "model")
     private String model;
 
-    @Column(name = "serial_number")
+    @Column(name = "serial_number", unique = true)
     private String serialNumber;
 
     @Column(name = "purchase_date")
@@ -51,13 +69,9 @@ public class Asset implements Serializable {
     private Status status;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JsonIgnoreProperties(value = { "assets", "assetHistory" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "assets" }, allowSetters = true)
     private Employee employee;
 
-    @JsonIgnoreProperties(value = { "asset", "employee" }, allowSetters = true)
-    @OneToOne(fetch = FetchType.LAZY, mappedBy = "asset")
-    private AssetHistory assetHistory;
-
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -73,6 +87,19 @@ public class Asset implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Asset version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getNumber() {
         return this.number;
     }
@@ -190,25 +217,6 @@ public class Asset implements Serializable {
         return this;
     }
 
-    public AssetHistory getAssetHistory() {
-        return this.assetHistory;
-    }
-
-    public void setAssetHistory(AssetHistory assetHistory) {
-        if (this.assetHistory != null) {
-            this.assetHistory.setAsset(null);
-        }
-        if (assetHistory != null) {
-            assetHistory.setAsset(this);
-        }
-        this.assetHistory = assetHistory;
-    }
-
-    public Asset assetHistory(AssetHistory assetHistory) {
-        this.setAssetHistory(assetHistory);
-        return this;
-    }
-
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -228,11 +236,25 @@ public class Asset implements Serializable {
         return getClass().hashCode();
     }
 
+    /**
+     * Compare the assets by id, the transient ones last: unlike {@link #equals(Object)}, two transient assets compare as
+     * equal.
+     * <p>
+     * The logarithmic lookups in the sets of many assets rely on the tree bins of {@link java.util.HashMap}, an
+     * implementation detail of the JDK, which only orders the keys whose runtime class is exactly {@code Asset}: the
+     * Hibernate proxies and the subclasses of {@code Asset} are not ordered, and are found in a linear time.
+     */
+    @Override
+    public int compareTo(Asset other) {
+        return BY_ID.compare(this, other);
+    }
+
     // prettier-ignore
     @Override
     public String toString() {
         return "Asset{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", number='" + getNumber() + "'" +
             ", brand='" + getBrand() + "'" +
             ", model='" + getModel() + "'" +
@@ -6,6 +6,7 @@ import java.io.Serializable;
 import java.time.Instant;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A AssetHistory.
@@ -13,6 +14,7 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "asset_history")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class AssetHistory implements Serializable {
 
@@ -24,18 +26,22 @@ public class AssetHistory implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "start_date")
     private Instant startDate;
 
     @Column(name = "end_date")
     private Instant endDate;
 
-    @JsonIgnoreProperties(value = { "employee", "assetHistory" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "employee" }, allowSetters = true)
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = true)
     private Asset asset;
 
-    @JsonIgnoreProperties(value = { "assets", "assetHistory" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "assets" }, allowSetters = true)
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = true)
     private Employee employee;
@@ -55,6 +61,19 @@ public class AssetHistory implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public AssetHistory version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getStartDate() {
         return this.startDate;
     }
@@ -131,6 +150,7 @@ public class AssetHistory implements Serializable {
     public String toString() {
         return "AssetHistory{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", startDate='" + getStartDate() + "'" +
             ", endDate='" + getEndDate() + "'" +
             "}";
@@ -7,8 +7,12 @@ import java.io.Serializable;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * A Employee.
@@ -16,6 +20,8 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "employee")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@NaturalIdCache
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Employee implements Serializable {
 
@@ -27,6 +33,10 @@ public class Employee implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "first_name")
     private String firstName;
 
@@ -36,7 +46,8 @@ public class Employee implements Serializable {
     @Column(name = "email")
     private String email;
 
-    @Column(name = "employee_number")
+    @NaturalId(mutable = true)
+    @Column(name = "employee_number", unique = true)
     private String employeeNumber;
 
     @Column(name = "phone_number")
@@ -51,13 +62,9 @@ public class Employee implements Serializable {
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "employee")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
-    @JsonIgnoreProperties(value = { "employee", "assetHistory" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "employee" }, allowSetters = true)
     private Set<Asset> assets = new HashSet<>();
 
-    @JsonIgnoreProperties(value = { "asset", "employee" }, allowSetters = true)
-    @OneToOne(fetch = FetchType.LAZY, mappedBy = "employee")
-    private AssetHistory assetHistory;
-
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -73,6 +80,19 @@ public class Employee implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Employee version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return this.firstName;
     }
@@ -183,34 +203,26 @@ public class Employee implements Serializable {
         return this;
     }
 
+    /**
+     * Assign an asset to the employee, without loading the assets of the employee: the asset owns the association, and the
+     * assets loaded after the flush include it.
+     */
     public Employee addAsset(Asset asset) {
-        this.assets.add(asset);
+        if (Hibernate.isInitialized(this.assets)) {
+            this.assets.add(asset);
+        }
         asset.setEmployee(this);
         return this;
     }
 
+    /**
+     * Unassign an asset from the employee, without loading the assets of the employee.
+     */
     public Employee removeAsset(Asset asset) {
-        this.assets.remove(asset);
-        asset.setEmployee(null);
-        return this;
-    }
-
-    public AssetHistory getAssetHistory() {
-        return this.assetHistory;
-    }
-
-    public void setAssetHistory(AssetHistory assetHistory) {
-        if (this.assetHistory != null) {
-            this.assetHistory.setEmployee(null);
-        }
-        if (assetHistory != null) {
-            assetHistory.setEmployee(this);
+        if (Hibernate.isInitialized(this.assets)) {
+            this.assets.remove(asset);
         }
-        this.assetHistory = assetHistory;
-    }
-
-    public Employee assetHistory(AssetHistory assetHistory) {
-        this.setAssetHistory(assetHistory);
+        asset.setEmployee(null);
         return this;
     }
 
@@ -238,6 +250,7 @@ public class Employee implements Serializable {
     public String toString() {
         return "Employee{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", firstName='" + getFirstName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", email='" + getEmail() + "'" +
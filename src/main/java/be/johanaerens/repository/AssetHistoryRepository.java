@@ -1,7 +1,9 @@
 package be.johanaerens.repository;
 
 import be.johanaerens.domain.AssetHistory;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long> {}
+public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long>, KeysetPaginationRepository<AssetHistory> {
+    @Query("select assetHistory.version from AssetHistory assetHistory where assetHistory.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
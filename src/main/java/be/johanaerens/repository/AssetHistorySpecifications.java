@@ -0,0 +1,33 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.AssetHistory_;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * {@link Specification}s on the entities referenced by an {@link AssetHistory}.
+ */
+public final class AssetHistorySpecifications {
+
+    private AssetHistorySpecifications() {}
+
+    /**
+     * Entities not referenced by any {@link AssetHistory}, as a {@code NOT EXISTS} anti-join, so that the database only
+     * returns the matching rows instead of loading the inverse side of the one-to-one for every row.
+     *
+     * @param reference the {@link AssetHistory} attribute referencing the entity.
+     * @param <T> the type of the entity.
+     * @return the specification.
+     */
+    public static <T> Specification<T> withoutAssetHistory(SingularAttribute<AssetHistory, T> reference) {
+        return (root, query, cb) -> {
+            Subquery<Long> assetHistory = query.subquery(Long.class);
+            Root<AssetHistory> history = assetHistory.from(AssetHistory.class);
+            assetHistory.select(history.get(AssetHistory_.id)).where(cb.equal(history.get(reference), root));
+            return cb.not(cb.exists(assetHistory));
+        };
+    }
+}
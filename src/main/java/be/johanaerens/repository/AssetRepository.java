@@ -1,7 +1,20 @@
 package be.johanaerens.repository;
 
 import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Asset_;
+import be.johanaerens.domain.Employee_;
+import be.johanaerens.domain.enumeration.Status;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +22,141 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AssetRepository extends JpaRepository<Asset, Long> {}
+public interface AssetRepository extends JpaRepository<Asset, Long>, KeysetPaginationRepository<Asset>, AssetRepositoryWithSummaries {
+    /**
+     * Query space of the status transitions.
+     * <p>
+     * It is not the query space of any entity, so that Hibernate does not clear the whole {@code Asset}
+     * second-level cache region after a transition: the affected entries are evicted by their ids instead,
+     * and the cached queries of the {@code asset} table are invalidated along with them.
+     */
+    String STATUS_TRANSITION_QUERY_SPACE = "asset_status_transition";
+
+    /**
+     * Query cache region of the assets used by an employee.
+     */
+    String ASSETS_BY_EMPLOYEE_QUERY_CACHE = "query.assetsByEmployee";
+
+    /**
+     * Query cache region of the assets used by no employee.
+     */
+    String UNASSIGNED_ASSETS_QUERY_CACHE = "query.unassignedAssets";
+
+    /**
+     * Stream all the assets through a forward-only cursor, without putting them in the second-level cache.
+     * <p>
+     * Must be consumed inside a transaction, and the stream must be closed.
+     *
+     * @return the assets, ordered by id.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    Stream<Asset> streamAllByOrderById();
+
+    /**
+     * Find the assets used by an employee, from the query cache until the {@code asset} table changes.
+     *
+     * @param employeeId the id of the employee.
+     * @param sort the sort of the assets.
+     * @return the assets of the employee.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ASSETS_BY_EMPLOYEE_QUERY_CACHE),
+        }
+    )
+    List<Asset> findAllByEmployeeId(Long employeeId, Sort sort);
+
+    /**
+     * Read a page of the assets used by an employee, on the {@code (employee_id, sort property, id)} indexes.
+     *
+     * @param employeeId the id of the employee.
+     * @param position the position to continue from.
+     * @param limit the maximum number of assets to read.
+     * @return the assets, ordered by {@code (sort property, id)}.
+     */
+    default List<Asset> findAllByEmployeeIdAfter(Long employeeId, KeysetPosition position, int limit) {
+        return findAllAfter((root, query, cb) -> cb.equal(root.get(Asset_.employee).get(Employee_.id), employeeId), position, limit);
+    }
+
+    /**
+     * Count the assets used by an employee, on the {@code (employee_id, id)} index, without loading them.
+     *
+     * @param employeeId the id of the employee.
+     * @return the number of assets of the employee.
+     */
+    long countByEmployeeId(Long employeeId);
+
+    /**
+     * Find the assets used by no employee, from the query cache until the {@code asset} table changes.
+     *
+     * @param sort the sort of the assets.
+     * @return the unassigned assets.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = UNASSIGNED_ASSETS_QUERY_CACHE),
+        }
+    )
+    List<Asset> findAllByEmployeeIsNull(Sort sort);
+
+    @Query("select asset.version from Asset asset where asset.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select asset.id from Asset asset order by asset.id desc")
+    List<Long> findLatestIds(Pageable pageable);
+
+    @Query("select asset.id from Asset asset where asset.serialNumber = :serialNumber")
+    Optional<Long> findIdBySerialNumber(@Param("serialNumber") String serialNumber);
+
+    @Query("select asset.number from Asset asset where asset.number in :numbers")
+    Set<String> findNumbersByNumberIn(@Param("numbers") Collection<String> numbers);
+
+    @Query("select asset.serialNumber from Asset asset where asset.serialNumber in :serialNumbers")
+    Set<String> findSerialNumbersBySerialNumberIn(@Param("serialNumbers") Collection<String> serialNumbers);
+
+    @Query("select asset.id from Asset asset where asset.status = :status and asset.id > :lastId order by asset.id")
+    List<Long> findIdsByStatusAfter(@Param("status") Status status, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(
+        "select asset.id from Asset asset where asset.status = :status and asset.employee.id = :employeeId and asset.id > :lastId order by asset.id"
+    )
+    List<Long> findIdsByStatusAndEmployeeIdAfter(
+        @Param("status") Status status,
+        @Param("employeeId") Long employeeId,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
+
+    /**
+     * Set the status of the given assets, with a single statement.
+     *
+     * @param status the name of the new status.
+     * @param ids the ids of the assets.
+     * @return the number of assets whose status changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update asset set status = :status, version = version + 1 where id in (:ids) and (status is null or status <> :status)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATUS_TRANSITION_QUERY_SPACE))
+    int updateStatusByIdIn(@Param("status") String status, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Set the status of the given assets currently in another status, with a single statement.
+     *
+     * @param status the name of the new status.
+     * @param fromStatus the name of the status the assets must currently be in.
+     * @param ids the ids of the assets.
+     * @return the number of assets whose status changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update asset set status = :status, version = version + 1 where id in (:ids) and status = :fromStatus and status <> :status", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATUS_TRANSITION_QUERY_SPACE))
+    int updateStatusByIdInAndStatus(@Param("status") String status, @Param("fromStatus") String fromStatus, @Param("ids") Collection<Long> ids);
+}
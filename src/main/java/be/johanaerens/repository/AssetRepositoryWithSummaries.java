@@ -0,0 +1,21 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.Asset;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment reading pages of {@link AssetSummary asset summaries}, with keyset pagination.
+ */
+public interface AssetRepositoryWithSummaries {
+    /**
+     * Read the summaries of the assets matching the given specification and following the given position, along with the
+     * names of their employees, in a single statement and without loading any entity.
+     *
+     * @param specification the specification the assets must match.
+     * @param position the position to continue from.
+     * @param limit the maximum number of summaries to read.
+     * @return the summaries, ordered by {@code (sort property, id)}.
+     */
+    List<AssetSummary> findAllSummariesAfter(Specification<Asset> specification, KeysetPosition position, int limit);
+}
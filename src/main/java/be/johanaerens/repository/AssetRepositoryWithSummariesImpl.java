@@ -0,0 +1,52 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Asset_;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.domain.Employee_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class AssetRepositoryWithSummariesImpl implements AssetRepositoryWithSummaries {
+
+    private final EntityManager entityManager;
+
+    public AssetRepositoryWithSummariesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<AssetSummary> findAllSummariesAfter(Specification<Asset> specification, KeysetPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AssetSummary> query = cb.createQuery(AssetSummary.class);
+        Root<Asset> root = query.from(Asset.class);
+        Join<Asset, Employee> employee = root.join(Asset_.employee, JoinType.LEFT);
+        query.select(
+            cb.construct(
+                AssetSummary.class,
+                root.get(Asset_.id),
+                root.get(Asset_.number),
+                root.get(Asset_.brand),
+                root.get(Asset_.model),
+                root.get(Asset_.status),
+                employee.get(Employee_.id),
+                employee.get(Employee_.firstName),
+                employee.get(Employee_.lastName)
+            )
+        );
+        Predicate predicate = specification.and(new KeysetSpecification<>(position)).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(position.toSort(), root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
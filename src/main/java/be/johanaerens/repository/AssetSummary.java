@@ -0,0 +1,41 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.enumeration.Status;
+import java.io.Serializable;
+
+/**
+ * The columns of an {@link be.johanaerens.domain.Asset} shown in the list screens, read without loading the entity.
+ *
+ * @param id the id of the asset.
+ * @param number the number of the asset.
+ * @param brand the brand of the asset.
+ * @param model the model of the asset.
+ * @param status the status of the asset.
+ * @param employeeId the id of the employee using the asset, if any.
+ * @param employeeName the display name of the employee using the asset, if any.
+ */
+public record AssetSummary(Long id, String number, String brand, String model, Status status, Long employeeId, String employeeName)
+    implements Serializable {
+    /**
+     * Constructor used by the queries, building the display name of the employee from its first and last names.
+     */
+    public AssetSummary(
+        Long id,
+        String number,
+        String brand,
+        String model,
+        Status status,
+        Long employeeId,
+        String employeeFirstName,
+        String employeeLastName
+    ) {
+        this(id, number, brand, model, status, employeeId, displayName(employeeFirstName, employeeLastName));
+    }
+
+    private static String displayName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+}
@@ -1,7 +1,13 @@
 package be.johanaerens.repository;
 
 import be.johanaerens.domain.Employee;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,20 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {}
+public interface EmployeeRepository
+    extends JpaRepository<Employee, Long>, KeysetPaginationRepository<Employee>, EmployeeRepositoryWithSummaries {
+    @Query(
+        "select new be.johanaerens.repository.EmployeeSummary(employee.id, employee.employeeNumber, employee.firstName," +
+        " employee.lastName, employee.email) from Employee employee order by employee.id"
+    )
+    List<EmployeeSummary> findAllSummaries();
+
+    @Query("select employee.version from Employee employee where employee.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select employee.id from Employee employee order by employee.id desc")
+    List<Long> findLatestIds(Pageable pageable);
+
+    @Query("select employee.id from Employee employee where employee.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,21 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.Employee;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment reading pages of {@link EmployeeSummary employee summaries}, with keyset pagination.
+ */
+public interface EmployeeRepositoryWithSummaries {
+    /**
+     * Read the summaries of the employees matching the given specification and following the given position, without
+     * loading any entity.
+     *
+     * @param specification the specification the employees must match.
+     * @param position the position to continue from.
+     * @param limit the maximum number of summaries to read.
+     * @return the summaries, ordered by {@code (sort property, id)}.
+     */
+    List<EmployeeSummary> findAllSummariesAfter(Specification<Employee> specification, KeysetPosition position, int limit);
+}
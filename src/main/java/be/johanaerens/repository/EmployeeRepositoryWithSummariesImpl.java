@@ -0,0 +1,44 @@
+package be.johanaerens.repository;
+
+import be.johanaerens.domain.Employee;
+import be.johanaerens.domain.Employee_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class EmployeeRepositoryWithSummariesImpl implements EmployeeRepositoryWithSummaries {
+
+    private final EntityManager entityManager;
+
+    public EmployeeRepositoryWithSummariesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<EmployeeSummary> findAllSummariesAfter(Specification<Employee> specification, KeysetPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeSummary> query = cb.createQuery(EmployeeSummary.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(
+            cb.construct(
+                EmployeeSummary.class,
+                root.get(Employee_.id),
+                root.get(Employee_.employeeNumber),
+                root.get(Employee_.firstName),
+                root.get(Employee_.lastName),
+                root.get(Employee_.email)
+            )
+        );
+        Predicate predicate = specification.and(new KeysetSpecification<>(position)).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(position.toSort(), root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
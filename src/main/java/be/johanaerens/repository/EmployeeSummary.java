@@ -0,0 +1,14 @@
+package be.johanaerens.repository;
+
+import java.io.Serializable;
+
+/**
+ * The columns of an {@link be.johanaerens.domain.Employee} shown in the list screens, read without loading the entity.
+ *
+ * @param id the id of the employee.
+ * @param employeeNumber the number of the employee.
+ * @param firstName the first name of the employee.
+ * @param lastName the last name of the employee.
+ * @param email the email of the employee.
+ */
+public record EmployeeSummary(Long id, String employeeNumber, String firstName, String lastName, String email) implements Serializable {}
@@ -0,0 +1,39 @@
+package be.johanaerens.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+
+/**
+ * Repository fragment for keyset (seek) pagination on {@code (sort property, id)}.
+ * <p>
+ * Unlike offset pagination, reading a page costs the same whatever its depth, as long as
+ * an index on {@code (sort property, id)} exists.
+ */
+public interface KeysetPaginationRepository<T> extends JpaSpecificationExecutor<T> {
+    /**
+     * Read the rows following the given position.
+     *
+     * @param position the position to continue from.
+     * @param limit the maximum number of rows to read.
+     * @return the rows, ordered by {@code (sort property, id)}.
+     */
+    default List<T> findAllAfter(KeysetPosition position, int limit) {
+        return findAllAfter(Specification.<T>where(null), position, limit);
+    }
+
+    /**
+     * Read the rows matching the given specification and following the given position.
+     *
+     * @param specification the specification the rows must match.
+     * @param position the position to continue from.
+     * @param limit the maximum number of rows to read.
+     * @return the rows, ordered by {@code (sort property, id)}.
+     */
+    default List<T> findAllAfter(Specification<T> specification, KeysetPosition position, int limit) {
+        return findBy(specification.and(new KeysetSpecification<>(position)), (FetchableFluentQuery<T> query) ->
+            query.sortBy(position.toSort()).limit(limit).all()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package be.johanaerens.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in a keyset (seek) ordered result, ordered by {@code (property, id)}.
+ * <p>
+ * An initial position has no {@code id} and starts at the beginning of the result, otherwise the
+ * result continues right after the row identified by {@code id} and its {@code value} for the sort property.
+ *
+ * @param property the sort property, {@code id} when ordering by identifier only.
+ * @param direction the sort direction, applied to both the sort property and the identifier.
+ * @param id the identifier of the last row already returned, {@code null} for the initial position.
+ * @param value the sort property value of the last row already returned, in its string form.
+ */
+public record KeysetPosition(String property, Sort.Direction direction, Long id, String value) {
+    public static final String ID_PROPERTY = "id";
+
+    public static KeysetPosition initial(String property, Sort.Direction direction) {
+        return new KeysetPosition(property, direction, null, null);
+    }
+
+    public boolean isInitial() {
+        return id == null;
+    }
+
+    public boolean isIdOnly() {
+        return ID_PROPERTY.equals(property);
+    }
+
+    public KeysetPosition next(Long lastId, String lastValue) {
+        return new KeysetPosition(property, direction, lastId, lastValue);
+    }
+
+    public Sort toSort() {
+        if (isIdOnly()) {
+            return Sort.by(direction, ID_PROPERTY);
+        }
+        return Sort.by(new Sort.Order(direction, property), new Sort.Order(direction, ID_PROPERTY));
+    }
+}
@@ -0,0 +1,71 @@
+package be.johanaerens.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.Serial;
+import java.time.Instant;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * {@link Specification} seeking past a {@link KeysetPosition}, so that the next rows are read from the
+ * {@code (property, id)} index instead of being skipped with an {@code OFFSET}.
+ * <p>
+ * Both H2 and SQL Server sort {@code null} values first in ascending order and last in descending order,
+ * the seek predicate follows the same convention so that rows with a {@code null} sort value are not lost.
+ */
+public class KeysetSpecification<T> implements Specification<T> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final KeysetPosition position;
+
+    public KeysetSpecification(KeysetPosition position) {
+        this.position = position;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (position.isInitial()) {
+            return cb.conjunction();
+        }
+        boolean ascending = position.direction().isAscending();
+        Path<Long> id = root.get(KeysetPosition.ID_PROPERTY);
+        Predicate idAfter = ascending ? cb.greaterThan(id, position.id()) : cb.lessThan(id, position.id());
+        if (position.isIdOnly()) {
+            return idAfter;
+        }
+
+        Path<Comparable<Object>> key = root.get(position.property());
+        Comparable<Object> value = convert(position.value(), key.getJavaType());
+        if (value == null) {
+            Predicate sameKey = cb.and(cb.isNull(key), idAfter);
+            return ascending ? cb.or(sameKey, cb.isNotNull(key)) : sameKey;
+        }
+        Predicate sameKey = cb.and(cb.equal(key, value), idAfter);
+        if (ascending) {
+            return cb.or(cb.greaterThan(key, value), sameKey);
+        }
+        return cb.or(cb.lessThan(key, value), sameKey, cb.isNull(key));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparable<Object> convert(String value, Class<?> javaType) {
+        if (value == null || String.class.equals(javaType)) {
+            return (Comparable) value;
+        }
+        if (Instant.class.equals(javaType)) {
+            return (Comparable) Instant.parse(value);
+        }
+        if (Long.class.equals(javaType)) {
+            return (Comparable) Long.valueOf(value);
+        }
+        if (javaType.isEnum()) {
+            return (Comparable) Enum.valueOf((Class<? extends Enum>) javaType, value);
+        }
+        throw new IllegalArgumentException("Unsupported keyset property type: " + javaType.getName());
+    }
+}
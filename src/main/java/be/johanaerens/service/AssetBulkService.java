@@ -0,0 +1,213 @@
+package be.johanaerens.service;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.service.dto.BulkCreationReportDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service creating assets in bulk.
+ * <p>
+ * The JSON array is parsed one item at a time and the valid items are inserted in JDBC batches of
+ * {@code hibernate.jdbc.batch_size}, the persistence context being flushed and cleared after each batch.
+ * Identifiers come from the pooled {@code sequence_generator}, so a batch only costs one sequence call.
+ * <p>
+ * Before a batch is inserted, its assets referencing an unknown employee, or reusing the number or the serial number of
+ * an existing asset or of an earlier item, are rejected and reported like the invalid ones, with one query per check and
+ * batch. An asset created concurrently with the same number or serial number still fails the insert, which then rolls
+ * back the whole request.
+ */
+@Service
+@Transactional
+public class AssetBulkService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetBulkService.class);
+
+    private final AssetRepository assetRepository;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int batchSize;
+
+    public AssetBulkService(
+        AssetRepository assetRepository,
+        EmployeeRepository employeeRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        Validator validator,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize
+    ) {
+        this.assetRepository = assetRepository;
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    private record Item(long index, Asset asset) {}
+
+    /**
+     * Create the assets of a JSON array, rejecting the invalid ones.
+     *
+     * @param json the JSON array of assets.
+     * @return the report of the creation.
+     * @throws IOException if the JSON array could not be read, in which case no asset is created.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public BulkCreationReportDTO createAll(InputStream json) throws IOException {
+        BulkCreationReportDTO report = new BulkCreationReportDTO();
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        // New assets are not read back right away, don't put them in the second-level cache
+        session.setCacheMode(CacheMode.GET);
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(json)) {
+            long index = 0;
+            List<Item> batch = new ArrayList<>(batchSize);
+            Set<String> numbers = new HashSet<>();
+            Set<String> serialNumbers = new HashSet<>();
+            while (items.hasNextValue()) {
+                Asset asset = validate(items.nextValue(), index, report);
+                if (asset != null && isUnique(asset, index, numbers, serialNumbers, report)) {
+                    batch.add(new Item(index, asset));
+                    if (batch.size() == batchSize) {
+                        save(batch, report);
+                        batch.clear();
+                    }
+                }
+                index++;
+            }
+            save(batch, report);
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        LOG.debug("Created Assets in bulk: {}", report);
+        return report;
+    }
+
+    /**
+     * Reject the asset reusing the number or the serial number of an earlier item.
+     */
+    private static boolean isUnique(Asset asset, long index, Set<String> numbers, Set<String> serialNumbers, BulkCreationReportDTO report) {
+        if (asset.getNumber() != null && numbers.contains(asset.getNumber())) {
+            report.addError(index, "numberexists", "Number " + asset.getNumber() + " is already used by an earlier item");
+            return false;
+        }
+        if (asset.getSerialNumber() != null && serialNumbers.contains(asset.getSerialNumber())) {
+            String message = "Serial number " + asset.getSerialNumber() + " is already used by an earlier item";
+            report.addError(index, "serialnumberexists", message);
+            return false;
+        }
+        numbers.add(asset.getNumber());
+        serialNumbers.add(asset.getSerialNumber());
+        return true;
+    }
+
+    /**
+     * Insert a batch of assets, rejecting the ones referencing an unknown employee or an existing natural key.
+     */
+    private void save(List<Item> batch, BulkCreationReportDTO report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> employeeIds = existing(values(batch, item -> employeeId(item.asset())), employeeRepository::findIdsByIdIn);
+        Set<String> existingNumbers = existing(values(batch, item -> item.asset().getNumber()), assetRepository::findNumbersByNumberIn);
+        Set<String> existingSerialNumbers = existing(
+            values(batch, item -> item.asset().getSerialNumber()),
+            assetRepository::findSerialNumbersBySerialNumberIn
+        );
+        for (Item item : batch) {
+            Asset asset = item.asset();
+            Long employeeId = employeeId(asset);
+            if (employeeId != null && !employeeIds.contains(employeeId)) {
+                report.addError(item.index(), "employeenotfound", "Employee " + employeeId + " does not exist");
+            } else if (asset.getNumber() != null && existingNumbers.contains(asset.getNumber())) {
+                report.addError(item.index(), "numberexists", "Number " + asset.getNumber() + " is already used");
+            } else if (asset.getSerialNumber() != null && existingSerialNumbers.contains(asset.getSerialNumber())) {
+                report.addError(item.index(), "serialnumberexists", "Serial number " + asset.getSerialNumber() + " is already used");
+            } else {
+                assetRepository.save(asset);
+                report.addCreated();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static <T> Set<T> values(List<Item> batch, Function<Item, T> value) {
+        Set<T> values = new HashSet<>();
+        for (Item item : batch) {
+            T itemValue = value.apply(item);
+            if (itemValue != null) {
+                values.add(itemValue);
+            }
+        }
+        return values;
+    }
+
+    private static <T> Set<T> existing(Set<T> values, Function<Set<T>, Set<T>> query) {
+        return values.isEmpty() ? Set.of() : query.apply(values);
+    }
+
+    private static Long employeeId(Asset asset) {
+        Employee employee = asset.getEmployee();
+        return employee != null ? employee.getId() : null;
+    }
+
+    private Asset validate(JsonNode item, long index, BulkCreationReportDTO report) {
+        Asset asset;
+        try {
+            asset = objectMapper.treeToValue(item, Asset.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            report.addError(index, "invalid", "Invalid asset: " + e.getMessage());
+            return null;
+        }
+        if (asset == null) {
+            report.addError(index, "invalid", "Invalid asset: null");
+            return null;
+        }
+        if (asset.getId() != null) {
+            report.addError(index, "idexists", "A new asset cannot already have an ID");
+            return null;
+        }
+        Set<ConstraintViolation<Asset>> violations = validator.validate(asset);
+        if (!violations.isEmpty()) {
+            report.addError(
+                index,
+                "invalid",
+                violations.stream().map(violation -> violation.getPropertyPath() + " " + violation.getMessage()).collect(Collectors.joining(", "))
+            );
+            return null;
+        }
+        return asset;
+    }
+}
@@ -0,0 +1,174 @@
+package be.johanaerens.service;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.repository.AssetRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting the full asset inventory.
+ * <p>
+ * Assets are read through a forward-only cursor and written one at a time, the persistence context being cleared
+ * every {@link #CLEAR_INTERVAL} rows, so that memory stays constant whatever the size of the inventory.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AssetExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetExportService.class);
+
+    static final int CLEAR_INTERVAL = 1000;
+
+    static final String CSV_SEPARATOR = ";";
+
+    static final String CSV_HEADER = String.join(
+        CSV_SEPARATOR,
+        "id",
+        "number",
+        "brand",
+        "model",
+        "serial_number",
+        "purchase_date",
+        "warant_date",
+        "comments",
+        "status",
+        "employee_id"
+    );
+
+    private final AssetRepository assetRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public AssetExportService(AssetRepository assetRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.assetRepository = assetRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write all the assets as newline delimited JSON, one asset per line.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if the assets could not be written.
+     */
+    public void exportNdjson(OutputStream out) throws IOException {
+        LOG.debug("Request to export all Assets as NDJSON");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            forEachAsset(generator::flush, asset -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", asset.getId());
+                writeStringField(generator, "number", asset.getNumber());
+                writeStringField(generator, "brand", asset.getBrand());
+                writeStringField(generator, "model", asset.getModel());
+                writeStringField(generator, "serialNumber", asset.getSerialNumber());
+                writeStringField(generator, "purchaseDate", asString(asset.getPurchaseDate()));
+                writeStringField(generator, "warantDate", asString(asset.getWarantDate()));
+                writeStringField(generator, "comments", asset.getComments());
+                writeStringField(generator, "status", asset.getStatus() != null ? asset.getStatus().name() : null);
+                if (asset.getEmployee() != null) {
+                    generator.writeNumberField("employeeId", asset.getEmployee().getId());
+                } else {
+                    generator.writeNullField("employeeId");
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    /**
+     * Write all the assets as CSV, using the same layout as the Liquibase data files.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if the assets could not be written.
+     */
+    public void exportCsv(OutputStream out) throws IOException {
+        LOG.debug("Request to export all Assets as CSV");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        forEachAsset(writer::flush, asset -> {
+            writer.write(
+                String.join(
+                    CSV_SEPARATOR,
+                    String.valueOf(asset.getId()),
+                    csvValue(asset.getNumber()),
+                    csvValue(asset.getBrand()),
+                    csvValue(asset.getModel()),
+                    csvValue(asset.getSerialNumber()),
+                    csvValue(asString(asset.getPurchaseDate())),
+                    csvValue(asString(asset.getWarantDate())),
+                    csvValue(asset.getComments()),
+                    asset.getStatus() != null ? asset.getStatus().name() : "",
+                    asset.getEmployee() != null ? String.valueOf(asset.getEmployee().getId()) : ""
+                )
+            );
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void forEachAsset(IOAction flush, AssetWriter assetWriter) throws IOException {
+        try (Stream<Asset> assets = assetRepository.streamAllByOrderById()) {
+            Iterator<Asset> iterator = assets.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                assetWriter.write(iterator.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    flush.run();
+                    entityManager.clear();
+                }
+            }
+            LOG.debug("Exported {} Assets", count);
+        }
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        } else {
+            generator.writeNullField(name);
+        }
+    }
+
+    private static String asString(Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+
+    static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(CSV_SEPARATOR) || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface AssetWriter {
+        void write(Asset asset) throws IOException;
+    }
+}
@@ -0,0 +1,94 @@
+package be.johanaerens.service;
+
+import be.johanaerens.domain.*; // for static metamodels
+import be.johanaerens.domain.Asset;
+import be.johanaerens.service.criteria.AssetCriteria;
+import be.johanaerens.service.criteria.PrefixStringFilter;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Asset} entities in the database.
+ * The main input is a {@link AssetCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * <p>
+ * The specifications are combined with the keyset pagination and the sort of {@code GET /api/assets},
+ * so that the database only returns the requested rows. The {@code (status, employee_id)},
+ * {@code (warant_date)} and {@code (serial_number)} indexes serve the most common filters.
+ */
+@Service
+public class AssetQueryService extends QueryService<Asset> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetQueryService.class);
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Function to convert {@link AssetCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    public Specification<Asset> createSpecification(AssetCriteria criteria) {
+        LOG.debug("create specification for criteria : {}", criteria);
+        Specification<Asset> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Asset_.id));
+            }
+            if (criteria.getNumber() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getNumber(), Asset_.number));
+            }
+            if (criteria.getBrand() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getBrand(), Asset_.brand));
+            }
+            if (criteria.getModel() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getModel(), Asset_.model));
+            }
+            if (criteria.getSerialNumber() != null) {
+                specification = specification.and(buildPrefixSpecification(criteria.getSerialNumber(), Asset_.serialNumber));
+            }
+            if (criteria.getPurchaseDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getPurchaseDate(), Asset_.purchaseDate));
+            }
+            if (criteria.getWarantDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getWarantDate(), Asset_.warantDate));
+            }
+            if (criteria.getComments() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getComments(), Asset_.comments));
+            }
+            if (criteria.getStatus() != null) {
+                specification = specification.and(buildSpecification(criteria.getStatus(), Asset_.status));
+            }
+            // The foreign key column is compared directly, without joining the employee table
+            if (criteria.getEmployeeId() != null) {
+                specification = specification.and(buildSpecification(criteria.getEmployeeId(), root -> root.get(Asset_.employee).get(Employee_.id)));
+            }
+        }
+        return specification;
+    }
+
+    private Specification<Asset> buildPrefixSpecification(PrefixStringFilter filter, SingularAttribute<? super Asset, String> field) {
+        Specification<Asset> specification = Specification.where(buildStringSpecification(filter, field));
+        if (filter.getStartsWith() != null) {
+            // A prefix pattern keeps the predicate sargable, so that the index on the column is used
+            String pattern = escapeLike(filter.getStartsWith()) + "%";
+            specification = specification.and((root, query, cb) -> cb.like(root.get(field), pattern, LIKE_ESCAPE));
+        }
+        return specification;
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
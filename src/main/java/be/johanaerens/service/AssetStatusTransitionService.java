@@ -0,0 +1,98 @@
+package be.johanaerens.service;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.service.dto.AssetStatusTransitionDTO;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service transitioning the status of several assets at once.
+ * <p>
+ * The assets are updated with one {@code UPDATE ... WHERE id IN} statement per chunk of {@link #CHUNK_SIZE} ids,
+ * which stays well below the 2100 parameters SQL Server accepts, and each chunk is evicted from the second-level
+ * cache in a single batch. The assets selected by status are read by pages of {@link #CHUNK_SIZE} ids, after the
+ * last id of the previous page, and each page is updated as it is read, instead of reading all the ids first.
+ */
+@Service
+@Transactional
+public class AssetStatusTransitionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetStatusTransitionService.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final AssetRepository assetRepository;
+
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    private final TableGenerationService tableGenerationService;
+
+    public AssetStatusTransitionService(
+        AssetRepository assetRepository,
+        EntityCacheEvictor entityCacheEvictor,
+        TableGenerationService tableGenerationService
+    ) {
+        this.assetRepository = assetRepository;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.tableGenerationService = tableGenerationService;
+    }
+
+    /**
+     * Transition the status of assets.
+     *
+     * @param transition the assets and their new status.
+     * @return the number of assets whose status changed.
+     */
+    public long transition(AssetStatusTransitionDTO transition) {
+        LOG.debug("Request to transition the status of Assets : {}", transition);
+        String status = transition.getStatus().name();
+        String fromStatus = transition.getFromStatus() != null ? transition.getFromStatus().name() : null;
+        long changed = 0;
+        if (transition.getIds() != null) {
+            // Sorted, so that concurrent transitions lock the rows in the same order
+            List<Long> ids = transition.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                changed += update(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())), status, fromStatus);
+            }
+        } else {
+            long lastId = Long.MIN_VALUE;
+            List<Long> page;
+            do {
+                page = selectIdsAfter(transition, lastId);
+                if (!page.isEmpty()) {
+                    changed += update(page, status, fromStatus);
+                    lastId = page.get(page.size() - 1);
+                }
+            } while (page.size() == CHUNK_SIZE);
+        }
+        if (changed > 0) {
+            tableGenerationService.bumpAfterCommit(Asset.class);
+        }
+        return changed;
+    }
+
+    private int update(List<Long> ids, String status, String fromStatus) {
+        int changed = fromStatus != null
+            ? assetRepository.updateStatusByIdInAndStatus(status, fromStatus, ids)
+            : assetRepository.updateStatusByIdIn(status, ids);
+        if (changed > 0) {
+            entityCacheEvictor.evictAfterCommit(Asset.class, ids);
+        }
+        return changed;
+    }
+
+    private List<Long> selectIdsAfter(AssetStatusTransitionDTO transition, long lastId) {
+        Pageable page = PageRequest.ofSize(CHUNK_SIZE);
+        if (transition.getEmployeeId() != null) {
+            return assetRepository.findIdsByStatusAndEmployeeIdAfter(transition.getFromStatus(), transition.getEmployeeId(), lastId, page);
+        }
+        return assetRepository.findIdsByStatusAfter(transition.getFromStatus(), lastId, page);
+    }
+}
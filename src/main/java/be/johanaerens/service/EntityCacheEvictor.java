@@ -0,0 +1,139 @@
+package be.johanaerens.service;
+
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import be.johanaerens.service.cache.NearCache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.support.RegionNameQualifier;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts entities from the second-level cache by their ids, for the changes made with SQL statements
+ * Hibernate cannot track.
+ * <p>
+ * All the entries are removed with a single {@link Cache#removeAll(Set)} call, instead of one call per id, or one by one
+ * from the fallback caches while Redis is unavailable.
+ * <p>
+ * The cached query results reading the tables of the entities are invalidated as well, by updating the timestamps of the
+ * tables in the {@code default-update-timestamps-region}, like Hibernate does for the changes it makes itself.
+ */
+@Component
+public class EntityCacheEvictor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCacheEvictor.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final NearCache nearCache;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    public EntityCacheEvictor(
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        NearCache nearCache,
+        CacheCircuitBreaker circuitBreaker
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.nearCache = nearCache;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Evict entities once the current transaction is committed, or right away without transaction.
+     * <p>
+     * Evicting after the commit prevents another transaction from caching the state being replaced again.
+     *
+     * @param entityClass the class of the entities.
+     * @param ids the ids of the entities.
+     */
+    public void evictAfterCommit(Class<?> entityClass, Collection<?> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(entityClass, ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(entityClass, ids);
+                }
+            }
+        );
+    }
+
+    /**
+     * Evict entities right away.
+     *
+     * @param entityClass the class of the entities.
+     * @param ids the ids of the entities.
+     */
+    public void evict(Class<?> entityClass, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        evictEntries(persister, ids);
+        invalidateQueries(persister);
+    }
+
+    private void evictEntries(EntityPersister persister, Collection<?> ids) {
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return;
+        }
+        String regionName = RegionNameQualifier.INSTANCE.qualify(cacheAccess.getRegion().getName(), sessionFactory.getSessionFactoryOptions());
+        Cache<Object, Object> cache = cacheManager.getCache(regionName);
+        if (cache == null) {
+            return;
+        }
+        Set<Object> keys = ids
+            .stream()
+            .map(id -> cacheAccess.generateCacheKey(id, persister, sessionFactory, null))
+            .collect(Collectors.toSet());
+        if (!circuitBreaker.write(() -> cache.removeAll(keys))) {
+            // Through the storage of the region, which remembers to clear it from Redis when it is back
+            keys.forEach(cacheAccess::evict);
+        }
+        nearCache.invalidate(regionName, keys);
+        LOG.debug("Evicted {} {} entries from the second-level cache", keys.size(), persister.getMappedClass().getSimpleName());
+    }
+
+    /**
+     * Invalidate the cached query results reading the tables of entities, for rows inserted with SQL statements, right away.
+     *
+     * @param entityClass the class of the entities.
+     */
+    public void invalidateQueries(Class<?> entityClass) {
+        invalidateQueries(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass));
+    }
+
+    private void invalidateQueries(EntityPersister persister) {
+        if (!sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        String[] spaces = Arrays.stream(persister.getQuerySpaces()).map(String::valueOf).toArray(String[]::new);
+        // The timestamps are written through a session, which does not connect to the database for it
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getCache().getTimestampsCache().invalidate(spaces, session.unwrap(SharedSessionContractImplementor.class));
+        }
+        LOG.debug("Invalidated the cached queries of {}", Arrays.toString(spaces));
+    }
+}
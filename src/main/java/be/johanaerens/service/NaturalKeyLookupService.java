@@ -0,0 +1,100 @@
+package be.johanaerens.service;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import javax.cache.CacheManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service looking the assets and the employees up by the keys printed on their labels and badges, instead of their ids.
+ * <p>
+ * Asset and employee numbers are Hibernate natural ids: their resolution to an id is kept in the {@code ##NaturalId}
+ * second-level cache regions, and the entity itself comes from its own region, so that a repeated lookup runs no SQL.
+ * <p>
+ * Hibernate supports a single natural id per entity, so the serial numbers are resolved through the
+ * {@link #ASSET_IDS_BY_SERIAL_NUMBER_CACHE} cache instead. Its entries are never evicted: an entry is only trusted when the
+ * asset it points to still has the serial number, otherwise the serial number is resolved again from the database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NaturalKeyLookupService {
+
+    public static final String ASSET_IDS_BY_SERIAL_NUMBER_CACHE = "assetIdsBySerialNumber";
+
+    private static final Logger LOG = LoggerFactory.getLogger(NaturalKeyLookupService.class);
+
+    private final EntityManager entityManager;
+
+    private final AssetRepository assetRepository;
+
+    private final CacheManager cacheManager;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    public NaturalKeyLookupService(
+        EntityManager entityManager,
+        AssetRepository assetRepository,
+        CacheManager cacheManager,
+        CacheCircuitBreaker circuitBreaker
+    ) {
+        this.entityManager = entityManager;
+        this.assetRepository = assetRepository;
+        this.cacheManager = cacheManager;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * @param number the number of the asset.
+     * @return the asset with the number, if any.
+     */
+    public Optional<Asset> findAssetByNumber(String number) {
+        LOG.debug("Request to get Asset by number : {}", number);
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Asset.class).loadOptional(number);
+    }
+
+    /**
+     * @param serialNumber the serial number of the asset.
+     * @return the asset with the serial number, if any.
+     */
+    public Optional<Asset> findAssetBySerialNumber(String serialNumber) {
+        LOG.debug("Request to get Asset by serial number : {}", serialNumber);
+        Long cachedId = getCachedAssetId(serialNumber);
+        if (cachedId != null) {
+            Asset asset = entityManager.find(Asset.class, cachedId);
+            if (asset != null && serialNumber.equals(asset.getSerialNumber())) {
+                return Optional.of(asset);
+            }
+        }
+        Optional<Long> id = assetRepository.findIdBySerialNumber(serialNumber);
+        id.ifPresent(found -> cacheAssetId(serialNumber, found));
+        return id.map(found -> entityManager.find(Asset.class, found));
+    }
+
+    /**
+     * @param employeeNumber the number of the employee.
+     * @return the employee with the number, if any.
+     */
+    public Optional<Employee> findEmployeeByNumber(String employeeNumber) {
+        LOG.debug("Request to get Employee by number : {}", employeeNumber);
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Employee.class).loadOptional(employeeNumber);
+    }
+
+    private Long getCachedAssetId(String serialNumber) {
+        // Without Redis, the serial number is resolved from the database
+        return circuitBreaker.read(() -> (Long) cacheManager.getCache(ASSET_IDS_BY_SERIAL_NUMBER_CACHE).get(serialNumber), () -> null);
+    }
+
+    private void cacheAssetId(String serialNumber, Long id) {
+        if (!circuitBreaker.write(() -> cacheManager.getCache(ASSET_IDS_BY_SERIAL_NUMBER_CACHE).put(serialNumber, id))) {
+            LOG.debug("Could not cache the asset id of serial number {}", serialNumber);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package be.johanaerens.service;
+
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping a modification generation per entity table, used as the entity tag of the entity lists.
+ * <p>
+ * The generation of a table changes once per committed transaction modifying it, whatever the number of
+ * modified rows. Changes made through Hibernate are tracked automatically, while changes made with SQL
+ * statements must be reported with {@link #bumpAfterCommit(Class)} or {@link #bump(Class)}.
+ * <p>
+ * Generations are random values shared by all the instances through the {@link #TABLE_GENERATIONS_CACHE} cache:
+ * a lost generation is simply replaced by a new one, which only costs the clients one full download. While Redis is
+ * unavailable, the generations are new on every read, and they are all replaced when it is back, as the changes made in
+ * the meantime did not change them.
+ */
+@Service
+public class TableGenerationService {
+
+    public static final String TABLE_GENERATIONS_CACHE = "tableGenerations";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableGenerationService.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    public TableGenerationService(
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        CacheCircuitBreaker circuitBreaker
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @PostConstruct
+    public void registerEventListeners() {
+        circuitBreaker.onRecovery(() -> cacheManager.getCache(TABLE_GENERATIONS_CACHE).clear());
+        ModificationListener listener = new ModificationListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * @param entityClass the class of the entities of the table.
+     * @param relatedEntityClasses the classes of the entities of the tables whose rows are returned along with the table's.
+     * @return the current generation of the table, combined with the ones of the related tables.
+     */
+    public long getGeneration(Class<?> entityClass, Class<?>... relatedEntityClasses) {
+        long generation = getGeneration(entityClass.getName());
+        for (Class<?> relatedEntityClass : relatedEntityClasses) {
+            generation = 31 * generation + getGeneration(relatedEntityClass.getName());
+        }
+        return generation;
+    }
+
+    /**
+     * Change the generation of a table once the current transaction is committed, or right away without transaction.
+     * <p>
+     * All the changes of a transaction to a table lead to a single new generation.
+     *
+     * @param entityClass the class of the entities of the table.
+     */
+    public void bumpAfterCommit(Class<?> entityClass) {
+        bumpAfterCommit(entityClass.getName());
+    }
+
+    /**
+     * Change the generation of a table right away.
+     *
+     * @param entityClass the class of the entities of the table.
+     */
+    public void bump(Class<?> entityClass) {
+        bump(entityClass.getName());
+    }
+
+    private long getGeneration(String key) {
+        // Without Redis, a generation no client knows, so that nothing is considered as not modified
+        return circuitBreaker.read(() -> readGeneration(key), TableGenerationService::nextGeneration);
+    }
+
+    private long readGeneration(String key) {
+        Cache<Object, Object> generations = cacheManager.getCache(TABLE_GENERATIONS_CACHE);
+        Object generation = generations.get(key);
+        if (generation != null) {
+            return (Long) generation;
+        }
+        Long initial = nextGeneration();
+        if (generations.putIfAbsent(key, initial)) {
+            return initial;
+        }
+        generation = generations.get(key);
+        return generation != null ? (Long) generation : initial;
+    }
+
+    private void bumpAfterCommit(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(key);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> modified = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (modified == null) {
+            Set<String> keys = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        keys.forEach(TableGenerationService.this::bump);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(TableGenerationService.this);
+                    }
+                }
+            );
+            modified = keys;
+        }
+        modified.add(key);
+    }
+
+    private void bump(String key) {
+        if (!circuitBreaker.write(() -> cacheManager.getCache(TABLE_GENERATIONS_CACHE).put(key, nextGeneration()))) {
+            LOG.debug("Could not change the generation of {}, it will be replaced when Redis is back", key);
+        }
+    }
+
+    private static long nextGeneration() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Reports the tables modified during a flush, to change their generation after the commit.
+     */
+    private final class ModificationListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            bumpAfterCommit(event.getPersister().getEntityName());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            bumpAfterCommit(event.getPersister().getEntityName());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            bumpAfterCommit(event.getPersister().getEntityName());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Circuit breaker switching the caches to bounded on-heap fallback caches while Redis is unavailable, so that the requests
+ * do not wait for Redis timeouts.
+ * <p>
+ * The caches start in the {@link Mode#LOCAL} mode: Redis is connected to in the background, and the caches switch to the
+ * {@link Mode#REMOTE} mode once it answers. They switch back to the local mode after
+ * {@code application.cache.fallback.failure-threshold} consecutive failed reads, or right after a failed write, which may
+ * leave an outdated entry in Redis. Redis is then checked every {@code probe-interval}. When it answers again, the
+ * reconcilers registered with {@link #onRecovery(Runnable)} run first, like removing from Redis the regions changed in the
+ * meantime, then the caches switch to the remote mode and the fallback caches are cleared.
+ * <p>
+ * The fallback caches are local to the instance: it may read the entities changed by the other instances for up to the
+ * time to live of their entries.
+ * <p>
+ * The {@code cache.mode} gauge is 1 for the current mode and 0 for the other one, and the {@code cache.remote.failures}
+ * counter counts the failed Redis commands.
+ */
+@Service
+public class CacheCircuitBreaker {
+
+    /**
+     * Where the caches keep their entries.
+     */
+    public enum Mode {
+        /**
+         * In Redis, shared by all the instances.
+         */
+        REMOTE,
+        /**
+         * In the fallback caches of the instance.
+         */
+        LOCAL,
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+
+    private static final String PROBE_KEY = "cache-probe";
+
+    private final ApplicationProperties.Cache.Fallback properties;
+
+    private final RedissonClient redissonClient;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("cache-probe-")
+    );
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final Map<String, LocalCache> fallbackCaches = new ConcurrentHashMap<>();
+
+    private final List<Runnable> reconcilers = new CopyOnWriteArrayList<>();
+
+    private final Counter failures;
+
+    private volatile Mode mode = Mode.LOCAL;
+
+    private volatile Instant modeChangedAt = Instant.now();
+
+    private volatile String lastFailure;
+
+    public CacheCircuitBreaker(ApplicationProperties applicationProperties, RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getCache().getFallback();
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.failures = Counter.builder("cache.remote.failures").register(meterRegistry);
+        for (Mode gaugedMode : Mode.values()) {
+            Gauge.builder("cache.mode", this, breaker -> breaker.mode == gaugedMode ? 1 : 0)
+                .tag("mode", gaugedMode.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        prober.scheduleWithFixedDelay(this::probe, 0, properties.getProbeInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        prober.shutdownNow();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return whether the caches keep their entries in Redis.
+     */
+    public boolean isRemote() {
+        return mode == Mode.REMOTE;
+    }
+
+    /**
+     * @return when the caches switched to the current mode.
+     */
+    public Instant getModeChangedAt() {
+        return modeChangedAt;
+    }
+
+    /**
+     * @return the message of the last Redis failure, if any.
+     */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Read from Redis, or from the fallback when the caches are local or the read fails.
+     *
+     * @param remote the read from Redis.
+     * @param fallback the read in the local mode.
+     * @param <T> the type of the value read.
+     * @return the value read.
+     */
+    public <T> T read(Supplier<T> remote, Supplier<T> fallback) {
+        if (mode != Mode.REMOTE) {
+            return fallback.get();
+        }
+        T value;
+        try {
+            value = remote.get();
+        } catch (RuntimeException e) {
+            failed(e, false);
+            return fallback.get();
+        }
+        succeeded();
+        return value;
+    }
+
+    /**
+     * Write to Redis, unless the caches are local.
+     *
+     * @param remote the write to Redis.
+     * @return whether Redis was written, otherwise it may keep an outdated entry until the recovery.
+     */
+    public boolean write(Runnable remote) {
+        if (mode != Mode.REMOTE) {
+            return false;
+        }
+        try {
+            remote.run();
+        } catch (RuntimeException e) {
+            failed(e, true);
+            return false;
+        }
+        succeeded();
+        return true;
+    }
+
+    /**
+     * Register a reconciler run when Redis is available again, before the caches switch to the remote mode.
+     * <p>
+     * A reconciler throwing an exception keeps the caches in the local mode, and all the reconcilers run again at the next
+     * check of Redis.
+     *
+     * @param reconciler the reconciler.
+     */
+    public void onRecovery(Runnable reconciler) {
+        reconcilers.add(reconciler);
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @return the on-heap cache used instead of the cache in the local mode.
+     */
+    LocalCache fallbackCache(String cacheName) {
+        return fallbackCaches.computeIfAbsent(cacheName, name ->
+            new LocalCache(
+                "cache.fallback",
+                name,
+                properties.getMaxEntries(),
+                properties.getTimeToLive(),
+                (candidate, victim) -> true,
+                meterRegistry
+            )
+        );
+    }
+
+    /**
+     * Check Redis in the local mode, and switch to the remote mode when it answers.
+     */
+    void probe() {
+        if (mode == Mode.REMOTE) {
+            return;
+        }
+        try {
+            redissonClient.getBucket(PROBE_KEY).isExists();
+            reconcilers.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            lastFailure = e.getMessage();
+            LOG.debug("Redis is still unavailable: {}", e.getMessage());
+            return;
+        }
+        consecutiveFailures.set(0);
+        changeMode(Mode.REMOTE);
+        fallbackCaches.values().forEach(LocalCache::clear);
+        LOG.info("Redis is available, the caches are shared again");
+    }
+
+    private void succeeded() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void failed(RuntimeException e, boolean write) {
+        failures.increment();
+        lastFailure = e.getMessage();
+        if ((write || consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) && changeMode(Mode.LOCAL)) {
+            LOG.warn("Redis is unavailable, the caches are local to the instance until it is back: {}", e.getMessage());
+        }
+    }
+
+    private synchronized boolean changeMode(Mode newMode) {
+        if (mode == newMode) {
+            return false;
+        }
+        mode = newMode;
+        modeChangedAt = Instant.now();
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package be.johanaerens.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.type.Type;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Clear the second-level cache regions whose mapping changed since their entries were cached in Redis.
+ * <p>
+ * The entity entries hold the disassembled state of the entities, by property in the order of the mapping: an entry
+ * cached before a deployment adding, removing or renaming a property would be assembled into the wrong properties. The
+ * mapping of each region, the names and types of the properties cached in it, is hashed and compared with the hash
+ * stored in Redis when the session factory is created, and when Redis is available again before the caches read from it:
+ * the regions whose hash differs are cleared, and their hash is stored.
+ * <p>
+ * The instances still running the previous mapping during a rolling deployment can cache entries again after the clear:
+ * the deployments changing the mapping of a cached entity must stop the previous instances first.
+ */
+public class CacheMappingVerifier implements SessionFactoryObserver {
+
+    static final String MAPPINGS_KEY = "cache-mappings";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheMappingVerifier.class);
+
+    private final transient CacheManager cacheManager;
+
+    private final transient RedissonClient redissonClient;
+
+    private final transient CacheCircuitBreaker circuitBreaker;
+
+    public CacheMappingVerifier(CacheManager cacheManager, RedissonClient redissonClient, CacheCircuitBreaker circuitBreaker) {
+        this.cacheManager = cacheManager;
+        this.redissonClient = redissonClient;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        Map<String, String> hashes = mappingHashes(factory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel());
+        circuitBreaker.onRecovery(() -> verify(hashes));
+        // Redis may have answered before the session factory was created, the caches then already read from it
+        circuitBreaker.write(() -> verify(hashes));
+    }
+
+    /**
+     * Clear the regions whose mapping differs from the one stored in Redis.
+     *
+     * @param hashes the hash of the mapping of each region, by region name.
+     */
+    void verify(Map<String, String> hashes) {
+        RMap<String, String> stored = redissonClient.getMap(MAPPINGS_KEY);
+        hashes.forEach((regionName, hash) -> {
+            if (!hash.equals(stored.get(regionName))) {
+                Cache<Object, Object> cache = cacheManager.getCache(regionName);
+                if (cache != null) {
+                    cache.clear();
+                }
+                stored.put(regionName, hash);
+                LOG.info("Cleared the cache region {}, its entries were cached with another mapping", regionName);
+            }
+        });
+    }
+
+    /**
+     * Hash the mapping of the entity, natural id and collection regions.
+     *
+     * @param metamodel the mapping of the session factory.
+     * @return the hash of the mapping of each region, by region name.
+     */
+    static Map<String, String> mappingHashes(MappingMetamodelImplementor metamodel) {
+        Map<String, SortedSet<String>> mappings = new TreeMap<>();
+        metamodel.forEachEntityDescriptor(persister -> {
+            String[] names = persister.getPropertyNames();
+            Type[] types = persister.getPropertyTypes();
+            if (persister.canWriteToCache()) {
+                StringBuilder mapping = new StringBuilder(persister.getEntityName())
+                    .append(':')
+                    .append(persister.getIdentifierType().getName());
+                for (int i = 0; i < names.length; i++) {
+                    mapping.append(',').append(names[i]).append(':').append(types[i].getName());
+                }
+                mappingsOf(mappings, persister.getCacheAccessStrategy().getRegion().getName()).add(mapping.toString());
+            }
+            if (persister.hasNaturalIdCache()) {
+                StringBuilder mapping = new StringBuilder(persister.getEntityName());
+                for (int property : persister.getNaturalIdentifierProperties()) {
+                    mapping.append(',').append(names[property]).append(':').append(types[property].getName());
+                }
+                mappingsOf(mappings, persister.getNaturalIdCacheAccessStrategy().getRegion().getName()).add(mapping.toString());
+            }
+        });
+        metamodel.forEachCollectionDescriptor(persister -> {
+            if (persister.hasCache()) {
+                mappingsOf(mappings, persister.getCacheAccessStrategy().getRegion().getName()).add(
+                    persister.getRole() + ':' + persister.getKeyType().getName() + ',' + persister.getElementType().getName()
+                );
+            }
+        });
+        Map<String, String> hashes = new TreeMap<>();
+        mappings.forEach((regionName, mapping) ->
+            hashes.put(regionName, DigestUtils.md5DigestAsHex(String.join("\n", mapping).getBytes(StandardCharsets.UTF_8)))
+        );
+        return hashes;
+    }
+
+    private static SortedSet<String> mappingsOf(Map<String, SortedSet<String>> mappings, String regionName) {
+        return mappings.computeIfAbsent(regionName, name -> new TreeSet<>());
+    }
+}
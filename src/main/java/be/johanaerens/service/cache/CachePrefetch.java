@@ -0,0 +1,102 @@
+package be.johanaerens.service.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Second-level cache entries read ahead of a load, in a single round trip, and served to Hibernate by the
+ * {@link CacheRegionStorageAccess} of their region while the load runs on the current thread.
+ * <p>
+ * Within the load, a key missing from the prefetched entries is a cache miss: the cache is not queried again. The entries
+ * Hibernate then loads from the database may be collected, to be put in a single round trip once the load is done.
+ */
+public final class CachePrefetch {
+
+    private static final ThreadLocal<Map<String, Prefetched>> PREFETCHED = new ThreadLocal<>();
+
+    private CachePrefetch() {}
+
+    /**
+     * Run a load serving the prefetched entries of a cache.
+     *
+     * @param cacheName the name of the cache.
+     * @param entries the entries read from the cache, by key.
+     * @param load the load.
+     * @param <T> the type of the result of the load.
+     * @return the result of the load.
+     */
+    public static <T> T withPrefetched(String cacheName, Map<Object, Object> entries, Supplier<T> load) {
+        return withPrefetched(cacheName, entries, load, null);
+    }
+
+    /**
+     * Run a load serving the prefetched entries of a cache, collecting the missing entries it loads.
+     *
+     * @param cacheName the name of the cache.
+     * @param entries the entries read from the cache, by key.
+     * @param load the load.
+     * @param putLoaded puts the entries missing from the cache that were loaded, if any, once the load is done; or
+     * {@code null} to put them one by one while the load runs.
+     * @param <T> the type of the result of the load.
+     * @return the result of the load.
+     */
+    public static <T> T withPrefetched(
+        String cacheName,
+        Map<Object, Object> entries,
+        Supplier<T> load,
+        Consumer<Map<Object, Object>> putLoaded
+    ) {
+        Map<String, Prefetched> previous = PREFETCHED.get();
+        Map<String, Prefetched> prefetched = previous != null ? new HashMap<>(previous) : new HashMap<>();
+        Map<Object, Object> loaded = putLoaded != null ? new HashMap<>() : null;
+        prefetched.put(cacheName, new Prefetched(entries, loaded));
+        PREFETCHED.set(prefetched);
+        T result;
+        try {
+            result = load.get();
+        } finally {
+            if (previous != null) {
+                PREFETCHED.set(previous);
+            } else {
+                PREFETCHED.remove();
+            }
+        }
+        if (loaded != null && !loaded.isEmpty()) {
+            putLoaded.accept(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @return the entries prefetched from the cache for the load running on the current thread, or {@code null}.
+     */
+    static Map<Object, Object> prefetched(String cacheName) {
+        Map<String, Prefetched> prefetched = PREFETCHED.get();
+        Prefetched cache = prefetched != null ? prefetched.get(cacheName) : null;
+        return cache != null ? cache.entries() : null;
+    }
+
+    /**
+     * Collect an entry missing from the prefetched entries, loaded by the load running on the current thread, if it
+     * collects them.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key of the entry.
+     * @param value the value of the entry.
+     * @return whether the entry was collected, to be put once the load is done.
+     */
+    static boolean collectLoaded(String cacheName, Object key, Object value) {
+        Map<String, Prefetched> prefetched = PREFETCHED.get();
+        Prefetched cache = prefetched != null ? prefetched.get(cacheName) : null;
+        if (cache == null || cache.loaded() == null || cache.entries().containsKey(key)) {
+            return false;
+        }
+        cache.loaded().put(key, value);
+        return true;
+    }
+
+    private record Prefetched(Map<Object, Object> entries, Map<Object, Object> loaded) {}
+}
@@ -0,0 +1,78 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * JCache region factory storing the entity, collection and natural id regions in {@link CacheRegionStorageAccess}es,
+ * configured from {@code application.cache.regions}, and the query cache regions through the {@link CacheCircuitBreaker}.
+ */
+public class CacheRegionFactory extends JCacheRegionFactory {
+
+    private final ApplicationProperties.Cache properties;
+
+    private final NearCache nearCache;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheRegionFactory(
+        ApplicationProperties.Cache properties,
+        NearCache nearCache,
+        HotKeyTracker hotKeyTracker,
+        CacheCircuitBreaker circuitBreaker,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.nearCache = nearCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig,
+        DomainDataRegionBuildingContext buildingContext
+    ) {
+        String regionName = regionConfig.getRegionName();
+        return new CacheRegionStorageAccess(
+            getOrCreateCache(regionName, buildingContext.getSessionFactory()),
+            properties.getRegion(regionName),
+            nearCache,
+            hotKeyTracker,
+            circuitBreaker,
+            meterRegistry
+        );
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CircuitBreakingStorageAccess(
+            super.createQueryResultsRegionStorageAccess(regionName, sessionFactory),
+            regionName,
+            circuitBreaker,
+            meterRegistry
+        );
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorageAccess(
+            super.createTimestampsRegionStorageAccess(regionName, sessionFactory),
+            regionName,
+            this::nextTimestamp,
+            circuitBreaker,
+            meterRegistry
+        );
+    }
+}
@@ -0,0 +1,410 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Cache;
+import org.hibernate.cache.jcache.internal.JCacheDomainDataStorageAccessImpl;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of a second-level cache region.
+ * <p>
+ * On top of the JCache storage, it:
+ * <ul>
+ *     <li>reads the entries prefetched with {@link CachePrefetch} instead of the cache, and hands the entries loaded then
+ *     to the prefetch, which puts them in a single round trip;</li>
+ *     <li>keeps the hot entries on-heap when the region has a {@link NearCache}, invalidating them on all the instances
+ *     when they change;</li>
+ *     <li>lets a single thread of the instance load a missing entry: the other threads missing it wait for the entry it
+ *     puts, up to the load wait timeout, after which the load is dropped even if the entry was never put;</li>
+ *     <li>refreshes the hot entries before they expire, when the region has a {@link JitteredExpiryPolicy}: the entries are
+ *     stored as {@link CachedValue}s, and a reader may see a miss, so that Hibernate loads and puts the entry again;</li>
+ *     <li>publishes the {@code cache.region.gets} (by result), {@code cache.region.puts}, {@code cache.region.evictions},
+ *     {@code cache.region.early.refreshes} and {@code cache.region.coalesced.loads} counters and the
+ *     {@code cache.region.latency} timer (by operation), tagged with the name of the region;</li>
+ *     <li>bounds the number of entries it put, removing the least recently used ones from the cache;</li>
+ *     <li>counts the misses with the {@link HotKeyTracker};</li>
+ *     <li>keeps the entries in a fallback on-heap cache while Redis is unavailable, see {@link CacheCircuitBreaker}, and
+ *     clears the region in Redis when it is back if it changed in the meantime.</li>
+ * </ul>
+ * The bound is kept by each instance for the entries it put: the cache holds at most that many entries per instance.
+ */
+public class CacheRegionStorageAccess extends JCacheDomainDataStorageAccessImpl {
+
+    private static final int LOAD_SWEEP_INTERVAL = 256;
+
+    private final String cacheName;
+
+    private final int maxEntries;
+
+    private final long loadWaitTimeoutNanos;
+
+    private final double earlyRefreshBeta;
+
+    private final JitteredExpiryPolicy expiryPolicy;
+
+    private final NearCache nearCache;
+
+    private final LocalCache localCache;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final LocalCache fallbackCache;
+
+    private volatile boolean changedWhileLocal;
+
+    private final Map<Object, Boolean> putKeys = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Object, Load> loads = new ConcurrentHashMap<>();
+
+    private final AtomicInteger startedLoads = new AtomicInteger();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter puts;
+
+    private final Counter evictions;
+
+    private final Counter earlyRefreshes;
+
+    private final Counter coalescedLoads;
+
+    private final Timer getLatency;
+
+    private final Timer putLatency;
+
+    private final Timer removeLatency;
+
+    /**
+     * @param underlyingCache the cache of the region.
+     * @param region the settings of the region.
+     * @param nearCache the on-heap caches.
+     * @param hotKeyTracker the counter of the reads of the hot keys.
+     * @param circuitBreaker the circuit breaker switching to the fallback caches.
+     * @param meterRegistry the registry of the metrics of the region.
+     */
+    public CacheRegionStorageAccess(
+        Cache<Object, Object> underlyingCache,
+        ApplicationProperties.Cache.Region region,
+        NearCache nearCache,
+        HotKeyTracker hotKeyTracker,
+        CacheCircuitBreaker circuitBreaker,
+        MeterRegistry meterRegistry
+    ) {
+        super(underlyingCache);
+        this.cacheName = underlyingCache.getName();
+        this.maxEntries = region.getMaxEntries();
+        this.loadWaitTimeoutNanos = region.getLoadWaitTimeout().toNanos();
+        this.earlyRefreshBeta = region.getEarlyRefreshBeta();
+        this.expiryPolicy = earlyRefreshBeta > 0 ? JitteredExpiryPolicy.of(underlyingCache) : null;
+        this.nearCache = nearCache;
+        this.localCache = nearCache.localCache(cacheName);
+        this.hotKeyTracker = hotKeyTracker;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbackCache = circuitBreaker.fallbackCache(cacheName);
+        circuitBreaker.onRecovery(this::reconcile);
+        this.hits = Counter.builder("cache.region.gets").tag("cache", cacheName).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.region.gets").tag("cache", cacheName).tag("result", "miss").register(meterRegistry);
+        this.puts = Counter.builder("cache.region.puts").tag("cache", cacheName).register(meterRegistry);
+        this.evictions = Counter.builder("cache.region.evictions").tag("cache", cacheName).register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("cache.region.early.refreshes").tag("cache", cacheName).register(meterRegistry);
+        this.coalescedLoads = Counter.builder("cache.region.coalesced.loads").tag("cache", cacheName).register(meterRegistry);
+        this.getLatency = latency("get", meterRegistry);
+        this.putLatency = latency("put", meterRegistry);
+        this.removeLatency = latency("remove", meterRegistry);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = CachedValue.unwrap(getStoredValue(key, session));
+        if (value != null) {
+            hits.increment();
+            touch(key);
+        } else {
+            misses.increment();
+            hotKeyTracker.record(cacheName, key);
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        Load load = loads.get(key);
+        long loadNanos = load != null && load.isOwnedByCurrentThread() ? System.nanoTime() - load.startedAt : 0;
+        Object stored = expiryPolicy != null ? CachedValue.of(value, expiryPolicy, loadNanos) : value;
+        if (CachePrefetch.collectLoaded(cacheName, key, stored)) {
+            // Missing from the cache, so no other instance holds it: put with the other loaded entries, without invalidation
+            puts.increment();
+            if (localCache != null) {
+                localCache.put(key, stored);
+            }
+            completeLoad(key);
+            track(key);
+            return;
+        }
+        putLatency.record(() -> write(() -> super.putIntoCache(key, stored, session), () -> fallbackCache.put(key, stored)));
+        puts.increment();
+        if (localCache != null) {
+            nearCache.invalidate(cacheName, key);
+            localCache.put(key, stored);
+        }
+        completeLoad(key);
+        track(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        removeLatency.record(() -> write(() -> super.removeFromCache(key, session), () -> fallbackCache.remove(key)));
+        nearCache.invalidate(cacheName, key);
+        completeLoad(key);
+        untrack(key);
+    }
+
+    @Override
+    public void evictData(Object key) {
+        removeLatency.record(() -> write(() -> super.evictData(key), () -> fallbackCache.remove(key)));
+        nearCache.invalidate(cacheName, key);
+        evictions.increment();
+        completeLoad(key);
+        untrack(key);
+    }
+
+    @Override
+    public void evictData() {
+        write(super::evictData, fallbackCache::clear);
+        nearCache.clear(cacheName);
+        loads.keySet().forEach(this::completeLoad);
+        if (maxEntries > 0) {
+            synchronized (putKeys) {
+                putKeys.clear();
+            }
+        }
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        evictData();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return circuitBreaker.read(() -> super.contains(key), () -> fallbackCache.get(key) != null);
+    }
+
+    private Object getStoredValue(Object key, SharedSessionContractImplementor session) {
+        Load load = loads.get(key);
+        if (load != null && load.isOwnedByCurrentThread()) {
+            if (!load.isExpired(loadWaitTimeoutNanos)) {
+                // The thread is loading the entry, like when Hibernate checks the cache before putting the loaded entry
+                return null;
+            }
+            completeLoad(key);
+        }
+        Map<Object, Object> prefetched = CachePrefetch.prefetched(cacheName);
+        if (prefetched != null) {
+            return prefetched.get(key);
+        }
+        Object stored = getLatency.record(() -> read(key, session));
+        if (stored == null) {
+            return loadOnce(key, session);
+        }
+        if (stored instanceof CachedValue cachedValue && cachedValue.isRefreshDue(earlyRefreshBeta) && startLoad(key)) {
+            earlyRefreshes.increment();
+            return null;
+        }
+        return stored;
+    }
+
+    private Object read(Object key, SharedSessionContractImplementor session) {
+        if (localCache == null) {
+            return readRemote(key, session);
+        }
+        Object value = localCache.get(key);
+        if (value == null) {
+            long version = localCache.version();
+            value = readRemote(key, session);
+            if (value != null) {
+                localCache.putIfUnchanged(key, value, version);
+            }
+        }
+        return value;
+    }
+
+    private Object readRemote(Object key, SharedSessionContractImplementor session) {
+        return circuitBreaker.read(() -> super.getFromCache(key, session), () -> fallbackCache.get(key));
+    }
+
+    private void write(Runnable remote, Runnable fallback) {
+        if (!circuitBreaker.write(remote)) {
+            changedWhileLocal = true;
+            fallback.run();
+        }
+    }
+
+    /**
+     * Remove the entries of the region from Redis if it changed while Redis was unavailable, as they may be outdated.
+     */
+    private void reconcile() {
+        if (!changedWhileLocal) {
+            return;
+        }
+        changedWhileLocal = false;
+        try {
+            getUnderlyingCache().clear();
+        } catch (RuntimeException e) {
+            changedWhileLocal = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for the thread loading a missing entry, if any, or let the current thread load it.
+     *
+     * @return the entry put by the thread loading it, {@code null} to load it.
+     */
+    private Object loadOnce(Object key, SharedSessionContractImplementor session) {
+        if (loadWaitTimeoutNanos <= 0) {
+            return null;
+        }
+        Load load = new Load();
+        Load inFlight = loads.putIfAbsent(key, load);
+        if (inFlight == null) {
+            sweepExpiredLoads();
+            return null;
+        }
+        if (inFlight.isExpired(loadWaitTimeoutNanos)) {
+            // The entry was not put, like when the entity does not exist
+            if (loads.replace(key, inFlight, load)) {
+                inFlight.complete();
+            }
+            return null;
+        }
+        coalescedLoads.increment();
+        if (!inFlight.await(loadWaitTimeoutNanos)) {
+            return null;
+        }
+        return getLatency.record(() -> read(key, session));
+    }
+
+    private boolean startLoad(Object key) {
+        if (loadWaitTimeoutNanos <= 0 || loads.putIfAbsent(key, new Load()) != null) {
+            return false;
+        }
+        sweepExpiredLoads();
+        return true;
+    }
+
+    /**
+     * Every {@value #LOAD_SWEEP_INTERVAL} loads, remove the expired ones: the entries of the missing entities are never
+     * put, and their loads would otherwise stay until their keys are read again.
+     */
+    private void sweepExpiredLoads() {
+        if (startedLoads.incrementAndGet() % LOAD_SWEEP_INTERVAL != 0) {
+            return;
+        }
+        loads.forEach((key, load) -> {
+            if (load.isExpired(loadWaitTimeoutNanos) && loads.remove(key, load)) {
+                load.complete();
+            }
+        });
+    }
+
+    private void completeLoad(Object key) {
+        Load load = loads.remove(key);
+        if (load != null) {
+            load.complete();
+        }
+    }
+
+    int inFlightLoads() {
+        return loads.size();
+    }
+
+    private Timer latency(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("cache.region.latency").tag("cache", cacheName).tag("operation", operation).register(meterRegistry);
+    }
+
+    private void touch(Object key) {
+        if (maxEntries > 0) {
+            synchronized (putKeys) {
+                putKeys.get(key);
+            }
+        }
+    }
+
+    private void track(Object key) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Object eldest = null;
+        synchronized (putKeys) {
+            putKeys.put(key, Boolean.TRUE);
+            if (putKeys.size() > maxEntries) {
+                Iterator<Object> keys = putKeys.keySet().iterator();
+                eldest = keys.next();
+                keys.remove();
+            }
+        }
+        if (eldest != null) {
+            // Outside of the lock, not to hold it during the round trip
+            Object evicted = eldest;
+            if (circuitBreaker.write(() -> getUnderlyingCache().remove(evicted))) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void untrack(Object key) {
+        if (maxEntries > 0) {
+            synchronized (putKeys) {
+                putKeys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Load of a missing entry by a thread.
+     */
+    private static final class Load {
+
+        private final Thread owner = Thread.currentThread();
+
+        private final long startedAt = System.nanoTime();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        boolean isOwnedByCurrentThread() {
+            return owner == Thread.currentThread();
+        }
+
+        boolean isExpired(long timeoutNanos) {
+            return System.nanoTime() - startedAt > timeoutNanos;
+        }
+
+        boolean await(long timeoutNanos) {
+            try {
+                return done.await(timeoutNanos - (System.nanoTime() - startedAt), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void complete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Authority;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.domain.User;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.repository.AuthorityRepository;
+import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service loading the hot entries into the caches on startup, so that a deployment does not start with cold caches
+ * hammering the database.
+ * <p>
+ * The latest assets and employees, the hot ones published by the {@link HotKeyTracker} of the instances already running
+ * first, the authorities and the most recently modified users are loaded in chunks by parallel threads, through the
+ * {@link PrefetchingEntityLoader}: the entries already cached, by the instances already running, cost a single read per
+ * chunk, and the others a single write per chunk, without broadcasting near cache invalidations. The application runners
+ * run before the readiness is reported, so the instance only accepts traffic once the warm-up is complete, or has timed
+ * out.
+ * <p>
+ * The {@code cache.warmup.duration} timer and the {@code cache.warmup.entries} counter, tagged with the name of the cache,
+ * show the time and the number of entries loaded.
+ */
+@Service
+public class CacheWarmUpService implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    private final PrefetchingEntityLoader entityLoader;
+
+    private final AssetRepository assetRepository;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheWarmUpService(
+        ApplicationProperties applicationProperties,
+        PrefetchingEntityLoader entityLoader,
+        AssetRepository assetRepository,
+        EmployeeRepository employeeRepository,
+        AuthorityRepository authorityRepository,
+        UserRepository userRepository,
+        CacheManager cacheManager,
+        CacheCircuitBreaker circuitBreaker,
+        HotKeyTracker hotKeyTracker,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getCache().getWarmUp();
+        this.entityLoader = entityLoader;
+        this.assetRepository = assetRepository;
+        this.employeeRepository = employeeRepository;
+        this.authorityRepository = authorityRepository;
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.circuitBreaker = circuitBreaker;
+        this.hotKeyTracker = hotKeyTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!circuitBreaker.isRemote()) {
+            // The fallback caches are cleared when Redis is back
+            LOG.info("Redis is unavailable, not warming up the caches");
+            return;
+        }
+        warmUp();
+    }
+
+    /**
+     * Load the hot entries into the caches, waiting up to the warm-up timeout.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(
+            properties.getParallelism(),
+            new CustomizableThreadFactory("cache-warm-up-")
+        );
+        try {
+            PageRequest latest = PageRequest.of(0, properties.getMaxEntries());
+            CompletableFuture<?>[] caches = {
+                warmUpEntities(Asset.class, () -> hotFirst(Asset.class, assetRepository.findLatestIds(latest)), executor),
+                warmUpEntities(Employee.class, () -> hotFirst(Employee.class, employeeRepository.findLatestIds(latest)), executor),
+                warmUp(Authority.class.getName(), this::warmUpAuthorities, executor),
+                warmUp(UserRepository.USERS_BY_LOGIN_CACHE, this::warmUpUsers, executor),
+            };
+            CompletableFuture.allOf(caches).get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            LOG.info("Warmed up the caches in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            LOG.warn("The caches are still warming up after {}, accepting traffic anyway", properties.getTimeout());
+        } catch (ExecutionException e) {
+            LOG.warn("Could not warm up the caches", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            duration("all").record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private CompletableFuture<Void> warmUpEntities(Class<?> entityClass, Supplier<List<Long>> ids, Executor executor) {
+        String cacheName = entityClass.getName();
+        long start = System.nanoTime();
+        Counter entries = entries(cacheName);
+        return CompletableFuture.supplyAsync(ids, executor)
+            .thenCompose(allIds -> {
+                int chunkSize = properties.getChunkSize();
+                CompletableFuture<?>[] chunks = IntStream.range(0, (allIds.size() + chunkSize - 1) / chunkSize)
+                    .mapToObj(i -> allIds.subList(i * chunkSize, Math.min(allIds.size(), (i + 1) * chunkSize)))
+                    .map(chunk -> CompletableFuture.runAsync(() -> entries.increment(load(entityClass, chunk)), executor))
+                    .toArray(CompletableFuture[]::new);
+                return CompletableFuture.allOf(chunks);
+            })
+            .handle((done, e) -> completed(cacheName, start, e));
+    }
+
+    private CompletableFuture<Void> warmUp(String cacheName, Supplier<Integer> load, Executor executor) {
+        long start = System.nanoTime();
+        Counter entries = entries(cacheName);
+        return CompletableFuture.runAsync(() -> entries.increment(load.get()), executor).handle((done, e) ->
+            completed(cacheName, start, e)
+        );
+    }
+
+    /**
+     * @return the ids of the hot entities, loaded first, then the other latest ones.
+     */
+    private List<Long> hotFirst(Class<?> entityClass, List<Long> latestIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Object key : hotKeyTracker.publishedTopKeys(entityClass.getName())) {
+            if (key instanceof Long id) {
+                ids.add(id);
+            }
+        }
+        ids.addAll(latestIds);
+        return ids.stream().limit(properties.getMaxEntries()).toList();
+    }
+
+    private int load(Class<?> entityClass, List<Long> ids) {
+        return entityLoader.loadAll(entityClass, ids).size();
+    }
+
+    private int warmUpAuthorities() {
+        return transactionTemplate.execute(status -> authorityRepository.findAll().size());
+    }
+
+    private int warmUpUsers() {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        if (cache == null) {
+            return 0;
+        }
+        PageRequest recentlyModified = PageRequest.of(0, properties.getUsers(), Sort.by(Sort.Direction.DESC, "lastModifiedDate"));
+        return transactionTemplate.execute(status -> {
+            List<User> users = userRepository.findAllByIdNotNullAndActivatedIsTrue(recentlyModified).getContent();
+            for (User user : users) {
+                // Like UserRepository.findOneWithAuthoritiesByLogin, whose results the cache holds
+                Hibernate.initialize(user.getAuthorities());
+                cache.put(user.getLogin(), user);
+            }
+            return users.size();
+        });
+    }
+
+    /**
+     * Record the warm-up of a cache, which does not fail the warm-up of the others.
+     */
+    private Void completed(String cacheName, long start, Throwable e) {
+        duration(cacheName).record(Duration.ofNanos(System.nanoTime() - start));
+        if (e != null) {
+            LOG.warn("Could not warm up the {} cache: {}", cacheName, e.getMessage());
+        } else {
+            LOG.debug("Warmed up the {} cache in {} ms", cacheName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return null;
+    }
+
+    private Counter entries(String cacheName) {
+        return Counter.builder("cache.warmup.entries").tag("cache", cacheName).register(meterRegistry);
+    }
+
+    private Timer duration(String cacheName) {
+        return Timer.builder("cache.warmup.duration").tag("cache", cacheName).register(meterRegistry);
+    }
+}
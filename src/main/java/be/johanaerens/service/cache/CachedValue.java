@@ -0,0 +1,46 @@
+package be.johanaerens.service.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cached value with the time it should be refreshed at and the time it took to load, for the probabilistic early refresh.
+ * <p>
+ * Each reader decides to refresh the value with a probability growing as the refresh time comes closer, and faster for the
+ * values slow to load: a hot value is refreshed by a single reader before it expires, instead of by all its readers at
+ * once after it expired.
+ *
+ * @param value the cached value.
+ * @param refreshAt the time to refresh the value at, in milliseconds since the epoch, before it can expire.
+ * @param loadNanos the time it took to load the value.
+ */
+record CachedValue(Object value, long refreshAt, long loadNanos) implements Serializable {
+    /**
+     * @param value the value to cache.
+     * @param expiryPolicy the expiry policy of the cache.
+     * @param loadNanos the time it took to load the value, 0 if unknown.
+     */
+    static CachedValue of(Object value, JitteredExpiryPolicy expiryPolicy, long loadNanos) {
+        return new CachedValue(value, System.currentTimeMillis() + expiryPolicy.getMinimumTimeToLive().toMillis(), loadNanos);
+    }
+
+    /**
+     * @param stored a value read from a cache.
+     * @return the cached value.
+     */
+    static Object unwrap(Object stored) {
+        return stored instanceof CachedValue cachedValue ? cachedValue.value() : stored;
+    }
+
+    /**
+     * @param beta the eagerness of the refresh, 1 being the optimal one when the load time does not vary much.
+     * @return whether the reader should refresh the value.
+     */
+    boolean isRefreshDue(double beta) {
+        if (beta <= 0) {
+            return false;
+        }
+        double earlyMillis = -loadNanos / 1_000_000.0 * beta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + earlyMillis >= refreshAt;
+    }
+}
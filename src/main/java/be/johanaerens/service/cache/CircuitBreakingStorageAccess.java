@@ -0,0 +1,109 @@
+package be.johanaerens.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of a query cache region, reading and writing a fallback on-heap cache while Redis is unavailable, see
+ * {@link CacheCircuitBreaker}.
+ * <p>
+ * The query results put in the fallback cache are not shared, so nothing has to be reconciled when Redis is back, unlike
+ * the update timestamps, see {@link TimestampsStorageAccess}. It publishes the {@code cache.region.gets} counters (by
+ * result), tagged with the name of the region.
+ */
+public class CircuitBreakingStorageAccess implements StorageAccess {
+
+    private final StorageAccess delegate;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final LocalCache fallbackCache;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    /**
+     * @param delegate the storage of the region in Redis.
+     * @param regionName the name of the region.
+     * @param circuitBreaker the circuit breaker switching to the fallback caches.
+     * @param meterRegistry the registry of the metrics of the region.
+     */
+    public CircuitBreakingStorageAccess(
+        StorageAccess delegate,
+        String regionName,
+        CacheCircuitBreaker circuitBreaker,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbackCache = circuitBreaker.fallbackCache(regionName);
+        this.hits = Counter.builder("cache.region.gets").tag("cache", regionName).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.region.gets").tag("cache", regionName).tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = circuitBreaker.read(() -> delegate.getFromCache(key, session), () -> fallbackCache.get(key));
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        if (!circuitBreaker.write(() -> delegate.putIntoCache(key, value, session))) {
+            fallbackCache.put(key, value);
+            changedWhileLocal(key);
+        }
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        if (!circuitBreaker.write(() -> delegate.removeFromCache(key, session))) {
+            fallbackCache.remove(key);
+            changedWhileLocal(key);
+        }
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        if (!circuitBreaker.write(() -> delegate.clearCache(session))) {
+            fallbackCache.clear();
+        }
+    }
+
+    @Override
+    public void evictData() {
+        if (!circuitBreaker.write(delegate::evictData)) {
+            fallbackCache.clear();
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        if (!circuitBreaker.write(() -> delegate.evictData(key))) {
+            fallbackCache.remove(key);
+            changedWhileLocal(key);
+        }
+    }
+
+    @Override
+    public void release() {
+        delegate.release();
+    }
+
+    /**
+     * Called when an entry was put or removed while Redis was unavailable.
+     *
+     * @param key the key of the entry.
+     */
+    protected void changedWhileLocal(Object key) {
+        // The results of the instance are not shared
+    }
+
+    protected StorageAccess getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,300 @@
+package be.johanaerens.service.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Redis codec for the cache entries, like the disassembled state of the entities in the Hibernate cache entries, more
+ * compact and faster than Java serialization.
+ * <p>
+ * The objects are still written with Java serialization, so that any serializable object can be cached, but the class
+ * descriptors, which make up most of a serialized cache entry, are replaced by the index of the class in
+ * {@link #DICTIONARY}, or its name, and a fingerprint of its serialized fields. They are read from the local classes: an
+ * entry written by a class with other serialized fields is read as a miss instead of being corrupted, as well as the
+ * entries written by another codec.
+ * <p>
+ * The fingerprint does not cover the entities themselves: their disassembled state is an array of the property values,
+ * whose classes do not change when a column is added, removed or renamed. The regions whose entity mapping changed are
+ * cleared by the {@link CacheMappingVerifier} instead.
+ * <p>
+ * The entries larger than the compression threshold, like the collection entries of employees with many assets, are
+ * compressed with LZ4.
+ */
+public class CompactCacheCodec extends BaseCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompactCacheCodec.class);
+
+    /**
+     * The classes the cache entries are made of. Classes can only be appended, the entries referencing them by index.
+     */
+    static final List<String> DICTIONARY = List.of(
+        "org.hibernate.cache.spi.entry.StandardCacheEntryImpl",
+        "org.hibernate.cache.spi.entry.CollectionCacheEntry",
+        "org.hibernate.cache.spi.support.AbstractReadWriteAccess$Item",
+        "org.hibernate.cache.spi.support.AbstractReadWriteAccess$SoftLockImpl",
+        "org.hibernate.cache.spi.support.AbstractReadWriteAccess$Lockable",
+        "org.hibernate.cache.internal.CacheKeyImplementation",
+        "org.hibernate.cache.internal.BasicCacheKeyImplementation",
+        "org.hibernate.cache.internal.NaturalIdCacheKey",
+        "[Ljava.io.Serializable;",
+        "[Ljava.lang.Object;",
+        "java.lang.Number",
+        "java.lang.Long",
+        "java.lang.Integer",
+        "java.lang.Boolean",
+        "java.lang.Enum",
+        "java.math.BigDecimal",
+        "java.math.BigInteger",
+        "java.time.Ser",
+        "java.util.UUID",
+        "java.util.ArrayList",
+        "java.util.HashSet",
+        "java.util.LinkedHashSet",
+        "java.util.HashMap",
+        "java.util.LinkedHashMap",
+        "be.johanaerens.domain.User",
+        "be.johanaerens.domain.Authority",
+        "be.johanaerens.domain.AbstractAuditingEntity",
+        "be.johanaerens.domain.enumeration.Status",
+        "be.johanaerens.domain.enumeration.Language",
+        "be.johanaerens.service.cache.CachedValue"
+    );
+
+    private static final Map<String, Integer> DICTIONARY_INDEXES = dictionaryIndexes();
+
+    private static final byte PLAIN = (byte) 0xC1;
+
+    private static final byte COMPRESSED = (byte) 0xC2;
+
+    private static final int NAMED_CLASS = 0;
+
+    private static final ClassValue<Integer> FINGERPRINTS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return fingerprint(ObjectStreamClass.lookupAny(type));
+        }
+    };
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final ClassLoader classLoader;
+
+    private final int compressionThreshold;
+
+    private final Encoder encoder = this::encode;
+
+    private final Decoder<Object> decoder = (buf, state) -> decode(buf);
+
+    /**
+     * @param compressionThreshold the size in bytes above which the entries are compressed, 0 not to compress them.
+     */
+    public CompactCacheCodec(int compressionThreshold) {
+        this(null, compressionThreshold);
+    }
+
+    public CompactCacheCodec(ClassLoader classLoader, int compressionThreshold) {
+        this.classLoader = classLoader;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Copy constructor, used by Redisson to decode with another class loader.
+     */
+    public CompactCacheCodec(ClassLoader classLoader, CompactCacheCodec codec) {
+        this(classLoader, codec.compressionThreshold);
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader != null ? classLoader : super.getClassLoader();
+    }
+
+    private ByteBuf encode(Object value) throws IOException {
+        ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            buf.writeByte(PLAIN);
+            try (ObjectOutputStream output = new CompactObjectOutputStream(new ByteBufOutputStream(buf))) {
+                output.writeObject(value);
+            }
+            int length = buf.readableBytes() - 1;
+            if (compressionThreshold <= 0 || length <= compressionThreshold) {
+                return buf;
+            }
+            return compress(buf, length);
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    private static ByteBuf compress(ByteBuf buf, int length) {
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        byte[] compressed = compressor.compress(ByteBufUtil.getBytes(buf, 1, length));
+        if (compressed.length + Integer.BYTES >= length) {
+            return buf;
+        }
+        buf.clear();
+        buf.writeByte(COMPRESSED);
+        buf.writeInt(length);
+        buf.writeBytes(compressed);
+        return buf;
+    }
+
+    private Object decode(ByteBuf buf) throws IOException {
+        if (!buf.isReadable()) {
+            return null;
+        }
+        byte format = buf.readByte();
+        InputStream input;
+        if (format == PLAIN) {
+            input = new ByteBufInputStream(buf);
+        } else if (format == COMPRESSED) {
+            int length = buf.readInt();
+            LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+            input = new ByteArrayInputStream(decompressor.decompress(ByteBufUtil.getBytes(buf), length));
+        } else {
+            LOG.debug("Ignoring a cache entry written by another codec");
+            return null;
+        }
+        try (ObjectInputStream objectInput = new CompactObjectInputStream(input, getClassLoader())) {
+            return objectInput.readObject();
+        } catch (IncompatibleClassException e) {
+            LOG.debug("Ignoring a cache entry written by another version of the application: {}", e.getMessage());
+            return null;
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Map<String, Integer> dictionaryIndexes() {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < DICTIONARY.size(); i++) {
+            indexes.put(DICTIONARY.get(i), i + 1);
+        }
+        return indexes;
+    }
+
+    private static int fingerprint(ObjectStreamClass descriptor) {
+        int fingerprint = Long.hashCode(descriptor.getSerialVersionUID());
+        for (ObjectStreamField field : descriptor.getFields()) {
+            fingerprint = 31 * fingerprint + field.getName().hashCode();
+            fingerprint = 31 * fingerprint + (field.isPrimitive() ? field.getTypeCode() : field.getTypeString().hashCode());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Writes the class descriptors as a dictionary index or a name, and a fingerprint.
+     */
+    private static final class CompactObjectOutputStream extends ObjectOutputStream {
+
+        CompactObjectOutputStream(OutputStream output) throws IOException {
+            super(output);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+            // The format byte of the entry replaces the stream header
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descriptor) throws IOException {
+            Integer index = DICTIONARY_INDEXES.get(descriptor.getName());
+            if (index != null) {
+                writeByte(index);
+            } else {
+                writeByte(NAMED_CLASS);
+                writeUTF(descriptor.getName());
+            }
+            writeInt(FINGERPRINTS.get(descriptor.forClass()));
+        }
+    }
+
+    /**
+     * Reads the class descriptors written by {@link CompactObjectOutputStream} from the local classes.
+     */
+    private static final class CompactObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        CompactObjectInputStream(InputStream input, ClassLoader classLoader) throws IOException {
+            super(input);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected void readStreamHeader() {
+            // The format byte of the entry replaces the stream header
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            int index = readUnsignedByte();
+            String name = index == NAMED_CLASS ? readUTF() : DICTIONARY.get(index - 1);
+            int fingerprint = readInt();
+            Class<?> type;
+            try {
+                type = Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IncompatibleClassException(name, "class not found");
+            }
+            if (FINGERPRINTS.get(type) != fingerprint) {
+                throw new IncompatibleClassException(name, "serialized fields changed");
+            }
+            return ObjectStreamClass.lookupAny(type);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(descriptor.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(descriptor);
+            }
+        }
+    }
+
+    /**
+     * The class which wrote the entry is missing, or has other serialized fields than the local class.
+     */
+    private static final class IncompatibleClassException extends InvalidClassException {
+
+        IncompatibleClassException(String className, String reason) {
+            super(className, reason);
+        }
+    }
+}
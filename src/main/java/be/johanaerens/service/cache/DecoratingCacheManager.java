@@ -0,0 +1,62 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Spring cache manager decorating the caches: their values are loaded by a {@link SingleFlightCache}, and read through a
+ * {@link NearCache} when they have settings for it, and kept in a {@link FallbackCache} while Redis is unavailable.
+ */
+public class DecoratingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final NearCache nearCache;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final ApplicationProperties.Cache properties;
+
+    private final Map<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    public DecoratingCacheManager(
+        CacheManager delegate,
+        NearCache nearCache,
+        CacheCircuitBreaker circuitBreaker,
+        ApplicationProperties.Cache properties
+    ) {
+        this.delegate = delegate;
+        this.nearCache = nearCache;
+        this.circuitBreaker = circuitBreaker;
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return decoratedCaches.computeIfAbsent(name, cacheName -> decorate(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache decorate(Cache cache) {
+        JitteredExpiryPolicy expiryPolicy = cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache
+            ? JitteredExpiryPolicy.of((javax.cache.Cache<Object, Object>) nativeCache)
+            : null;
+        Cache fallback = new FallbackCache(cache, circuitBreaker);
+        LocalCache localCache = nearCache.localCache(cache.getName());
+        Cache nearCached = localCache != null ? new NearCachedCache(fallback, nearCache, localCache) : fallback;
+        return new SingleFlightCache(nearCached, expiryPolicy, properties.getRegion(cache.getName()).getEarlyRefreshBeta());
+    }
+}
@@ -0,0 +1,126 @@
+package be.johanaerens.service.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Spring cache keeping its values in a fallback on-heap cache while Redis is unavailable, see {@link CacheCircuitBreaker},
+ * and clearing the Redis cache when it is back if it changed in the meantime.
+ */
+public class FallbackCache implements Cache {
+
+    private final Cache delegate;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final LocalCache fallbackCache;
+
+    private volatile boolean changedWhileLocal;
+
+    FallbackCache(Cache delegate, CacheCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbackCache = circuitBreaker.fallbackCache(delegate.getName());
+        circuitBreaker.onRecovery(this::reconcile);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return circuitBreaker.read(() -> delegate.get(key), () -> (ValueWrapper) fallbackCache.get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Load a missing value, the {@link SingleFlightCache} in front of the cache loading it once per instance.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        write(() -> delegate.put(key, value), () -> fallbackCache.put(key, new SimpleValueWrapper(value)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        AtomicReference<ValueWrapper> existing = new AtomicReference<>();
+        if (circuitBreaker.write(() -> existing.set(delegate.putIfAbsent(key, value)))) {
+            return existing.get();
+        }
+        changedWhileLocal = true;
+        ValueWrapper fallbackExisting = (ValueWrapper) fallbackCache.get(key);
+        if (fallbackExisting == null) {
+            fallbackCache.put(key, new SimpleValueWrapper(value));
+        }
+        return fallbackExisting;
+    }
+
+    @Override
+    public void evict(Object key) {
+        write(() -> delegate.evict(key), () -> fallbackCache.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        write(delegate::clear, fallbackCache::clear);
+    }
+
+    private void write(Runnable remote, Runnable fallback) {
+        if (!circuitBreaker.write(remote)) {
+            changedWhileLocal = true;
+            fallback.run();
+        }
+    }
+
+    /**
+     * Clear the Redis cache if it changed while Redis was unavailable, as its values may be outdated.
+     */
+    private void reconcile() {
+        if (!changedWhileLocal) {
+            return;
+        }
+        changedWhileLocal = false;
+        try {
+            delegate.clear();
+        } catch (RuntimeException e) {
+            changedWhileLocal = true;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package be.johanaerens.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Count-min sketch estimating how often the keys of a cache are read, keeping the most frequently read keys.
+ * <p>
+ * A read increments one counter of the key in each of the {@value #DEPTH} rows, and the frequency of the key is the lowest
+ * of its counters: it is overestimated when other keys share all its counters, but never underestimated. Once ten times as
+ * many reads as counters per row were counted, all the counters are halved, like in TinyLFU, so that the keys not read
+ * anymore age out.
+ * <p>
+ * The top keys are the keys with the highest frequencies when they were last read: a key read more often than the least
+ * frequently read top key replaces it.
+ */
+public final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    private final int[][] counters;
+
+    private final int mask;
+
+    private final int sampleSize;
+
+    private final int maxTopKeys;
+
+    private final Map<Object, Integer> topKeys = new HashMap<>();
+
+    private int minTopFrequency;
+
+    private int reads;
+
+    /**
+     * @param width the number of counters of each row, rounded up to a power of two.
+     * @param maxTopKeys the number of the most frequently read keys to keep.
+     */
+    public FrequencySketch(int width, int maxTopKeys) {
+        int rowWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.counters = new int[DEPTH][rowWidth];
+        this.mask = rowWidth - 1;
+        this.sampleSize = 10 * rowWidth;
+        this.maxTopKeys = maxTopKeys;
+    }
+
+    /**
+     * Count a read of a key.
+     *
+     * @param key the key read.
+     */
+    public synchronized void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            frequency = Math.min(frequency, ++counters[i][index]);
+        }
+        offer(key, frequency);
+        if (++reads >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * @param key the key.
+     * @return the estimated number of reads of the key, halved every sample period.
+     */
+    public synchronized int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, counters[i][index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * @return the most frequently read keys, the most frequent first.
+     */
+    public synchronized List<HotKey> topKeys() {
+        List<HotKey> hotKeys = new ArrayList<>(topKeys.size());
+        topKeys.forEach((key, frequency) -> hotKeys.add(new HotKey(key, frequency)));
+        hotKeys.sort(Comparator.comparingInt(HotKey::frequency).reversed());
+        return hotKeys;
+    }
+
+    private void offer(Object key, int frequency) {
+        if (maxTopKeys <= 0 || topKeys.replace(key, frequency) != null) {
+            return;
+        }
+        if (topKeys.size() < maxTopKeys) {
+            topKeys.put(key, frequency);
+            if (topKeys.size() == maxTopKeys) {
+                minTopFrequency = Collections.min(topKeys.values());
+            }
+            return;
+        }
+        // The top keys may have been read since the lowest frequency was computed: it is a lower bound
+        if (frequency <= minTopFrequency) {
+            return;
+        }
+        Map.Entry<Object, Integer> least = Collections.min(topKeys.entrySet(), Map.Entry.comparingByValue());
+        if (frequency > least.getValue()) {
+            topKeys.remove(least.getKey());
+            topKeys.put(key, frequency);
+        }
+        minTopFrequency = Collections.min(topKeys.values());
+    }
+
+    private void reset() {
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        reads >>>= 1;
+        topKeys.replaceAll((key, frequency) -> frequency >>> 1);
+        minTopFrequency >>>= 1;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Key read frequently, with its estimated number of reads.
+     */
+    public record HotKey(Object key, int frequency) {}
+}
@@ -0,0 +1,173 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import be.johanaerens.service.cache.FrequencySketch.HotKey;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.cache.internal.BasicCacheKeyImplementation;
+import org.hibernate.cache.internal.CacheKeyImplementation;
+import org.hibernate.cache.internal.DefaultCacheKeysFactory;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service counting the reads of the cache entries in a {@link FrequencySketch} per cache, to find the hot keys.
+ * <p>
+ * The reads are counted by the REST resources reading an entity by id and by the second-level cache misses, the keys of
+ * the entity and collection regions being counted by entity id. The frequencies decide which entries the near caches keep
+ * when they are full, and the top keys of all the instances are published to Redis, where the instances starting up read
+ * them to warm up the hot entries first, see {@link CacheWarmUpService}.
+ * <p>
+ * The top keys are published by period: a key is scored by its highest frequency on any of the instances during the
+ * period, and the keys of a period expire two periods after they were last published, so that the keys not read anymore
+ * age out.
+ */
+@Service
+public class HotKeyTracker {
+
+    private static final String PUBLISHED_KEY_PREFIX = "hot-keys:";
+
+    private final ApplicationProperties.Cache.HotKeys properties;
+
+    private final RedissonClient redissonClient;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final Map<String, FrequencySketch> sketches = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(ApplicationProperties applicationProperties, RedissonClient redissonClient, CacheCircuitBreaker circuitBreaker) {
+        this.properties = applicationProperties.getCache().getHotKeys();
+        this.redissonClient = redissonClient;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Count a read of a cache entry.
+     *
+     * @param cacheName the name of the cache, the entity class name for the entity regions.
+     * @param key the key of the entry, or the id of the entity.
+     */
+    public void record(String cacheName, Object key) {
+        if (properties.isEnabled() && key != null) {
+            sketches
+                .computeIfAbsent(cacheName, name -> new FrequencySketch(properties.getSketchWidth(), properties.getTopKeys()))
+                .increment(keyOf(key));
+        }
+    }
+
+    /**
+     * Decide whether a full cache keeps a new entry instead of evicting it, like TinyLFU: the least recently used entry is
+     * evicted for it unless it was read less frequently.
+     *
+     * @param cacheName the name of the cache.
+     * @param candidate the key of the new entry.
+     * @param victim the key of the entry evicted for it.
+     * @return whether to keep the new entry.
+     */
+    public boolean admit(String cacheName, Object candidate, Object victim) {
+        FrequencySketch sketch = sketches.get(cacheName);
+        return sketch == null || sketch.frequency(keyOf(candidate)) >= sketch.frequency(keyOf(victim));
+    }
+
+    /**
+     * @return the most frequently read keys of the instance by cache, the most frequent first.
+     */
+    public SortedMap<String, List<HotKey>> topKeys() {
+        SortedMap<String, List<HotKey>> topKeys = new TreeMap<>();
+        sketches.forEach((cacheName, sketch) -> topKeys.put(cacheName, sketch.topKeys()));
+        return topKeys;
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @return the most frequently read keys of the instance, the most frequent first.
+     */
+    public List<HotKey> topKeys(String cacheName) {
+        FrequencySketch sketch = sketches.get(cacheName);
+        return sketch != null ? sketch.topKeys() : List.of();
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @return the most frequently read keys published by all the instances, the most frequent first, none while Redis is
+     * unavailable.
+     */
+    public List<Object> publishedTopKeys(String cacheName) {
+        return publishedTopKeys(cacheName, System.currentTimeMillis());
+    }
+
+    List<Object> publishedTopKeys(String cacheName, long now) {
+        if (!properties.isEnabled()) {
+            return List.of();
+        }
+        int topKeys = properties.getTopKeys();
+        long period = period(now);
+        return circuitBreaker.read(
+            () -> {
+                Set<Object> keys = new LinkedHashSet<>(published(cacheName, period).valueRangeReversed(0, topKeys - 1));
+                if (keys.size() < topKeys) {
+                    // The period may have just started: the hot keys of the previous one come next
+                    keys.addAll(published(cacheName, period - 1).valueRangeReversed(0, topKeys - 1));
+                }
+                return keys.stream().limit(topKeys).toList();
+            },
+            List::of
+        );
+    }
+
+    /**
+     * Publish the most frequently read keys of the instance for the current period, Redis keeping the highest frequency
+     * of each key on any of the instances, and the most frequent keys.
+     */
+    @Scheduled(
+        initialDelayString = "${application.cache.hot-keys.publish-interval:PT1M}",
+        fixedDelayString = "${application.cache.hot-keys.publish-interval:PT1M}"
+    )
+    public void publish() {
+        publish(System.currentTimeMillis());
+    }
+
+    void publish(long now) {
+        long period = period(now);
+        sketches.forEach((cacheName, sketch) -> {
+            Map<Object, Double> scores = new HashMap<>();
+            sketch.topKeys().forEach(hotKey -> scores.put(hotKey.key(), (double) hotKey.frequency()));
+            if (scores.isEmpty()) {
+                return;
+            }
+            RScoredSortedSet<Object> published = published(cacheName, period);
+            circuitBreaker.write(() -> {
+                // Not lowering the frequencies published by the other instances
+                published.addAllIfGreater(scores);
+                published.removeRangeByRank(0, -properties.getTopKeys() - 1);
+                published.expire(properties.getPublishedPeriod().multipliedBy(2));
+            });
+        });
+    }
+
+    private RScoredSortedSet<Object> published(String cacheName, long period) {
+        return redissonClient.getScoredSortedSet(PUBLISHED_KEY_PREFIX + cacheName + ":" + period);
+    }
+
+    private long period(long now) {
+        return now / properties.getPublishedPeriod().toMillis();
+    }
+
+    /**
+     * @return the id of the entity for the keys of the entity and collection regions, the key otherwise.
+     */
+    static Object keyOf(Object key) {
+        if (key instanceof BasicCacheKeyImplementation || key instanceof CacheKeyImplementation) {
+            return DefaultCacheKeysFactory.staticGetEntityId(key);
+        }
+        return key instanceof Number || key instanceof String ? key : String.valueOf(key);
+    }
+}
@@ -0,0 +1,82 @@
+package be.johanaerens.service.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+
+/**
+ * Expiry policy shortening the time to live of each entry by a random fraction, so that the entries cached together, after
+ * a restart or a bulk load, do not expire together.
+ * <p>
+ * The time to live starts when an entry is created, or each time it is read as well.
+ */
+public class JitteredExpiryPolicy implements ExpiryPolicy, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long timeToLiveMillis;
+
+    private final double jitter;
+
+    private final boolean refreshedOnAccess;
+
+    /**
+     * @param timeToLive the longest time to live of an entry.
+     * @param jitter the largest fraction of the time to live removed from it, between 0 and 1.
+     * @param refreshedOnAccess whether the time to live starts again when an entry is read.
+     */
+    public JitteredExpiryPolicy(java.time.Duration timeToLive, double jitter, boolean refreshedOnAccess) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("The jitter must be between 0 and 1, not " + jitter);
+        }
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.jitter = jitter;
+        this.refreshedOnAccess = refreshedOnAccess;
+    }
+
+    /**
+     * @param cache a cache.
+     * @return the expiry policy of the cache, if it is a {@link JitteredExpiryPolicy}.
+     */
+    @SuppressWarnings("unchecked")
+    public static JitteredExpiryPolicy of(Cache<Object, Object> cache) {
+        try {
+            CompleteConfiguration<Object, Object> configuration = cache.getConfiguration(CompleteConfiguration.class);
+            ExpiryPolicy expiryPolicy = configuration != null ? configuration.getExpiryPolicyFactory().create() : null;
+            return expiryPolicy instanceof JitteredExpiryPolicy jittered ? jittered : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the shortest time to live of an entry.
+     */
+    public java.time.Duration getMinimumTimeToLive() {
+        return java.time.Duration.ofMillis(Math.round(timeToLiveMillis * (1 - jitter)));
+    }
+
+    @Override
+    public Duration getExpiryForCreation() {
+        return nextTimeToLive();
+    }
+
+    @Override
+    public Duration getExpiryForAccess() {
+        return refreshedOnAccess ? nextTimeToLive() : null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate() {
+        return null;
+    }
+
+    private Duration nextTimeToLive() {
+        long millis = Math.round(timeToLiveMillis * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+        return new Duration(TimeUnit.MILLISECONDS, millis);
+    }
+}
@@ -0,0 +1,140 @@
+package be.johanaerens.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Bounded on-heap copy of the most recently used entries of a cache, the first level of a {@link NearCache}, or the
+ * fallback of a cache while Redis is unavailable, see {@link CacheCircuitBreaker}.
+ * <p>
+ * Every change increments a version, so that an entry read from the cache is only kept when no change happened since the
+ * read started: a read racing with a write or an invalidation cannot keep the replaced value.
+ * <p>
+ * When it is full, a new entry evicts the least recently used one, unless the admission rejects it, see
+ * {@link HotKeyTracker#admit(String, Object, Object)}.
+ */
+final class LocalCache {
+
+    private final int maxEntries;
+
+    private final long timeToLiveNanos;
+
+    private final Map<Object, Entry> entries;
+
+    private final BiPredicate<Object, Object> admission;
+
+    private long version;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter rejections;
+
+    LocalCache(String cacheName, int maxEntries, Duration timeToLive, MeterRegistry meterRegistry) {
+        this("cache.near", cacheName, maxEntries, timeToLive, (candidate, victim) -> true, meterRegistry);
+    }
+
+    /**
+     * @param meterPrefix the prefix of the names of the {@code gets} and {@code rejections} counters and of the
+     * {@code size} gauge.
+     * @param admission whether to keep a new entry, by key, when the cache is full, rather than the least recently used one.
+     */
+    LocalCache(
+        String meterPrefix,
+        String cacheName,
+        int maxEntries,
+        Duration timeToLive,
+        BiPredicate<Object, Object> admission,
+        MeterRegistry meterRegistry
+    ) {
+        this.maxEntries = maxEntries;
+        this.admission = admission;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > LocalCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder(meterPrefix + ".gets").tag("cache", cacheName).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(meterPrefix + ".gets").tag("cache", cacheName).tag("result", "miss").register(meterRegistry);
+        this.rejections = Counter.builder(meterPrefix + ".rejections").tag("cache", cacheName).register(meterRegistry);
+        Gauge.builder(meterPrefix + ".size", this, LocalCache::size).tag("cache", cacheName).register(meterRegistry);
+    }
+
+    /**
+     * @param key the key of the entry.
+     * @return the value of the entry, or {@code null} if it is not kept or has expired.
+     */
+    Object get(Object key) {
+        Object value;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+            value = entry != null ? entry.value : null;
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * @return the version to pass to {@link #putIfUnchanged(Object, Object, long)}, read before reading the cache.
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Keep an entry just written to the cache.
+     */
+    synchronized void put(Object key, Object value) {
+        version++;
+        keep(key, value);
+    }
+
+    /**
+     * Keep an entry read from the cache, unless the local cache changed since the read started.
+     */
+    synchronized void putIfUnchanged(Object key, Object value, long readVersion) {
+        if (version == readVersion) {
+            keep(key, value);
+        }
+    }
+
+    synchronized void remove(Object key) {
+        version++;
+        entries.remove(key);
+    }
+
+    synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void keep(Object key, Object value) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            Map.Entry<Object, Entry> eldest = entries.entrySet().iterator().next();
+            boolean expired = eldest.getValue().expiresAt - System.nanoTime() <= 0;
+            if (!expired && !admission.test(key, eldest.getKey())) {
+                rejections.increment();
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, System.nanoTime() + timeToLiveNanos));
+    }
+
+    private record Entry(Object value, long expiresAt) {}
+}
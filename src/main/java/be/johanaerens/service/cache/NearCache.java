@@ -0,0 +1,225 @@
+package be.johanaerens.service.cache;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * On-heap caches in front of the Redis caches with settings for it in {@code application.cache.regions}, so that the hot
+ * entries are read without a round trip to Redis nor deserialization.
+ * <p>
+ * The changes made by an instance are broadcast on the {@value #INVALIDATION_TOPIC} Redis topic, and the other instances
+ * remove the changed entries from their own caches. A lost invalidation, while an instance is disconnected from Redis,
+ * is covered by clearing the caches when the topic is subscribed to again, and by the short time to live of their entries.
+ * <p>
+ * The topic is subscribed to in the background, again when Redis is back if it was unavailable on startup, and the
+ * invalidations are not published while the caches are local, see {@link CacheCircuitBreaker}.
+ * <p>
+ * A full on-heap cache only keeps a new entry instead of the least recently used one when it is not read less frequently,
+ * as counted by the {@link HotKeyTracker}.
+ */
+@Service
+public class NearCache {
+
+    public static final String INVALIDATION_TOPIC = "cache-invalidations";
+
+    private static final Logger LOG = LoggerFactory.getLogger(NearCache.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ApplicationProperties.Cache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final RTopic topic;
+
+    private final Counter receivedInvalidations;
+
+    private final Map<String, Optional<LocalCache>> localCaches = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean subscribing = new AtomicBoolean();
+
+    private volatile boolean subscribed;
+
+    public NearCache(
+        ApplicationProperties applicationProperties,
+        RedissonClient redissonClient,
+        CacheCircuitBreaker circuitBreaker,
+        HotKeyTracker hotKeyTracker,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getCache();
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.hotKeyTracker = hotKeyTracker;
+        this.topic = redissonClient.getTopic(INVALIDATION_TOPIC);
+        this.receivedInvalidations = Counter.builder("cache.near.invalidations").tag("origin", "remote").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        circuitBreaker.onRecovery(() -> {
+            clearLocalCaches();
+            if (!subscribed) {
+                subscribeAsync();
+            }
+        });
+        subscribeAsync();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        topic.removeAllListeners();
+    }
+
+    /**
+     * Remove an entry from the on-heap caches of all the instances.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key of the entry.
+     */
+    public void invalidate(String cacheName, Object key) {
+        invalidate(cacheName, List.of(key));
+    }
+
+    /**
+     * Remove entries from the on-heap caches of all the instances.
+     *
+     * @param cacheName the name of the cache.
+     * @param keys the keys of the entries.
+     */
+    public void invalidate(String cacheName, Collection<?> keys) {
+        LocalCache localCache = localCache(cacheName);
+        if (localCache == null || keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(localCache::remove);
+        publish(new Invalidation(instanceId, cacheName, new ArrayList<>(keys)));
+    }
+
+    /**
+     * Remove all the entries of a cache from the on-heap caches of all the instances.
+     *
+     * @param cacheName the name of the cache.
+     */
+    public void clear(String cacheName) {
+        LocalCache localCache = localCache(cacheName);
+        if (localCache == null) {
+            return;
+        }
+        localCache.clear();
+        publish(new Invalidation(instanceId, cacheName, null));
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @return the on-heap cache in front of the cache, {@code null} if it has none.
+     */
+    LocalCache localCache(String cacheName) {
+        return localCaches
+            .computeIfAbsent(cacheName, name -> {
+                ApplicationProperties.Cache.Region region = properties.getRegion(name);
+                if (region.getNearCacheEntries() <= 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(
+                    new LocalCache(
+                        "cache.near",
+                        name,
+                        region.getNearCacheEntries(),
+                        region.getNearCacheTimeToLive(),
+                        (candidate, victim) -> hotKeyTracker.admit(name, candidate, victim),
+                        meterRegistry
+                    )
+                );
+            })
+            .orElse(null);
+    }
+
+    private void subscribeAsync() {
+        if (!subscribing.compareAndSet(false, true)) {
+            return;
+        }
+        topic
+            .addListenerAsync(Invalidation.class, (channel, invalidation) -> receive(invalidation))
+            .thenCompose(listenerId ->
+                topic.addListenerAsync(
+                    new BaseStatusListener() {
+                        @Override
+                        public void onSubscribe(String channel) {
+                            // The invalidations published while the instance was not subscribed are lost
+                            clearLocalCaches();
+                        }
+                    }
+                )
+            )
+            .whenComplete((listenerId, e) -> {
+                subscribing.set(false);
+                if (e != null) {
+                    LOG.warn("Could not subscribe to the near cache invalidations, will retry when Redis is back: {}", e.getMessage());
+                } else {
+                    subscribed = true;
+                }
+            });
+    }
+
+    private void clearLocalCaches() {
+        localCaches.values().forEach(localCache -> localCache.ifPresent(LocalCache::clear));
+    }
+
+    private void publish(Invalidation invalidation) {
+        if (!circuitBreaker.isRemote()) {
+            // Redis cannot be reached: the other instances keep the entry until it expires from their near caches
+            return;
+        }
+        topic
+            .publishAsync(invalidation)
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    LOG.warn("Could not publish the invalidation of the {} near cache: {}", invalidation.cacheName(), e.getMessage());
+                }
+            });
+    }
+
+    private void receive(Invalidation invalidation) {
+        if (instanceId.equals(invalidation.instanceId())) {
+            return;
+        }
+        LocalCache localCache = localCache(invalidation.cacheName());
+        if (localCache == null) {
+            return;
+        }
+        if (invalidation.keys() == null) {
+            localCache.clear();
+        } else {
+            invalidation.keys().forEach(localCache::remove);
+        }
+        receivedInvalidations.increment();
+    }
+
+    /**
+     * Message removing entries, or all the entries when {@code keys} is {@code null}, from the on-heap caches.
+     */
+    record Invalidation(String instanceId, String cacheName, List<Object> keys) implements Serializable {}
+}
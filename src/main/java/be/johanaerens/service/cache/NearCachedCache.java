@@ -0,0 +1,113 @@
+package be.johanaerens.service.cache;
+
+import java.util.concurrent.Callable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Spring cache reading through the on-heap cache of a {@link NearCache}, and invalidating it on all the instances when
+ * its entries change.
+ */
+public class NearCachedCache implements Cache {
+
+    private final Cache delegate;
+
+    private final NearCache nearCache;
+
+    private final LocalCache localCache;
+
+    NearCachedCache(Cache delegate, NearCache nearCache, LocalCache localCache) {
+        this.delegate = delegate;
+        this.nearCache = nearCache;
+        this.localCache = localCache;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = (ValueWrapper) localCache.get(key);
+        if (wrapper == null) {
+            long version = localCache.version();
+            wrapper = delegate.get(key);
+            if (wrapper != null) {
+                localCache.putIfUnchanged(key, wrapper, version);
+            }
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = (ValueWrapper) localCache.get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long version = localCache.version();
+        T value = delegate.get(key, valueLoader);
+        localCache.putIfUnchanged(key, new SimpleValueWrapper(value), version);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        nearCache.invalidate(getName(), key);
+        localCache.put(key, new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            nearCache.invalidate(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        nearCache.invalidate(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        nearCache.invalidate(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        nearCache.clear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        nearCache.clear(getName());
+        return invalidated;
+    }
+}
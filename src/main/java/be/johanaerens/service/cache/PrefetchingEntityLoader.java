@@ -0,0 +1,107 @@
+package be.johanaerens.service.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.support.RegionNameQualifier;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service loading many entities by id with two round trips at most.
+ * <p>
+ * The second-level cache entries of all the ids are read with a single {@link Cache#getAll(Set)} call, then Hibernate loads
+ * the entities with {@link org.hibernate.MultiIdentifierLoadAccess}: it assembles the cached entities from the prefetched
+ * entries and reads the others with a single {@code id IN (...)} statement, whose parameters are padded by
+ * {@code hibernate.query.in_clause_parameter_padding}. The entities read from the database are put into the cache with a
+ * single {@link Cache#putAll(Map)} call, without invalidating the near caches of the other instances, which do not hold them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PrefetchingEntityLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchingEntityLoader.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final EntityManager entityManager;
+
+    private final CacheManager cacheManager;
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    public PrefetchingEntityLoader(
+        EntityManagerFactory entityManagerFactory,
+        EntityManager entityManager,
+        CacheManager cacheManager,
+        CacheCircuitBreaker circuitBreaker
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Load entities by id.
+     *
+     * @param entityClass the class of the entities.
+     * @param ids the ids of the entities.
+     * @param <T> the type of the entities.
+     * @return the existing entities, in the order of their ids, without duplicates.
+     */
+    public <T> List<T> loadAll(Class<T> entityClass, Collection<Long> ids) {
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null || !session.getCacheMode().isGetEnabled()) {
+            return multiLoad(session, entityClass, distinctIds);
+        }
+        String regionName = RegionNameQualifier.INSTANCE.qualify(cacheAccess.getRegion().getName(), sessionFactory.getSessionFactoryOptions());
+        Cache<Object, Object> cache = cacheManager.getCache(regionName);
+        if (cache == null) {
+            return multiLoad(session, entityClass, distinctIds);
+        }
+        Set<Object> keys = distinctIds
+            .stream()
+            .map(id -> cacheAccess.generateCacheKey(id, persister, sessionFactory, null))
+            .collect(Collectors.toSet());
+        Map<Object, Object> entries = circuitBreaker.read(() -> cache.getAll(keys), () -> null);
+        if (entries == null) {
+            // Redis is unavailable: Hibernate reads the entries one by one, from the fallback caches
+            return multiLoad(session, entityClass, distinctIds);
+        }
+        LOG.debug("Prefetched {} of {} {} entries from the second-level cache", entries.size(), keys.size(), entityClass.getSimpleName());
+        return CachePrefetch.withPrefetched(regionName, entries, () -> multiLoad(session, entityClass, distinctIds), loaded ->
+            circuitBreaker.write(() -> cache.putAll(loaded))
+        );
+    }
+
+    private static <T> List<T> multiLoad(Session session, Class<T> entityClass, List<Long> ids) {
+        return session
+            .byMultipleIds(entityClass)
+            .withBatchSize(ids.size())
+            .multiLoad(ids)
+            .stream()
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
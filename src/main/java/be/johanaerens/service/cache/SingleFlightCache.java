@@ -0,0 +1,139 @@
+package be.johanaerens.service.cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Spring cache loading each missing value once, however many callers miss it at the same time, and refreshing the hot
+ * values before they expire.
+ * <p>
+ * The values loaded with {@link #get(Object, Callable)}, by the {@code @Cacheable(sync = true)} methods, are loaded by the
+ * first caller missing them, the other callers of the instance waiting for its result. When the cache has a
+ * {@link JitteredExpiryPolicy}, the values are stored as {@link CachedValue}s, and a caller refreshes a hot value early with
+ * a probability growing as its expiry comes closer, while the other callers keep reading the cached one.
+ */
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+
+    private final JitteredExpiryPolicy expiryPolicy;
+
+    private final double earlyRefreshBeta;
+
+    private final Map<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the cache storing the values.
+     * @param expiryPolicy the expiry policy of the cache, {@code null} not to refresh the values early.
+     * @param earlyRefreshBeta the eagerness of the early refresh, 0 not to refresh the values early.
+     */
+    public SingleFlightCache(Cache delegate, JitteredExpiryPolicy expiryPolicy, double earlyRefreshBeta) {
+        this.delegate = delegate;
+        this.expiryPolicy = earlyRefreshBeta > 0 ? expiryPolicy : null;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return unwrap(delegate.get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null && !(wrapper.get() instanceof CachedValue cachedValue && cachedValue.isRefreshDue(earlyRefreshBeta))) {
+            return (T) CachedValue.unwrap(wrapper.get());
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            // Another caller is loading the value: keep the cached value while it is refreshed, or wait for it
+            return wrapper != null ? (T) CachedValue.unwrap(wrapper.get()) : (T) await(key, valueLoader, inFlight);
+        }
+        try {
+            long start = System.nanoTime();
+            T value = valueLoader.call();
+            delegate.put(key, wrap(value, System.nanoTime() - start));
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, wrap(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return unwrap(delegate.putIfAbsent(key, wrap(value, 0)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private Object wrap(Object value, long loadNanos) {
+        return expiryPolicy != null ? CachedValue.of(value, expiryPolicy, loadNanos) : value;
+    }
+
+    private static ValueWrapper unwrap(ValueWrapper wrapper) {
+        return wrapper != null && wrapper.get() instanceof CachedValue cachedValue ? new SimpleValueWrapper(cachedValue.value()) : wrapper;
+    }
+
+    private static Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package be.johanaerens.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.hibernate.cache.spi.support.StorageAccess;
+
+/**
+ * Storage of the update timestamps region, the last modification time of each table checked before returning cached query
+ * results.
+ * <p>
+ * The tables changed while Redis is unavailable are remembered, and their timestamps are updated in Redis when it is back,
+ * so that the query results cached by the other instances before the changes are not returned anymore.
+ */
+public class TimestampsStorageAccess extends CircuitBreakingStorageAccess {
+
+    private final LongSupplier timestamper;
+
+    private final Set<Object> spacesChangedWhileLocal = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param delegate the storage of the region in Redis.
+     * @param regionName the name of the region.
+     * @param timestamper the source of the timestamps, like {@link org.hibernate.cache.spi.RegionFactory#nextTimestamp()}.
+     * @param circuitBreaker the circuit breaker switching to the fallback caches.
+     * @param meterRegistry the registry of the metrics of the region.
+     */
+    public TimestampsStorageAccess(
+        StorageAccess delegate,
+        String regionName,
+        LongSupplier timestamper,
+        CacheCircuitBreaker circuitBreaker,
+        MeterRegistry meterRegistry
+    ) {
+        super(delegate, regionName, circuitBreaker, meterRegistry);
+        this.timestamper = timestamper;
+        circuitBreaker.onRecovery(this::reconcile);
+    }
+
+    @Override
+    protected void changedWhileLocal(Object key) {
+        spacesChangedWhileLocal.add(key);
+    }
+
+    private void reconcile() {
+        Long timestamp = timestamper.getAsLong();
+        for (Object space : spacesChangedWhileLocal) {
+            getDelegate().putIntoCache(space, timestamp, null);
+            spacesChangedWhileLocal.remove(space);
+        }
+    }
+}
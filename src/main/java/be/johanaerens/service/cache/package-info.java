@@ -0,0 +1,4 @@
+/**
+ * Second-level cache extensions.
+ */
+package be.johanaerens.service.cache;
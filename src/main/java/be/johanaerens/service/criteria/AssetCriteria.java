@@ -0,0 +1,317 @@
+package be.johanaerens.service.criteria;
+
+import be.johanaerens.domain.enumeration.Status;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link be.johanaerens.domain.Asset} entity. This class is used
+ * in {@link be.johanaerens.web.rest.AssetResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /assets?status.equals=IN_USE&employeeId.equals=1051&warantDate.lessThan=2025-01-01T00:00:00Z&serialNumber.startsWith=SN}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class AssetCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering Status
+     */
+    public static class StatusFilter extends Filter<Status> {
+
+        public StatusFilter() {}
+
+        public StatusFilter(StatusFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public StatusFilter copy() {
+            return new StatusFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter number;
+
+    private StringFilter brand;
+
+    private StringFilter model;
+
+    private PrefixStringFilter serialNumber;
+
+    private InstantFilter purchaseDate;
+
+    private InstantFilter warantDate;
+
+    private StringFilter comments;
+
+    private StatusFilter status;
+
+    private LongFilter employeeId;
+
+    public AssetCriteria() {}
+
+    public AssetCriteria(AssetCriteria other) {
+        this.id = other.optionalId().map(LongFilter::copy).orElse(null);
+        this.number = other.optionalNumber().map(StringFilter::copy).orElse(null);
+        this.brand = other.optionalBrand().map(StringFilter::copy).orElse(null);
+        this.model = other.optionalModel().map(StringFilter::copy).orElse(null);
+        this.serialNumber = other.optionalSerialNumber().map(PrefixStringFilter::copy).orElse(null);
+        this.purchaseDate = other.optionalPurchaseDate().map(InstantFilter::copy).orElse(null);
+        this.warantDate = other.optionalWarantDate().map(InstantFilter::copy).orElse(null);
+        this.comments = other.optionalComments().map(StringFilter::copy).orElse(null);
+        this.status = other.optionalStatus().map(StatusFilter::copy).orElse(null);
+        this.employeeId = other.optionalEmployeeId().map(LongFilter::copy).orElse(null);
+    }
+
+    @Override
+    public AssetCriteria copy() {
+        return new AssetCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public Optional<LongFilter> optionalId() {
+        return Optional.ofNullable(id);
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getNumber() {
+        return number;
+    }
+
+    public Optional<StringFilter> optionalNumber() {
+        return Optional.ofNullable(number);
+    }
+
+    public StringFilter number() {
+        if (number == null) {
+            setNumber(new StringFilter());
+        }
+        return number;
+    }
+
+    public void setNumber(StringFilter number) {
+        this.number = number;
+    }
+
+    public StringFilter getBrand() {
+        return brand;
+    }
+
+    public Optional<StringFilter> optionalBrand() {
+        return Optional.ofNullable(brand);
+    }
+
+    public StringFilter brand() {
+        if (brand == null) {
+            setBrand(new StringFilter());
+        }
+        return brand;
+    }
+
+    public void setBrand(StringFilter brand) {
+        this.brand = brand;
+    }
+
+    public StringFilter getModel() {
+        return model;
+    }
+
+    public Optional<StringFilter> optionalModel() {
+        return Optional.ofNullable(model);
+    }
+
+    public StringFilter model() {
+        if (model == null) {
+            setModel(new StringFilter());
+        }
+        return model;
+    }
+
+    public void setModel(StringFilter model) {
+        this.model = model;
+    }
+
+    public PrefixStringFilter getSerialNumber() {
+        return serialNumber;
+    }
+
+    public Optional<PrefixStringFilter> optionalSerialNumber() {
+        return Optional.ofNullable(serialNumber);
+    }
+
+    public PrefixStringFilter serialNumber() {
+        if (serialNumber == null) {
+            setSerialNumber(new PrefixStringFilter());
+        }
+        return serialNumber;
+    }
+
+    public void setSerialNumber(PrefixStringFilter serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    public InstantFilter getPurchaseDate() {
+        return purchaseDate;
+    }
+
+    public Optional<InstantFilter> optionalPurchaseDate() {
+        return Optional.ofNullable(purchaseDate);
+    }
+
+    public InstantFilter purchaseDate() {
+        if (purchaseDate == null) {
+            setPurchaseDate(new InstantFilter());
+        }
+        return purchaseDate;
+    }
+
+    public void setPurchaseDate(InstantFilter purchaseDate) {
+        this.purchaseDate = purchaseDate;
+    }
+
+    public InstantFilter getWarantDate() {
+        return warantDate;
+    }
+
+    public Optional<InstantFilter> optionalWarantDate() {
+        return Optional.ofNullable(warantDate);
+    }
+
+    public InstantFilter warantDate() {
+        if (warantDate == null) {
+            setWarantDate(new InstantFilter());
+        }
+        return warantDate;
+    }
+
+    public void setWarantDate(InstantFilter warantDate) {
+        this.warantDate = warantDate;
+    }
+
+    public StringFilter getComments() {
+        return comments;
+    }
+
+    public Optional<StringFilter> optionalComments() {
+        return Optional.ofNullable(comments);
+    }
+
+    public StringFilter comments() {
+        if (comments == null) {
+            setComments(new StringFilter());
+        }
+        return comments;
+    }
+
+    public void setComments(StringFilter comments) {
+        this.comments = comments;
+    }
+
+    public StatusFilter getStatus() {
+        return status;
+    }
+
+    public Optional<StatusFilter> optionalStatus() {
+        return Optional.ofNullable(status);
+    }
+
+    public StatusFilter status() {
+        if (status == null) {
+            setStatus(new StatusFilter());
+        }
+        return status;
+    }
+
+    public void setStatus(StatusFilter status) {
+        this.status = status;
+    }
+
+    public LongFilter getEmployeeId() {
+        return employeeId;
+    }
+
+    public Optional<LongFilter> optionalEmployeeId() {
+        return Optional.ofNullable(employeeId);
+    }
+
+    public LongFilter employeeId() {
+        if (employeeId == null) {
+            setEmployeeId(new LongFilter());
+        }
+        return employeeId;
+    }
+
+    public void setEmployeeId(LongFilter employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final AssetCriteria that = (AssetCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(number, that.number) &&
+            Objects.equals(brand, that.brand) &&
+            Objects.equals(model, that.model) &&
+            Objects.equals(serialNumber, that.serialNumber) &&
+            Objects.equals(purchaseDate, that.purchaseDate) &&
+            Objects.equals(warantDate, that.warantDate) &&
+            Objects.equals(comments, that.comments) &&
+            Objects.equals(status, that.status) &&
+            Objects.equals(employeeId, that.employeeId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, number, brand, model, serialNumber, purchaseDate, warantDate, comments, status, employeeId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AssetCriteria{" +
+            optionalId().map(f -> "id=" + f + ", ").orElse("") +
+            optionalNumber().map(f -> "number=" + f + ", ").orElse("") +
+            optionalBrand().map(f -> "brand=" + f + ", ").orElse("") +
+            optionalModel().map(f -> "model=" + f + ", ").orElse("") +
+            optionalSerialNumber().map(f -> "serialNumber=" + f + ", ").orElse("") +
+            optionalPurchaseDate().map(f -> "purchaseDate=" + f + ", ").orElse("") +
+            optionalWarantDate().map(f -> "warantDate=" + f + ", ").orElse("") +
+            optionalComments().map(f -> "comments=" + f + ", ").orElse("") +
+            optionalStatus().map(f -> "status=" + f + ", ").orElse("") +
+            optionalEmployeeId().map(f -> "employeeId=" + f + ", ").orElse("") +
+        "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria classes, receiving the filtering options of the entity lists from the request parameters.
+ */
+package be.johanaerens.service.criteria;
@@ -0,0 +1,72 @@
+package be.johanaerens.service.csvimport;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.function.Function;
+
+/**
+ * A column of an imported table, converting the CSV value to its JDBC value.
+ *
+ * @param name the name of the column, which is also the name of the CSV field.
+ * @param sqlType the {@link Types JDBC type} of the column.
+ * @param precision the precision of the column.
+ * @param scale the scale of the column.
+ * @param converter the conversion of a non-empty CSV value, throwing an {@link IllegalArgumentException} on invalid values.
+ */
+public record CsvColumn(String name, int sqlType, int precision, int scale, Function<String, Object> converter) {
+    static final int MAX_STRING_LENGTH = 255;
+
+    static final CsvColumn ID = new CsvColumn("id", Types.BIGINT, 19, 0, Long::valueOf);
+
+    static CsvColumn string(String name) {
+        return new CsvColumn(name, Types.VARCHAR, MAX_STRING_LENGTH, 0, value -> {
+            if (value.length() > MAX_STRING_LENGTH) {
+                throw new IllegalArgumentException("is longer than " + MAX_STRING_LENGTH + " characters");
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Dates are either ISO instants, as exported, or ISO local date-times in UTC, as in the Liquibase data files.
+     * They are converted to the UTC wall-clock time stored by Hibernate ({@code hibernate.jdbc.time_zone: UTC}).
+     */
+    static CsvColumn instant(String name) {
+        return new CsvColumn(name, Types.TIMESTAMP, 23, 3, value -> {
+            try {
+                TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(value);
+                Instant instant = parsed.isSupported(ChronoField.OFFSET_SECONDS)
+                    ? Instant.from(parsed)
+                    : LocalDateTime.from(parsed).toInstant(ZoneOffset.UTC);
+                return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("is not an ISO date-time", e);
+            }
+        });
+    }
+
+    static <E extends Enum<E>> CsvColumn enumeration(String name, Class<E> enumClass) {
+        return new CsvColumn(name, Types.VARCHAR, MAX_STRING_LENGTH, 0, value -> Enum.valueOf(enumClass, value).name());
+    }
+
+    /**
+     * Convert a CSV value, an empty value being {@code null}.
+     *
+     * @param value the CSV value.
+     * @return the JDBC value.
+     * @throws IllegalArgumentException if the value is invalid.
+     */
+    public Object convert(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return converter.apply(value);
+    }
+}
@@ -0,0 +1,13 @@
+package be.johanaerens.service.csvimport;
+
+/**
+ * Thrown when a CSV file cannot be imported at all, for instance because of its header.
+ */
+public class CsvImportException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CsvImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,417 @@
+package be.johanaerens.service.csvimport;
+
+import be.johanaerens.config.ApplicationProperties;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.service.EntityCacheEvictor;
+import be.johanaerens.service.TableGenerationService;
+import be.johanaerens.service.csvimport.CsvRecordReader.CsvRecord;
+import be.johanaerens.service.dto.CsvImportReportDTO;
+import be.johanaerens.service.dto.CsvImportReportDTO.LineError;
+import be.johanaerens.service.search.EmployeeSuggestionService;
+import be.johanaerens.service.search.EntitySearchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service importing CSV files, shaped like the Liquibase data files, into the asset and employee tables.
+ * <p>
+ * The import is a pipeline of three stages linked by bounded queues, so that memory stays constant whatever
+ * the size of the file:
+ * <ol>
+ *     <li>the calling thread reads the records and groups them in chunks;</li>
+ *     <li>parser threads, one per processor by default, split, convert and validate the records of a chunk;</li>
+ *     <li>a single writer thread allocates the identifiers from the entity's sequence and writes each chunk
+ *     in its own transaction, through the first {@link CsvImportSink} supporting the database.</li>
+ * </ol>
+ * Invalid records are rejected and reported, and so are the records whose natural keys, the columns with a unique
+ * constraint, are already used: the writer looks the keys of a chunk up before writing it, the records sharing a key
+ * with a record written before, from the file or not, being rejected. A database error or an unexpected failure of a
+ * parser stops the import: the chunks written before it stay imported.
+ * <p>
+ * Rows are written with plain JDBC, bypassing the persistence context and the second-level cache, which
+ * never held the new rows anyway. Hibernate does not see them either, so the generation of the table is
+ * changed and its search indexes are rebuilt at the end of the import.
+ * <p>
+ * The {@code csv.import.rows} counters and the {@code csv.import} timer show the progress and the throughput
+ * of the imports.
+ */
+@Service
+public class CsvImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvImportService.class);
+
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final Chunk END_OF_FILE = new Chunk(List.of());
+
+    private static final ParsedChunk END_OF_ROWS = new ParsedChunk(0, List.of(), List.of(), List.of(), null);
+
+    /**
+     * Maximum number of natural keys looked up at once, SQL Server accepting at most 2100 parameters.
+     */
+    private static final int KEY_LOOKUP_SIZE = 1000;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final List<CsvImportSink> sinks;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TableGenerationService tableGenerationService;
+
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    private final EntitySearchService entitySearchService;
+
+    private final EmployeeSuggestionService employeeSuggestionService;
+
+    private final ApplicationProperties.CsvImport properties;
+
+    public CsvImportService(
+        EntityManagerFactory entityManagerFactory,
+        List<CsvImportSink> sinks,
+        MeterRegistry meterRegistry,
+        TableGenerationService tableGenerationService,
+        EntityCacheEvictor entityCacheEvictor,
+        EntitySearchService entitySearchService,
+        EmployeeSuggestionService employeeSuggestionService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.sinks = sinks;
+        this.meterRegistry = meterRegistry;
+        this.tableGenerationService = tableGenerationService;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.entitySearchService = entitySearchService;
+        this.employeeSuggestionService = employeeSuggestionService;
+        this.properties = applicationProperties.getCsvImport();
+    }
+
+    record Chunk(List<CsvRecord> records) {}
+
+    /**
+     * The outcome of parsing a chunk: its valid rows with their line numbers and its rejected records, or the failure of
+     * the parser.
+     */
+    record ParsedChunk(long read, List<Object[]> rows, List<Long> lines, List<LineError> errors, Throwable failure) {}
+
+    /**
+     * Import a CSV file.
+     *
+     * @param target the table to import into.
+     * @param csv the UTF-8 encoded CSV file, starting with a header.
+     * @return the report of the import.
+     * @throws IOException if the file could not be read.
+     * @throws CsvImportException if the header of the file is invalid.
+     */
+    public CsvImportReportDTO importCsv(CsvImportTarget target, InputStream csv) throws IOException {
+        LOG.debug("Request to import a CSV file into {}", target.getTable());
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        CsvRecord header = reader.next();
+        if (header == null) {
+            throw new CsvImportException("The CSV file is empty");
+        }
+        List<String> headerFields;
+        try {
+            headerFields = CsvRecordReader.split(header.text());
+        } catch (IllegalArgumentException e) {
+            throw new CsvImportException("Invalid CSV header: " + e.getMessage());
+        }
+        int[] fields = target.mapHeader(headerFields);
+
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        BlockingQueue<ParsedChunk> parsedChunks = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        CsvImportReportDTO report = new CsvImportReportDTO();
+        Tags tags = Tags.of("entity", target.getTable());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism + 1, new CustomizableThreadFactory("csv-import-"));
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                executor.execute(() -> parse(target.getColumns(), fields, headerFields.size(), chunks, parsedChunks));
+            }
+            Future<?> writer = executor.submit(() -> {
+                write(target, parsedChunks, parallelism, report, tags);
+                return null;
+            });
+            read(reader, chunks, parallelism, writer);
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The CSV import was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("The CSV import failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            sample.stop(meterRegistry.timer("csv.import", tags));
+            // The chunks written so far are committed, even if the import failed
+            tableGenerationService.bump(target.getEntityClass());
+            entityCacheEvictor.invalidateQueries(target.getEntityClass());
+            entitySearchService.rebuildInBackground(target.getEntityClass());
+            if (Employee.class.equals(target.getEntityClass())) {
+                employeeSuggestionService.rebuildInBackground();
+            }
+        }
+        report.complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info("Imported a CSV file into {}: {}", target.getTable(), report);
+        return report;
+    }
+
+    private void read(CsvRecordReader reader, BlockingQueue<Chunk> chunks, int parallelism, Future<?> writer)
+        throws IOException, InterruptedException, ExecutionException {
+        int chunkSize = properties.getChunkSize();
+        List<CsvRecord> records = new ArrayList<>(chunkSize);
+        for (CsvRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+            if (records.size() == chunkSize) {
+                put(chunks, new Chunk(records), writer);
+                records = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!records.isEmpty()) {
+            put(chunks, new Chunk(records), writer);
+        }
+        for (int i = 0; i < parallelism; i++) {
+            put(chunks, END_OF_FILE, writer);
+        }
+    }
+
+    /**
+     * Hand a chunk to the parsers, giving up as soon as the writer failed, as nothing consumes the chunks anymore.
+     */
+    private static void put(BlockingQueue<Chunk> chunks, Chunk chunk, Future<?> writer) throws InterruptedException, ExecutionException {
+        while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("The CSV import writer stopped before the end of the file");
+            }
+        }
+    }
+
+    /**
+     * Parse the chunks until the end of the file, handing the failure of the parser to the writer instead of its end of rows
+     * if it fails, so that the writer stops the import rather than waiting for the parser.
+     */
+    static void parse(
+        List<CsvColumn> columns,
+        int[] fields,
+        int fieldCount,
+        BlockingQueue<Chunk> chunks,
+        BlockingQueue<ParsedChunk> parsedChunks
+    ) {
+        try {
+            ParsedChunk end = END_OF_ROWS;
+            try {
+                for (Chunk chunk = chunks.take(); chunk != END_OF_FILE; chunk = chunks.take()) {
+                    parsedChunks.put(parse(columns, fields, fieldCount, chunk));
+                }
+            } catch (RuntimeException | Error e) {
+                LOG.error("A CSV import parser failed", e);
+                end = new ParsedChunk(0, List.of(), List.of(), List.of(), e);
+            }
+            parsedChunks.put(end);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static ParsedChunk parse(List<CsvColumn> columns, int[] fields, int fieldCount, Chunk chunk) {
+        List<Object[]> rows = new ArrayList<>(chunk.records().size());
+        List<Long> lines = new ArrayList<>(chunk.records().size());
+        List<LineError> errors = new ArrayList<>();
+        for (CsvRecord record : chunk.records()) {
+            List<String> values;
+            try {
+                values = CsvRecordReader.split(record.text());
+            } catch (IllegalArgumentException e) {
+                errors.add(new LineError(record.line(), "invalid", e.getMessage()));
+                continue;
+            }
+            if (values.size() != fieldCount) {
+                errors.add(new LineError(record.line(), "invalid", "Expected " + fieldCount + " fields but found " + values.size()));
+                continue;
+            }
+            Object[] row = new Object[columns.size()];
+            int column = 0;
+            try {
+                // The id column is left for the writer
+                for (column = 1; column < columns.size(); column++) {
+                    if (fields[column] >= 0) {
+                        row[column] = columns.get(column).convert(values.get(fields[column]));
+                    }
+                }
+                rows.add(row);
+                lines.add(record.line());
+            } catch (IllegalArgumentException e) {
+                errors.add(new LineError(record.line(), "invalid", columns.get(column).name() + " " + e.getMessage()));
+            } catch (RuntimeException e) {
+                LOG.warn("Unexpected failure converting the {} field of CSV line {}", columns.get(column).name(), record.line(), e);
+                errors.add(new LineError(record.line(), "invalid", columns.get(column).name() + " is invalid: " + e));
+            }
+        }
+        return new ParsedChunk(chunk.records().size(), rows, lines, errors, null);
+    }
+
+    private void write(CsvImportTarget target, BlockingQueue<ParsedChunk> parsedChunks, int parallelism, CsvImportReportDTO report, Tags tags)
+        throws InterruptedException {
+        Counter imported = meterRegistry.counter("csv.import.rows", tags.and("outcome", "imported"));
+        Counter rejected = meterRegistry.counter("csv.import.rows", tags.and("outcome", "rejected"));
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) sessionFactory
+            .getMappingMetamodel()
+            .getEntityDescriptor(target.getEntityClass())
+            .getGenerator();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            CsvImportSink sink = session.doReturningWork(connection -> sink(connection.getMetaData()));
+            LOG.debug("Writing the CSV import into {} with {}", target.getTable(), sink.getClass().getSimpleName());
+            long nextProgress = PROGRESS_INTERVAL;
+            int runningParsers = parallelism;
+            while (runningParsers > 0) {
+                ParsedChunk chunk = parsedChunks.take();
+                if (chunk.failure() != null) {
+                    throw new IllegalStateException("A CSV import parser failed", chunk.failure());
+                }
+                if (chunk == END_OF_ROWS) {
+                    runningParsers--;
+                    continue;
+                }
+                List<Object[]> rows = chunk.rows();
+                List<LineError> errors = new ArrayList<>(chunk.errors());
+                if (!rows.isEmpty()) {
+                    Transaction transaction = session.beginTransaction();
+                    try {
+                        rows = session.doReturningWork(connection -> rejectUsedKeys(connection, target, chunk, errors));
+                        for (Object[] row : rows) {
+                            row[0] = generator.generate((SharedSessionContractImplementor) session, null, null, EventType.INSERT);
+                        }
+                        List<Object[]> written = rows;
+                        session.doWork(connection -> sink.write(connection, target, written));
+                        transaction.commit();
+                    } catch (RuntimeException e) {
+                        if (transaction.isActive()) {
+                            transaction.rollback();
+                        }
+                        throw e;
+                    }
+                }
+                report.addChunk(chunk.read(), rows.size(), errors);
+                imported.increment(rows.size());
+                rejected.increment(errors.size());
+                if (report.getRead() >= nextProgress) {
+                    LOG.info("CSV import into {}: {} records read, {} imported", target.getTable(), report.getRead(), report.getImported());
+                    nextProgress += PROGRESS_INTERVAL;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reject the rows of a chunk using a natural key already in the table, or used by an earlier row of the chunk.
+     *
+     * @return the other rows.
+     */
+    private static List<Object[]> rejectUsedKeys(Connection connection, CsvImportTarget target, ParsedChunk chunk, List<LineError> errors)
+        throws SQLException {
+        List<Object[]> rows = chunk.rows();
+        boolean[] rejectedRows = new boolean[rows.size()];
+        for (int column : target.getUniqueColumns()) {
+            CsvColumn csvColumn = target.getColumns().get(column);
+            Set<Object> used = usedKeys(connection, target, csvColumn, rows, column);
+            for (int i = 0; i < rows.size(); i++) {
+                Object key = rows.get(i)[column];
+                if (!rejectedRows[i] && key != null && !used.add(key)) {
+                    rejectedRows[i] = true;
+                    String errorKey = csvColumn.name().replace("_", "") + "exists";
+                    errors.add(new LineError(chunk.lines().get(i), errorKey, csvColumn.name() + " " + key + " is already used"));
+                }
+            }
+        }
+        List<Object[]> accepted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (!rejectedRows[i]) {
+                accepted.add(rows.get(i));
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * @return the values of a column of the rows that are already in the table.
+     */
+    private static Set<Object> usedKeys(Connection connection, CsvImportTarget target, CsvColumn column, List<Object[]> rows, int index)
+        throws SQLException {
+        List<Object> keys = rows.stream().map(row -> row[index]).filter(Objects::nonNull).distinct().toList();
+        Set<Object> used = new HashSet<>();
+        for (int from = 0; from < keys.size(); from += KEY_LOOKUP_SIZE) {
+            List<Object> lookedUp = keys.subList(from, Math.min(from + KEY_LOOKUP_SIZE, keys.size()));
+            String sql =
+                "select " +
+                column.name() +
+                " from " +
+                target.getTable() +
+                " where " +
+                column.name() +
+                " in (" +
+                lookedUp.stream().map(key -> "?").collect(Collectors.joining(", ")) +
+                ")";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < lookedUp.size(); i++) {
+                    statement.setObject(i + 1, lookedUp.get(i), column.sqlType());
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        used.add(resultSet.getObject(1));
+                    }
+                }
+            }
+        }
+        return used;
+    }
+
+    private CsvImportSink sink(DatabaseMetaData metaData) throws SQLException {
+        for (CsvImportSink sink : sinks) {
+            if (sink.supports(metaData)) {
+                return sink;
+            }
+        }
+        throw new IllegalStateException("No CSV import sink supports " + metaData.getDatabaseProductName());
+    }
+}
@@ -0,0 +1,30 @@
+package be.johanaerens.service.csvimport;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writer of imported rows to the database.
+ * <p>
+ * The first sink, in {@link org.springframework.core.annotation.Order order}, supporting the database is used.
+ */
+public interface CsvImportSink {
+    /**
+     * @param metaData the meta data of the database.
+     * @return whether this sink can write to the database.
+     * @throws SQLException if the meta data could not be read.
+     */
+    boolean supports(DatabaseMetaData metaData) throws SQLException;
+
+    /**
+     * Write rows, within the transaction of the connection.
+     *
+     * @param connection the connection to write with.
+     * @param target the table to write to.
+     * @param rows the rows, their values following the {@link CsvImportTarget#getColumns() columns of the table}.
+     * @throws SQLException if the rows could not be written.
+     */
+    void write(Connection connection, CsvImportTarget target, List<Object[]> rows) throws SQLException;
+}
@@ -0,0 +1,134 @@
+package be.johanaerens.service.csvimport;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.domain.enumeration.Language;
+import be.johanaerens.domain.enumeration.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The tables CSV files can be imported into, with the same columns as the Liquibase data files.
+ * <p>
+ * The {@code id} column of a file is ignored: identifiers are allocated from the entity's sequence.
+ */
+public enum CsvImportTarget {
+    ASSET(
+        Asset.class,
+        "asset",
+        List.of("number", "serial_number"),
+        CsvColumn.string("number"),
+        CsvColumn.string("brand"),
+        CsvColumn.string("model"),
+        CsvColumn.string("serial_number"),
+        CsvColumn.instant("purchase_date"),
+        CsvColumn.instant("warant_date"),
+        CsvColumn.string("comments"),
+        CsvColumn.enumeration("status", Status.class)
+    ),
+    EMPLOYEE(
+        Employee.class,
+        "employee",
+        List.of("employee_number"),
+        CsvColumn.string("first_name"),
+        CsvColumn.string("last_name"),
+        CsvColumn.string("email"),
+        CsvColumn.string("employee_number"),
+        CsvColumn.string("phone_number"),
+        CsvColumn.instant("hire_date"),
+        CsvColumn.enumeration("language", Language.class)
+    );
+
+    private final Class<?> entityClass;
+
+    private final String table;
+
+    private final List<CsvColumn> columns;
+
+    private final List<Integer> uniqueColumns;
+
+    CsvImportTarget(Class<?> entityClass, String table, List<String> uniqueColumns, CsvColumn... columns) {
+        this.entityClass = entityClass;
+        this.table = table;
+        this.columns = Stream.concat(Stream.of(CsvColumn.ID), Arrays.stream(columns)).toList();
+        this.uniqueColumns = uniqueColumns.stream().map(this::indexOf).toList();
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the columns of the table, starting with the {@code id} column.
+     */
+    public List<CsvColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the indexes of the columns with a unique constraint, the natural keys of the table.
+     */
+    public List<Integer> getUniqueColumns() {
+        return uniqueColumns;
+    }
+
+    public String getInsertSql() {
+        return (
+            "insert into " +
+            table +
+            " (" +
+            columns.stream().map(CsvColumn::name).collect(Collectors.joining(", ")) +
+            ") values (" +
+            columns.stream().map(column -> "?").collect(Collectors.joining(", ")) +
+            ")"
+        );
+    }
+
+    /**
+     * Map the fields of a CSV header to the columns of the table.
+     *
+     * @param header the fields of the CSV header.
+     * @return for each column, the index of its CSV field, or {@code -1} if the file does not have it.
+     * @throws CsvImportException if the header has unknown or duplicate fields.
+     */
+    int[] mapHeader(List<String> header) {
+        int[] fields = new int[columns.size()];
+        Arrays.fill(fields, -1);
+        List<String> unknown = new ArrayList<>();
+        for (int field = 0; field < header.size(); field++) {
+            String name = header.get(field).trim().toLowerCase(Locale.ROOT);
+            int column = indexOf(name);
+            if (column < 0) {
+                unknown.add(name);
+            } else if (fields[column] >= 0) {
+                throw new CsvImportException("Duplicate field in the CSV header: " + name);
+            } else if (column > 0) {
+                fields[column] = field;
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new CsvImportException("Unknown fields in the CSV header: " + String.join(", ", unknown));
+        }
+        if (Arrays.stream(fields).allMatch(field -> field < 0)) {
+            throw new CsvImportException("The CSV header has no " + table + " field");
+        }
+        return fields;
+    }
+
+    private int indexOf(String name) {
+        for (int column = 0; column < columns.size(); column++) {
+            if (columns.get(column).name().equals(name)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+}
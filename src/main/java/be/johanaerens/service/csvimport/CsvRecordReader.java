@@ -0,0 +1,114 @@
+package be.johanaerens.service.csvimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the {@code ;} separated records of a CSV file, a quoted value possibly spanning several lines.
+ * <p>
+ * Reading only finds the record boundaries, splitting a record into fields is left to {@link #split(String)}
+ * so that it can run on another thread.
+ */
+class CsvRecordReader {
+
+    static final char SEPARATOR = ';';
+
+    private static final char QUOTE = '"';
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+
+    private long lineNumber;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * A record of the file.
+     *
+     * @param line the number of the line the record starts on, starting at 1.
+     * @param text the text of the record.
+     */
+    record CsvRecord(long line, String text) {}
+
+    /**
+     * @return the next non-blank record, or {@code null} at the end of the file.
+     * @throws IOException if the file could not be read.
+     */
+    CsvRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            if (lineNumber++ == 0 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+                line = line.substring(1);
+            }
+        } while (line.isBlank());
+        long start = lineNumber;
+        if (isQuoteOpen(line, false)) {
+            StringBuilder text = new StringBuilder(line);
+            boolean open = true;
+            while (open && (line = reader.readLine()) != null) {
+                lineNumber++;
+                text.append('\n').append(line);
+                open = isQuoteOpen(line, true);
+            }
+            return new CsvRecord(start, text.toString());
+        }
+        return new CsvRecord(start, line);
+    }
+
+    private static boolean isQuoteOpen(String line, boolean open) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == QUOTE) {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Split a record into its fields, unquoting the quoted ones.
+     *
+     * @param text the text of the record.
+     * @return the fields.
+     * @throws IllegalArgumentException if a quoted field is not closed.
+     */
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,41 @@
+package be.johanaerens.service.csvimport;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink writing rows with a single JDBC batch of inserts, for any database.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class JdbcBatchCsvImportSink implements CsvImportSink {
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) {
+        return true;
+    }
+
+    @Override
+    public void write(Connection connection, CsvImportTarget target, List<Object[]> rows) throws SQLException {
+        List<CsvColumn> columns = target.getColumns();
+        try (PreparedStatement statement = connection.prepareStatement(target.getInsertSql())) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        statement.setNull(i + 1, columns.get(i).sqlType());
+                    } else {
+                        statement.setObject(i + 1, row[i], columns.get(i).sqlType());
+                    }
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
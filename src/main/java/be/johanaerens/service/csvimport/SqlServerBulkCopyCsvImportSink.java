@@ -0,0 +1,109 @@
+package be.johanaerens.service.csvimport;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink writing rows with the SQL Server bulk copy API, which streams them to the server as a single
+ * bulk insert instead of one insert per row.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnClass(name = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy")
+public class SqlServerBulkCopyCsvImportSink implements CsvImportSink {
+
+    private static final String PRODUCT_NAME = "Microsoft SQL Server";
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) throws SQLException {
+        return PRODUCT_NAME.equals(metaData.getDatabaseProductName());
+    }
+
+    @Override
+    public void write(Connection connection, CsvImportTarget target, List<Object[]> rows) throws SQLException {
+        SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+        options.setBatchSize(rows.size());
+        options.setBulkCopyTimeout(0);
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class))) {
+            bulkCopy.setDestinationTableName(target.getTable());
+            bulkCopy.setBulkCopyOptions(options);
+            List<CsvColumn> columns = target.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                bulkCopy.addColumnMapping(i + 1, columns.get(i).name());
+            }
+            bulkCopy.writeToServer(new RowsBulkData(columns, rows));
+        }
+    }
+
+    /**
+     * Rows as the source of a bulk copy, columns being numbered from 1.
+     */
+    private static final class RowsBulkData implements ISQLServerBulkData {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<CsvColumn> columns;
+
+        private final transient Iterator<Object[]> rows;
+
+        private transient Object[] row;
+
+        RowsBulkData(List<CsvColumn> columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return IntStream.rangeClosed(1, columns.size()).boxed().collect(Collectors.toSet());
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns.get(column - 1).name();
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columns.get(column - 1).sqlType();
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return columns.get(column - 1).precision();
+        }
+
+        @Override
+        public int getScale(int column) {
+            return columns.get(column - 1).scale();
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return row;
+        }
+
+        @Override
+        public boolean next() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            row = rows.next();
+            return true;
+        }
+    }
+}
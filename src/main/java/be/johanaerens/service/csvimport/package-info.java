@@ -0,0 +1,4 @@
+/**
+ * Parallel CSV import pipeline.
+ */
+package be.johanaerens.service.csvimport;
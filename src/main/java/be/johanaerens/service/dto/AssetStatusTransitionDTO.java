@@ -0,0 +1,70 @@
+package be.johanaerens.service.dto;
+
+import be.johanaerens.domain.enumeration.Status;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * A DTO representing a status transition of several assets.
+ * <p>
+ * The assets are either given by their {@code ids}, or selected by their current {@code fromStatus} and,
+ * optionally, their {@code employeeId}. With {@code ids}, a {@code fromStatus} only transitions the assets
+ * currently in that status.
+ */
+public class AssetStatusTransitionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Set<Long> ids;
+
+    private Status fromStatus;
+
+    private Long employeeId;
+
+    @NotNull
+    private Status status;
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Set<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Status fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AssetStatusTransitionDTO{" +
+            "ids=" + ids +
+            ", fromStatus=" + fromStatus +
+            ", employeeId=" + employeeId +
+            ", status=" + status +
+            "}";
+    }
+}
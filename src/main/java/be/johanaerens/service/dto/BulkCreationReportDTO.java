@@ -0,0 +1,79 @@
+package be.johanaerens.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO reporting the outcome of a bulk creation: the number of created and rejected items,
+ * and why the first {@link #MAX_REPORTED_ERRORS} items were rejected.
+ */
+public class BulkCreationReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long created;
+
+    private long rejected;
+
+    private List<ItemError> errors = new ArrayList<>();
+
+    public BulkCreationReportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public void addCreated() {
+        created++;
+    }
+
+    public void addError(long index, String errorKey, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ItemError(index, errorKey, message));
+        }
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemError> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkCreationReportDTO{" +
+            "created=" + created +
+            ", rejected=" + rejected +
+            "}";
+    }
+
+    /**
+     * The reason an item was rejected.
+     *
+     * @param index the index of the item in the request, starting at 0.
+     * @param errorKey the error key.
+     * @param message the error message.
+     */
+    public record ItemError(long index, String errorKey, String message) implements Serializable {}
+}
@@ -0,0 +1,124 @@
+package be.johanaerens.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A DTO reporting the outcome of a CSV import: the number of read, imported and rejected records,
+ * why the first {@link #MAX_REPORTED_ERRORS} records were rejected, and the throughput of the import.
+ */
+public class CsvImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long read;
+
+    private long imported;
+
+    private long rejected;
+
+    private long durationMillis;
+
+    private List<LineError> errors = new ArrayList<>();
+
+    public CsvImportReportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Add the outcome of a chunk of records.
+     *
+     * @param read the number of records of the chunk.
+     * @param imported the number of imported records.
+     * @param chunkErrors the rejected records.
+     */
+    public void addChunk(long read, long imported, List<LineError> chunkErrors) {
+        this.read += read;
+        this.imported += imported;
+        this.rejected += chunkErrors.size();
+        for (LineError error : chunkErrors) {
+            if (errors.size() == MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Complete the report once all the chunks were added.
+     *
+     * @param durationMillis the duration of the import, in milliseconds.
+     */
+    public void complete(long durationMillis) {
+        this.durationMillis = durationMillis;
+        errors.sort(Comparator.comparingLong(LineError::line));
+    }
+
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRecordsPerSecond() {
+        return durationMillis > 0 ? read * 1000 / durationMillis : read;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CsvImportReportDTO{" +
+            "read=" + read +
+            ", imported=" + imported +
+            ", rejected=" + rejected +
+            ", durationMillis=" + durationMillis +
+            "}";
+    }
+
+    /**
+     * The reason a record was rejected.
+     *
+     * @param line the number of the line the record starts on, starting at 1.
+     * @param errorKey the error key.
+     * @param message the error message.
+     */
+    public record LineError(long line, String errorKey, String message) implements Serializable {}
+}
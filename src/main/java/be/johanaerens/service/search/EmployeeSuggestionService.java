@@ -0,0 +1,287 @@
+package be.johanaerens.service.search;
+
+import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.repository.EmployeeSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service suggesting employees from the first characters of their name, email or employee number, for the employee pickers.
+ * <p>
+ * The suggestions come from a {@link PrefixIndex} of the employee summaries, so that a keystroke does not query the
+ * database. The index is loaded when the application is ready, then kept up to date from the Hibernate post-commit events
+ * like the {@link EntitySearchService} indexes. Writes bypassing Hibernate, like the CSV imports, must reload it with
+ * {@link #rebuildInBackground()}.
+ * <p>
+ * Like the search indexes, the index of each instance is eventually consistent with the other instances: the changes
+ * committed through an instance, and its reloads, reach the others through the {@link SearchIndexSynchronizer}.
+ */
+@Service
+public class EmployeeSuggestionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSuggestionService.class);
+
+    private static final String INDEX_NAME = "suggestion.Employee";
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    public static final int MAX_LIMIT = 50;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final SearchIndexSynchronizer searchIndexSynchronizer;
+
+    private volatile PrefixIndex<EmployeeSummary> index = newIndex();
+
+    private volatile boolean ready;
+
+    private List<Consumer<PrefixIndex<EmployeeSummary>>> pendingChanges;
+
+    public EmployeeSuggestionService(
+        EntityManagerFactory entityManagerFactory,
+        EmployeeRepository employeeRepository,
+        SearchIndexSynchronizer searchIndexSynchronizer
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.employeeRepository = employeeRepository;
+        this.searchIndexSynchronizer = searchIndexSynchronizer;
+    }
+
+    @PostConstruct
+    public void registerEventListeners() {
+        SuggestionListener listener = new SuggestionListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        searchIndexSynchronizer.register(
+            INDEX_NAME,
+            new SearchIndexSynchronizer.IndexListener() {
+                @Override
+                public void put(long id, Serializable document) {
+                    EmployeeSuggestionService.this.put((EmployeeSummary) document);
+                }
+
+                @Override
+                public void remove(long id) {
+                    EmployeeSuggestionService.this.remove(id);
+                }
+
+                @Override
+                public void rebuild() {
+                    EmployeeSuggestionService.this.rebuild();
+                }
+            }
+        );
+    }
+
+    /**
+     * Build the index once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.error("Could not build the employee suggestion index", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the database in the background, on all the instances.
+     */
+    @Async
+    public void rebuildInBackground() {
+        searchIndexSynchronizer.publishRebuild(INDEX_NAME);
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the database, unless it is already being rebuilt.
+     */
+    public void rebuild() {
+        if (!startRebuild()) {
+            LOG.debug("The employee suggestion index is already being built");
+            return;
+        }
+        long start = System.nanoTime();
+        PrefixIndex<EmployeeSummary> rebuilt = newIndex();
+        try {
+            Map<Long, EmployeeSummary> summaries = new LinkedHashMap<>();
+            employeeRepository.findAllSummaries().forEach(summary -> summaries.put(summary.id(), summary));
+            rebuilt.putAll(summaries);
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+        completeRebuild(rebuilt);
+        LOG.info(
+            "Built the employee suggestion index: {} employees in {} ms",
+            rebuilt.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * @return whether the index has been built.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Suggest the employees whose first name, last name, email or employee number starts with a prefix.
+     * <p>
+     * Both {@code "john d"} and {@code "doe j"} match John Doe.
+     *
+     * @param prefix the first characters typed by the user.
+     * @param limit the maximum number of employees to return.
+     * @return the summaries of the matching employees.
+     */
+    public List<EmployeeSummary> suggest(String prefix, int limit) {
+        LOG.debug("Request to suggest Employees for prefix {}", prefix);
+        return index.suggest(prefix, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static PrefixIndex<EmployeeSummary> newIndex() {
+        return new PrefixIndex<>(summary ->
+            Stream.of(
+                name(summary.firstName(), summary.lastName()),
+                name(summary.lastName(), summary.firstName()),
+                summary.email(),
+                summary.employeeNumber()
+            )
+        );
+    }
+
+    private static String name(String first, String second) {
+        return Stream.of(first, second).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+
+    private synchronized void put(EmployeeSummary summary) {
+        index.put(summary.id(), summary);
+        if (pendingChanges != null) {
+            pendingChanges.add(rebuilt -> rebuilt.put(summary.id(), summary));
+        }
+    }
+
+    private synchronized void remove(long id) {
+        index.remove(id);
+        if (pendingChanges != null) {
+            pendingChanges.add(rebuilt -> rebuilt.remove(id));
+        }
+    }
+
+    private synchronized boolean startRebuild() {
+        if (pendingChanges != null) {
+            return false;
+        }
+        pendingChanges = new ArrayList<>();
+        return true;
+    }
+
+    private synchronized void completeRebuild(PrefixIndex<EmployeeSummary> rebuilt) {
+        pendingChanges.forEach(change -> change.accept(rebuilt));
+        pendingChanges = null;
+        index = rebuilt;
+        ready = true;
+    }
+
+    private synchronized void abortRebuild() {
+        pendingChanges = null;
+    }
+
+    /**
+     * Applies the committed changes of the employees to the index.
+     */
+    private final class SuggestionListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Employee employee) {
+                putAndPublish(summary((Long) event.getId(), employee));
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Employee employee) {
+                putAndPublish(summary((Long) event.getId(), employee));
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Employee) {
+                remove((Long) event.getId());
+                searchIndexSynchronizer.publishRemove(INDEX_NAME, (Long) event.getId());
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return Employee.class.equals(persister.getMappedClass());
+        }
+
+        private void putAndPublish(EmployeeSummary summary) {
+            put(summary);
+            searchIndexSynchronizer.publishPut(INDEX_NAME, summary.id(), summary);
+        }
+
+        private EmployeeSummary summary(Long id, Employee employee) {
+            return new EmployeeSummary(
+                id,
+                employee.getEmployeeNumber(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getEmail()
+            );
+        }
+    }
+}
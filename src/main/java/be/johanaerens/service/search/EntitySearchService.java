@@ -0,0 +1,374 @@
+package be.johanaerens.service.search;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.service.cache.PrefetchingEntityLoader;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the assets and the employees through in-process {@link SearchIndex}es, without querying the database
+ * with {@code LIKE '%term%'} predicates it could only serve with a full scan.
+ * <p>
+ * The indexes are built from the database in the background when the application is ready, reading only the indexed
+ * columns, then kept up to date from the Hibernate post-commit events. Changes committed during a build are replayed on
+ * the new index before it replaces the previous one. Writes bypassing Hibernate, like the CSV imports, must rebuild the
+ * index of their table with {@link #rebuildInBackground(Class)}.
+ * <p>
+ * Each instance has its own indexes: the changes committed through an instance, and its rebuilds, are broadcast to the
+ * other instances by the {@link SearchIndexSynchronizer}. The indexes are eventually consistent: a change committed
+ * through another instance is found once its message is received, usually a few milliseconds after the commit.
+ */
+@Service
+public class EntitySearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntitySearchService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    public static final int MAX_LIMIT = 100;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PrefetchingEntityLoader prefetchingEntityLoader;
+
+    private final SearchIndexSynchronizer searchIndexSynchronizer;
+
+    private final Map<Class<?>, IndexedEntity> indexedEntities = Map.of(
+        Asset.class,
+        new IndexedEntity(
+            "select asset.id, asset.number, asset.brand, asset.model, asset.serialNumber, asset.comments" +
+            " from Asset asset order by asset.id",
+            entity -> {
+                Asset asset = (Asset) entity;
+                return text(asset.getNumber(), asset.getBrand(), asset.getModel(), asset.getSerialNumber(), asset.getComments());
+            }
+        ),
+        Employee.class,
+        new IndexedEntity(
+            "select employee.id, employee.firstName, employee.lastName, employee.email, employee.employeeNumber" +
+            " from Employee employee order by employee.id",
+            entity -> {
+                Employee employee = (Employee) entity;
+                return text(employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getEmployeeNumber());
+            }
+        )
+    );
+
+    public EntitySearchService(
+        EntityManagerFactory entityManagerFactory,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        PrefetchingEntityLoader prefetchingEntityLoader,
+        SearchIndexSynchronizer searchIndexSynchronizer
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.prefetchingEntityLoader = prefetchingEntityLoader;
+        this.searchIndexSynchronizer = searchIndexSynchronizer;
+    }
+
+    @PostConstruct
+    public void registerEventListeners() {
+        IndexingListener listener = new IndexingListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        indexedEntities.forEach((entityClass, indexed) ->
+            searchIndexSynchronizer.register(
+                indexName(entityClass),
+                new SearchIndexSynchronizer.IndexListener() {
+                    @Override
+                    public void put(long id, Serializable document) {
+                        indexed.put(id, (String) document);
+                    }
+
+                    @Override
+                    public void remove(long id) {
+                        indexed.remove(id);
+                    }
+
+                    @Override
+                    public void rebuild() {
+                        EntitySearchService.this.rebuild(entityClass);
+                    }
+                }
+            )
+        );
+    }
+
+    /**
+     * Build all the indexes once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        for (Class<?> entityClass : indexedEntities.keySet()) {
+            try {
+                rebuild(entityClass);
+            } catch (RuntimeException e) {
+                LOG.error("Could not build the search index of {}", entityClass.getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the index of an entity from the database in the background, on all the instances.
+     *
+     * @param entityClass the class of the entity.
+     */
+    @Async
+    public void rebuildInBackground(Class<?> entityClass) {
+        searchIndexSynchronizer.publishRebuild(indexName(entityClass));
+        rebuild(entityClass);
+    }
+
+    /**
+     * Rebuild the index of an entity from the database, unless it is already being rebuilt.
+     *
+     * @param entityClass the class of the entity.
+     */
+    public void rebuild(Class<?> entityClass) {
+        IndexedEntity indexed = indexed(entityClass);
+        if (!indexed.startRebuild()) {
+            LOG.debug("The search index of {} is already being built", entityClass.getSimpleName());
+            return;
+        }
+        long start = System.nanoTime();
+        SearchIndex rebuilt = new SearchIndex();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (
+                    Stream<Object[]> rows = entityManager
+                        .createQuery(indexed.rebuildQuery, Object[].class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                        .getResultStream()
+                ) {
+                    rows.forEach(row -> rebuilt.put((Long) row[0], text(Arrays.copyOfRange(row, 1, row.length))));
+                }
+            });
+        } catch (RuntimeException e) {
+            indexed.abortRebuild();
+            throw e;
+        }
+        indexed.completeRebuild(rebuilt);
+        LOG.info(
+            "Built the search index of {}: {} documents in {} ms",
+            entityClass.getSimpleName(),
+            rebuilt.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * @param entityClass the class of the entity.
+     * @return whether the index of the entity has been built.
+     */
+    public boolean isReady(Class<?> entityClass) {
+        return indexed(entityClass).ready;
+    }
+
+    /**
+     * Search the assets by number, brand, model, serial number and comments.
+     *
+     * @param query the terms the assets must all contain.
+     * @param limit the maximum number of assets to return.
+     * @return the matching assets, by ascending id.
+     */
+    @Transactional(readOnly = true)
+    public List<Asset> searchAssets(String query, int limit) {
+        LOG.debug("Request to search Assets for query {}", query);
+        return load(Asset.class, query, limit);
+    }
+
+    /**
+     * Search the employees by first name, last name, email and employee number.
+     *
+     * @param query the terms the employees must all contain.
+     * @param limit the maximum number of employees to return.
+     * @return the matching employees, by ascending id.
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> searchEmployees(String query, int limit) {
+        LOG.debug("Request to search Employees for query {}", query);
+        return load(Employee.class, query, limit);
+    }
+
+    private <T> List<T> load(Class<T> entityClass, String query, int limit) {
+        List<Long> ids = indexed(entityClass).index.search(query, Math.min(limit, MAX_LIMIT));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Loaded in the order of the ids, from the second-level cache when possible
+        return prefetchingEntityLoader.loadAll(entityClass, ids);
+    }
+
+    private IndexedEntity indexed(Class<?> entityClass) {
+        IndexedEntity indexed = indexedEntities.get(entityClass);
+        if (indexed == null) {
+            throw new IllegalArgumentException("No search index for " + entityClass.getName());
+        }
+        return indexed;
+    }
+
+    private static String indexName(Class<?> entityClass) {
+        return "search." + entityClass.getSimpleName();
+    }
+
+    private static String text(Object... values) {
+        return Arrays.stream(values).filter(Objects::nonNull).map(Object::toString).collect(Collectors.joining(" "));
+    }
+
+    /**
+     * The index of an entity, and the changes to replay on the index being built, if any.
+     */
+    private static final class IndexedEntity {
+
+        private final String rebuildQuery;
+
+        private final Function<Object, String> text;
+
+        private volatile SearchIndex index = new SearchIndex();
+
+        private volatile boolean ready;
+
+        private List<Consumer<SearchIndex>> pendingChanges;
+
+        IndexedEntity(String rebuildQuery, Function<Object, String> text) {
+            this.rebuildQuery = rebuildQuery;
+            this.text = text;
+        }
+
+        String document(Object entity) {
+            return text.apply(entity);
+        }
+
+        synchronized void put(long id, String document) {
+            index.put(id, document);
+            if (pendingChanges != null) {
+                pendingChanges.add(rebuilt -> rebuilt.put(id, document));
+            }
+        }
+
+        synchronized void remove(long id) {
+            index.remove(id);
+            if (pendingChanges != null) {
+                pendingChanges.add(rebuilt -> rebuilt.remove(id));
+            }
+        }
+
+        synchronized boolean startRebuild() {
+            if (pendingChanges != null) {
+                return false;
+            }
+            pendingChanges = new ArrayList<>();
+            return true;
+        }
+
+        synchronized void completeRebuild(SearchIndex rebuilt) {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+            ready = true;
+        }
+
+        synchronized void abortRebuild() {
+            pendingChanges = null;
+        }
+    }
+
+    /**
+     * Applies the committed changes of the indexed entities to their index.
+     */
+    private final class IndexingListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            put(event.getPersister().getMappedClass(), (Long) event.getId(), event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            put(event.getPersister().getMappedClass(), (Long) event.getId(), event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            Class<?> entityClass = event.getPersister().getMappedClass();
+            IndexedEntity indexed = indexedEntities.get(entityClass);
+            if (indexed != null) {
+                indexed.remove((Long) event.getId());
+                searchIndexSynchronizer.publishRemove(indexName(entityClass), (Long) event.getId());
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing was committed, nothing to index
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return indexedEntities.containsKey(persister.getMappedClass());
+        }
+
+        private void put(Class<?> entityClass, long id, Object entity) {
+            IndexedEntity indexed = indexedEntities.get(entityClass);
+            if (indexed != null) {
+                String document = indexed.document(entity);
+                indexed.put(id, document);
+                searchIndexSynchronizer.publishPut(indexName(entityClass), id, document);
+            }
+        }
+    }
+}
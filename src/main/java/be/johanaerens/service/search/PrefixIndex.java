@@ -0,0 +1,190 @@
+package be.johanaerens.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index returning the values having a key starting with a prefix, for typeaheads.
+ * <p>
+ * Every word of the normalized keys of a value starts an index entry, so that {@code "doe"} and {@code "john d"} both match
+ * {@code "John Doe"}. The entries are held in two parallel arrays sorted by key then id, the keys being interned since most
+ * of them are shared by many values: a lookup is a binary search followed by a scan of the matching entries, without any
+ * allocation besides the result.
+ * <p>
+ * Lookups read an immutable snapshot without locking. Changes copy the snapshot, which is cheap for the few thousand values
+ * of a typeahead but makes this index unsuited to frequently changing large sets: load those with {@link #putAll(Map)}.
+ *
+ * @param <T> the type of the values.
+ */
+public final class PrefixIndex<T> {
+
+    private final Function<T, Stream<String>> keys;
+
+    private volatile Snapshot<T> snapshot = new Snapshot<>(new String[0], new long[0], Map.of());
+
+    /**
+     * @param keys the keys of a value, normalized before being indexed.
+     */
+    public PrefixIndex(Function<T, Stream<String>> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Index a value, replacing the previous value of the same id.
+     *
+     * @param id the id of the value.
+     * @param value the value.
+     */
+    public void put(long id, T value) {
+        putAll(Map.of(id, value));
+    }
+
+    /**
+     * Index values, replacing the previous values of the same ids, with a single copy of the index.
+     *
+     * @param values the values by id.
+     */
+    public synchronized void putAll(Map<Long, T> values) {
+        Snapshot<T> current = snapshot;
+        List<Entry> added = new ArrayList<>();
+        values.forEach((id, value) -> entries(value).forEach(key -> added.add(new Entry(key, id))));
+        added.sort(null);
+        Map<Long, T> newValues = new HashMap<>(current.values);
+        newValues.putAll(values);
+        snapshot = current.merge(added, values.keySet(), newValues);
+    }
+
+    /**
+     * Remove a value from the index.
+     *
+     * @param id the id of the value.
+     */
+    public synchronized void remove(long id) {
+        Snapshot<T> current = snapshot;
+        if (!current.values.containsKey(id)) {
+            return;
+        }
+        Map<Long, T> newValues = new HashMap<>(current.values);
+        newValues.remove(id);
+        snapshot = current.merge(List.of(), Set.of(id), newValues);
+    }
+
+    /**
+     * Find the values having a key starting with a prefix, in the order of their first matching key.
+     *
+     * @param prefix the prefix of the keys, matched after normalization.
+     * @param limit the maximum number of values to return.
+     * @return the matching values.
+     */
+    public List<T> suggest(String prefix, int limit) {
+        String normalized = SearchIndex.normalize(prefix);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Snapshot<T> current = snapshot;
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = current.lowerBound(normalized); i < current.keys.length && ids.size() < limit; i++) {
+            if (!current.keys[i].startsWith(normalized)) {
+                break;
+            }
+            ids.add(current.ids[i]);
+        }
+        return ids.stream().map(current.values::get).toList();
+    }
+
+    /**
+     * @return the number of indexed values.
+     */
+    public int size() {
+        return snapshot.values.size();
+    }
+
+    private Set<String> entries(T value) {
+        Set<String> entries = new TreeSet<>();
+        keys
+            .apply(value)
+            .filter(Objects::nonNull)
+            .map(SearchIndex::normalize)
+            .filter(key -> !key.isEmpty())
+            .forEach(key -> {
+                for (int start = 0; start >= 0; start = nextWord(key, start)) {
+                    entries.add(key.substring(start).intern());
+                }
+            });
+        return entries;
+    }
+
+    private static int nextWord(String key, int start) {
+        int space = key.indexOf(' ', start);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private record Entry(String key, long id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * The entries sorted by key then id, and the values by id.
+     */
+    private record Snapshot<T>(String[] keys, long[] ids, Map<Long, T> values) {
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return a copy without the entries of the replaced ids, merged with the sorted added entries.
+         */
+        Snapshot<T> merge(List<Entry> added, Set<Long> replaced, Map<Long, T> newValues) {
+            int length = keys.length + added.size();
+            String[] mergedKeys = new String[length];
+            long[] mergedIds = new long[length];
+            int merged = 0;
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (replaced.contains(ids[i])) {
+                    continue;
+                }
+                for (; next < added.size() && compare(added.get(next), keys[i], ids[i]) < 0; next++, merged++) {
+                    mergedKeys[merged] = added.get(next).key();
+                    mergedIds[merged] = added.get(next).id();
+                }
+                mergedKeys[merged] = keys[i];
+                mergedIds[merged] = ids[i];
+                merged++;
+            }
+            for (; next < added.size(); next++, merged++) {
+                mergedKeys[merged] = added.get(next).key();
+                mergedIds[merged] = added.get(next).id();
+            }
+            return new Snapshot<>(Arrays.copyOf(mergedKeys, merged), Arrays.copyOf(mergedIds, merged), newValues);
+        }
+
+        private static int compare(Entry entry, String key, long id) {
+            int byKey = entry.key().compareTo(key);
+            return byKey != 0 ? byKey : Long.compare(entry.id(), id);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package be.johanaerens.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index of the trigrams of documents, finding the documents containing all the terms of a query.
+ * <p>
+ * Texts are normalized to lower case words without accents, then each word is indexed by its trigrams and its one and two
+ * letter prefixes. A term of three letters or more matches the documents containing it anywhere in a word: the posting
+ * lists of its trigrams are intersected, and the candidates are checked against the text. A shorter term matches the
+ * documents with a word starting with it.
+ * <p>
+ * Posting lists are sorted arrays of ids, so that they cost 8 bytes per entry and are intersected with binary searches,
+ * starting from the shortest list. The index is safe for concurrent use: searches share a read lock while updates take
+ * the write lock.
+ */
+public class SearchIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final char WORD_START = ' ';
+
+    private final Map<Long, String> documents = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index a document, replacing its previous text if any.
+     *
+     * @param id the id of the document.
+     * @param text the text of the document.
+     */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, normalized);
+            if (normalized.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                for (String key : keys(previous)) {
+                    removePosting(key, id);
+                }
+            }
+            for (String key : keys(normalized)) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document from the index.
+     *
+     * @param id the id of the document.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+            if (previous != null) {
+                for (String key : keys(previous)) {
+                    removePosting(key, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the documents containing all the terms of a query.
+     *
+     * @param query the query, its terms being separated by spaces or punctuation.
+     * @param limit the maximum number of ids to return.
+     * @return the ids of the matching documents, in ascending order, or none if the query has no term.
+     */
+    public List<Long> search(String query, int limit) {
+        String[] terms = normalize(query).split(" ");
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> checkedTerms = new ArrayList<>();
+        for (String term : terms) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (term.length() < GRAM_LENGTH) {
+                keys.add(WORD_START + term);
+            } else {
+                keys.addAll(grams(term));
+                checkedTerms.add(term);
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        if (keys.isEmpty() || limit < 1) {
+            return ids;
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[keys.size()];
+            int i = 0;
+            for (String key : keys) {
+                Postings list = postings.get(key);
+                if (list == null) {
+                    return ids;
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists[0];
+            for (int p = 0; p < shortest.size && ids.size() < limit; p++) {
+                long id = shortest.ids[p];
+                if (containedInAll(lists, id) && containsAll(documents.get(id), checkedTerms)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalize a text to lower case words without accents, separated by single spaces.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the normalized text.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separated = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separated && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                separated = false;
+                normalized.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                separated = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static Set<String> keys(String normalized) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        for (String word : normalized.split(" ")) {
+            keys.add(WORD_START + word.substring(0, 1));
+            if (word.length() > 1) {
+                keys.add(WORD_START + word.substring(0, 2));
+            }
+            keys.addAll(grams(word));
+        }
+        return keys;
+    }
+
+    private static List<String> grams(String word) {
+        List<String> grams = new ArrayList<>(Math.max(0, word.length() - GRAM_LENGTH + 1));
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean containedInAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (lists[i].indexOf(id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAll(String document, List<String> terms) {
+        for (String term : terms) {
+            if (!document.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removePosting(String key, long id) {
+        Postings list = postings.get(key);
+        if (list != null && list.remove(id) && list.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Sorted array of ids, growing as needed.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void add(long id) {
+            // Documents are mostly indexed in ascending id order
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = indexOf(id);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        private void insert(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package be.johanaerens.service.search;
+
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service keeping the in-process search indexes of all the instances in sync, through the {@value #CHANGE_TOPIC} Redis
+ * topic.
+ * <p>
+ * An instance applies the changes committed through it to its own indexes, then broadcasts them with their documents, and
+ * the other instances apply them to theirs: the indexes are eventually consistent, a change being searchable on the other
+ * instances once its message is received, usually a few milliseconds after the commit. A full rebuild, after writes
+ * bypassing Hibernate, is broadcast as well.
+ * <p>
+ * The messages published while an instance is not subscribed are lost, so the instance rebuilds its indexes when it
+ * subscribes again. While Redis is unavailable, the instances only see their own changes: the instances that could not
+ * publish theirs ask all the instances to rebuild their indexes when Redis is back, see {@link CacheCircuitBreaker}.
+ */
+@Service
+public class SearchIndexSynchronizer {
+
+    public static final String CHANGE_TOPIC = "search-index-changes";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexSynchronizer.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final CacheCircuitBreaker circuitBreaker;
+
+    private final Executor executor;
+
+    private final RTopic topic;
+
+    private final Map<String, IndexListener> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean subscribing = new AtomicBoolean();
+
+    private final AtomicBoolean missedChanges = new AtomicBoolean();
+
+    private volatile boolean subscribed;
+
+    private volatile boolean subscribedBefore;
+
+    public SearchIndexSynchronizer(
+        RedissonClient redissonClient,
+        CacheCircuitBreaker circuitBreaker,
+        @Qualifier("taskExecutor") Executor executor
+    ) {
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.topic = redissonClient.getTopic(CHANGE_TOPIC);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        circuitBreaker.onRecovery(() -> {
+            if (missedChanges.get()) {
+                // The other instances did not receive the changes committed through this one while Redis was unavailable
+                listeners.keySet().forEach(index -> topic.publish(new IndexChange(null, index, ChangeType.REBUILD, null, null)));
+                missedChanges.set(false);
+            }
+            if (!subscribed) {
+                subscribeAsync();
+            }
+        });
+        subscribeAsync();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        topic.removeAllListeners();
+    }
+
+    /**
+     * Register the index receiving the changes broadcast by the other instances.
+     *
+     * @param index the name of the index.
+     * @param listener the listener applying the changes to the index.
+     */
+    public void register(String index, IndexListener listener) {
+        listeners.put(index, listener);
+    }
+
+    /**
+     * Broadcast a document added to an index, or changed.
+     *
+     * @param index the name of the index.
+     * @param id the id of the document.
+     * @param document the document.
+     */
+    public void publishPut(String index, long id, Serializable document) {
+        publish(new IndexChange(instanceId, index, ChangeType.PUT, id, document));
+    }
+
+    /**
+     * Broadcast a document removed from an index.
+     *
+     * @param index the name of the index.
+     * @param id the id of the document.
+     */
+    public void publishRemove(String index, long id) {
+        publish(new IndexChange(instanceId, index, ChangeType.REMOVE, id, null));
+    }
+
+    /**
+     * Ask the other instances to rebuild an index from the database.
+     *
+     * @param index the name of the index.
+     */
+    public void publishRebuild(String index) {
+        publish(new IndexChange(instanceId, index, ChangeType.REBUILD, null, null));
+    }
+
+    private void publish(IndexChange change) {
+        if (!circuitBreaker.isRemote()) {
+            missedChanges.set(true);
+            return;
+        }
+        topic
+            .publishAsync(change)
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    missedChanges.set(true);
+                    LOG.warn("Could not publish a change of the {} search index: {}", change.index(), e.getMessage());
+                }
+            });
+    }
+
+    private void subscribeAsync() {
+        if (!subscribing.compareAndSet(false, true)) {
+            return;
+        }
+        topic
+            .addListenerAsync(IndexChange.class, (channel, change) -> receive(change))
+            .thenCompose(listenerId ->
+                topic.addListenerAsync(
+                    new BaseStatusListener() {
+                        @Override
+                        public void onSubscribe(String channel) {
+                            if (subscribedBefore) {
+                                // The changes published while the instance was not subscribed are lost
+                                listeners.values().forEach(listener -> executor.execute(listener::rebuild));
+                            }
+                            subscribedBefore = true;
+                        }
+                    }
+                )
+            )
+            .whenComplete((listenerId, e) -> {
+                subscribing.set(false);
+                if (e != null) {
+                    LOG.warn("Could not subscribe to the search index changes, will retry when Redis is back: {}", e.getMessage());
+                } else {
+                    subscribed = true;
+                }
+            });
+    }
+
+    void receive(IndexChange change) {
+        if (instanceId.equals(change.instanceId())) {
+            return;
+        }
+        IndexListener listener = listeners.get(change.index());
+        if (listener == null) {
+            return;
+        }
+        switch (change.type()) {
+            case PUT -> listener.put(change.id(), change.document());
+            case REMOVE -> listener.remove(change.id());
+            case REBUILD -> executor.execute(listener::rebuild);
+        }
+    }
+
+    /**
+     * Applies the changes broadcast by the other instances to an index.
+     */
+    public interface IndexListener {
+        void put(long id, Serializable document);
+
+        void remove(long id);
+
+        /**
+         * Rebuild the index from the database, run by the task executor.
+         */
+        void rebuild();
+    }
+
+    enum ChangeType {
+        PUT,
+        REMOVE,
+        REBUILD,
+    }
+
+    /**
+     * Message changing a document of an index, or asking to rebuild it; {@code instanceId} is {@code null} when the
+     * publishing instance must rebuild its index as well.
+     */
+    record IndexChange(String instanceId, String index, ChangeType type, Long id, Serializable document) implements Serializable {}
+}
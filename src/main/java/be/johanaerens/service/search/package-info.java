@@ -0,0 +1,4 @@
+/**
+ * In-process full-text and prefix search over the entities.
+ */
+package be.johanaerens.service.search;
@@ -1,8 +1,14 @@
 package be.johanaerens.web.rest;
 
+import be.johanaerens.domain.Asset;
 import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.Employee;
 import be.johanaerens.repository.AssetHistoryRepository;
+import be.johanaerens.repository.KeysetPosition;
+import be.johanaerens.service.TableGenerationService;
 import be.johanaerens.web.rest.errors.BadRequestAlertException;
+import be.johanaerens.web.rest.util.EntityVersionUtil;
+import be.johanaerens.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,9 +17,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -29,13 +37,18 @@ public class AssetHistoryResource {
 
     private static final String ENTITY_NAME = "assetHistory";
 
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of(KeysetPosition.ID_PROPERTY, "startDate");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final AssetHistoryRepository assetHistoryRepository;
 
-    public AssetHistoryResource(AssetHistoryRepository assetHistoryRepository) {
+    private final TableGenerationService tableGenerationService;
+
+    public AssetHistoryResource(AssetHistoryRepository assetHistoryRepository, TableGenerationService tableGenerationService) {
         this.assetHistoryRepository = assetHistoryRepository;
+        this.tableGenerationService = tableGenerationService;
     }
 
     /**
@@ -59,54 +72,79 @@ public class AssetHistoryResource {
 
     /**
      * {@code PUT  /asset-histories/:id} : Updates an existing assetHistory.
+     * <p>
+     * Only the changed columns are written, and only if the assetHistory was not modified since the client read it,
+     * according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the assetHistory to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param assetHistory the assetHistory to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated assetHistory,
      * or with status {@code 400 (Bad Request)} if the assetHistory is not valid,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the assetHistory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<AssetHistory> updateAssetHistory(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody AssetHistory assetHistory
     ) throws URISyntaxException {
         LOG.debug("REST request to update AssetHistory : {}, {}", id, assetHistory);
-        if (assetHistory.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, assetHistory.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!assetHistoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        AssetHistory existingAssetHistory = findExistingAssetHistory(id, ifMatch, assetHistory);
+        existingAssetHistory.setStartDate(assetHistory.getStartDate());
+        existingAssetHistory.setEndDate(assetHistory.getEndDate());
+        existingAssetHistory.setAsset(assetHistory.getAsset());
+        existingAssetHistory.setEmployee(assetHistory.getEmployee());
 
-        assetHistory = assetHistoryRepository.save(assetHistory);
+        existingAssetHistory = assetHistoryRepository.saveAndFlush(existingAssetHistory);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, assetHistory.getId().toString()))
-            .body(assetHistory);
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingAssetHistory.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingAssetHistory.getVersion()))
+            .body(existingAssetHistory);
     }
 
     /**
      * {@code PATCH  /asset-histories/:id} : Partial updates given fields of an existing assetHistory, field will ignore if it is null
+     * <p>
+     * Costs one select and one update of the changed columns, made only if the assetHistory was not modified since
+     * the client read it, according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the assetHistory to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param assetHistory the assetHistory to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated assetHistory,
-     * or with status {@code 400 (Bad Request)} if the assetHistory is not valid,
-     * or with status {@code 404 (Not Found)} if the assetHistory is not found,
+     * or with status {@code 400 (Bad Request)} if the assetHistory is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the assetHistory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<AssetHistory> partialUpdateAssetHistory(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody AssetHistory assetHistory
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update AssetHistory partially : {}, {}", id, assetHistory);
+        AssetHistory existingAssetHistory = findExistingAssetHistory(id, ifMatch, assetHistory);
+        if (assetHistory.getStartDate() != null) {
+            existingAssetHistory.setStartDate(assetHistory.getStartDate());
+        }
+        if (assetHistory.getEndDate() != null) {
+            existingAssetHistory.setEndDate(assetHistory.getEndDate());
+        }
+
+        existingAssetHistory = assetHistoryRepository.saveAndFlush(existingAssetHistory);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingAssetHistory.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingAssetHistory.getVersion()))
+            .body(existingAssetHistory);
+    }
+
+    private AssetHistory findExistingAssetHistory(Long id, String ifMatch, AssetHistory assetHistory) {
         if (assetHistory.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
@@ -114,52 +152,77 @@ public class AssetHistoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!assetHistoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<AssetHistory> result = assetHistoryRepository
-            .findById(assetHistory.getId())
-            .map(existingAssetHistory -> {
-                if (assetHistory.getStartDate() != null) {
-                    existingAssetHistory.setStartDate(assetHistory.getStartDate());
-                }
-                if (assetHistory.getEndDate() != null) {
-                    existingAssetHistory.setEndDate(assetHistory.getEndDate());
-                }
-
-                return existingAssetHistory;
-            })
-            .map(assetHistoryRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, assetHistory.getId().toString())
-        );
+        AssetHistory existingAssetHistory = assetHistoryRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityVersionUtil.checkVersion(ifMatch, assetHistory.getVersion(), existingAssetHistory.getVersion(), AssetHistory.class, id, ENTITY_NAME);
+        return existingAssetHistory;
     }
 
     /**
      * {@code GET  /asset-histories} : get all the assetHistories.
+     * <p>
+     * When a {@code size} or a {@code cursor} is given, a single page is returned, using keyset pagination.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of assetHistories in body.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the pages, {@code id} or {@code startDate}, ascending or descending.
+     * @param ifNoneMatch the entity tag of the list already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of assetHistories in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change since the given entity tag.
      */
     @GetMapping("")
-    public List<AssetHistory> getAllAssetHistories() {
+    public ResponseEntity<List<AssetHistory>> getAllAssetHistories(
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String eTag = EntityVersionUtil.eTag(tableGenerationService.getGeneration(AssetHistory.class, Asset.class, Employee.class));
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get all AssetHistories, not modified");
+            return EntityVersionUtil.notModified(eTag);
+        }
+        return EntityVersionUtil.withETag(findAllAssetHistories(cursor, size, sort), eTag);
+    }
+
+    private ResponseEntity<List<AssetHistory>> findAllAssetHistories(String cursor, Integer size, String sort) {
+        if (cursor != null || size != null) {
+            LOG.debug("REST request to get a page of AssetHistories");
+            KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            int pageSize = KeysetPaginationUtil.pageSize(size);
+            List<AssetHistory> rows = assetHistoryRepository.findAllAfter(position, pageSize + 1);
+            return KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize);
+        }
         LOG.debug("REST request to get all AssetHistories");
-        return assetHistoryRepository.findAll();
+        return ResponseEntity.ok(assetHistoryRepository.findAll());
     }
 
     /**
      * {@code GET  /asset-histories/:id} : get the "id" assetHistory.
      *
      * @param id the id of the assetHistory to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assetHistory, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the assetHistory already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assetHistory, or with status {@code 304 (Not Modified)}
+     * if its version did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AssetHistory> getAssetHistory(@PathVariable("id") Long id) {
+    public ResponseEntity<AssetHistory> getAssetHistory(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get AssetHistory : {}", id);
+        if (ifNoneMatch != null) {
+            // Only read the version, so that a revalidation does not load the assetHistory
+            Optional<String> eTag = assetHistoryRepository.findVersionById(id).map(EntityVersionUtil::eTag);
+            if (eTag.isPresent() && EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag.get())) {
+                return EntityVersionUtil.notModified(eTag.get());
+            }
+        }
         Optional<AssetHistory> assetHistory = assetHistoryRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(assetHistory);
+        return assetHistory
+            .map(found -> EntityVersionUtil.withETag(ResponseEntity.ok(found), EntityVersionUtil.eTag(found.getVersion())))
+            .orElseGet(() -> ResponseUtil.wrapOrNotFound(assetHistory));
     }
 
     /**
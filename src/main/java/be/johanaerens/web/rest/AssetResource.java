@@ -1,20 +1,58 @@
 package be.johanaerens.web.rest;
 
 import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.AssetHistory_;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.AssetHistorySpecifications;
 import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.repository.AssetSummary;
+import be.johanaerens.repository.KeysetPosition;
+import be.johanaerens.service.AssetBulkService;
+import be.johanaerens.service.AssetExportService;
+import be.johanaerens.service.AssetQueryService;
+import be.johanaerens.service.AssetStatusTransitionService;
+import be.johanaerens.service.NaturalKeyLookupService;
+import be.johanaerens.service.TableGenerationService;
+import be.johanaerens.service.cache.HotKeyTracker;
+import be.johanaerens.service.cache.PrefetchingEntityLoader;
+import be.johanaerens.service.criteria.AssetCriteria;
+import be.johanaerens.service.csvimport.CsvImportException;
+import be.johanaerens.service.csvimport.CsvImportService;
+import be.johanaerens.service.csvimport.CsvImportTarget;
+import be.johanaerens.service.dto.AssetStatusTransitionDTO;
+import be.johanaerens.service.dto.BulkCreationReportDTO;
+import be.johanaerens.service.dto.CsvImportReportDTO;
 import be.johanaerens.web.rest.errors.BadRequestAlertException;
+import be.johanaerens.web.rest.util.EntityVersionUtil;
+import be.johanaerens.web.rest.util.KeysetPaginationUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.service.filter.LongFilter;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -30,13 +68,77 @@ public class AssetResource {
 
     private static final String ENTITY_NAME = "asset";
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String SUMMARY_VIEW = "summary";
+
+    private static final String WITHOUT_ASSET_HISTORY_FILTER = "assethistory-is-null";
+
+    private static final int MAX_IDS = 500;
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of(KeysetPosition.ID_PROPERTY, "number", "serialNumber", "warantDate");
+
+    private static final List<String> SUMMARY_KEYSET_SORT_PROPERTIES = List.of(KeysetPosition.ID_PROPERTY, "number");
+
+    private static final List<String> SORT_PROPERTIES = List.of(
+        KeysetPosition.ID_PROPERTY,
+        "number",
+        "brand",
+        "model",
+        "serialNumber",
+        "purchaseDate",
+        "warantDate",
+        "comments",
+        "status"
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final AssetRepository assetRepository;
 
-    public AssetResource(AssetRepository assetRepository) {
+    private final AssetExportService assetExportService;
+
+    private final AssetBulkService assetBulkService;
+
+    private final CsvImportService csvImportService;
+
+    private final AssetStatusTransitionService assetStatusTransitionService;
+
+    private final AssetQueryService assetQueryService;
+
+    private final TableGenerationService tableGenerationService;
+
+    private final NaturalKeyLookupService naturalKeyLookupService;
+
+    private final PrefetchingEntityLoader prefetchingEntityLoader;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public AssetResource(
+        AssetRepository assetRepository,
+        AssetExportService assetExportService,
+        AssetBulkService assetBulkService,
+        CsvImportService csvImportService,
+        AssetStatusTransitionService assetStatusTransitionService,
+        AssetQueryService assetQueryService,
+        TableGenerationService tableGenerationService,
+        NaturalKeyLookupService naturalKeyLookupService,
+        PrefetchingEntityLoader prefetchingEntityLoader,
+        HotKeyTracker hotKeyTracker
+    ) {
         this.assetRepository = assetRepository;
+        this.assetExportService = assetExportService;
+        this.assetBulkService = assetBulkService;
+        this.csvImportService = csvImportService;
+        this.assetStatusTransitionService = assetStatusTransitionService;
+        this.assetQueryService = assetQueryService;
+        this.tableGenerationService = tableGenerationService;
+        this.naturalKeyLookupService = naturalKeyLookupService;
+        this.prefetchingEntityLoader = prefetchingEntityLoader;
+        this.hotKeyTracker = hotKeyTracker;
     }
 
     /**
@@ -58,52 +160,175 @@ public class AssetResource {
             .body(asset);
     }
 
+    /**
+     * {@code POST  /assets/bulk} : Create new assets in bulk.
+     * <p>
+     * The JSON array is read incrementally and all the valid assets are created in a single transaction.
+     *
+     * @param json the JSON array of assets to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the creation,
+     * or with status {@code 400 (Bad Request)} if the body is not a JSON array.
+     * @throws IOException if the body could not be read.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkCreationReportDTO> createAssets(InputStream json) throws IOException {
+        LOG.debug("REST request to save Assets in bulk");
+        BulkCreationReportDTO report;
+        try {
+            report = assetBulkService.createAll(json);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestAlertException("Invalid JSON array of assets", ENTITY_NAME, "bulkinvalid");
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, String.valueOf(report.getCreated())))
+            .body(report);
+    }
+
+    /**
+     * {@code POST  /assets/import} : Import assets from a CSV file.
+     * <p>
+     * The file has the same layout as the Liquibase data files, its invalid records are rejected and reported.
+     *
+     * @param csv the CSV file to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import,
+     * or with status {@code 400 (Bad Request)} if the header of the file is invalid.
+     * @throws IOException if the file could not be read.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<CsvImportReportDTO> importAssets(InputStream csv) throws IOException {
+        LOG.debug("REST request to import Assets from a CSV file");
+        CsvImportReportDTO report;
+        try {
+            report = csvImportService.importCsv(CsvImportTarget.ASSET, csv);
+        } catch (CsvImportException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "csvinvalid");
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, String.valueOf(report.getImported())))
+            .body(report);
+    }
+
+    /**
+     * {@code POST  /assets/status-transitions} : Transition the status of several assets at once.
+     *
+     * @param transition the assets, given by ids or by their current status, and their new status.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of assets whose status changed,
+     * or with status {@code 400 (Bad Request)} if the transition selects no assets.
+     */
+    @PostMapping("/status-transitions")
+    public ResponseEntity<Long> transitionAssetStatus(@Valid @RequestBody AssetStatusTransitionDTO transition) {
+        LOG.debug("REST request to transition the status of Assets : {}", transition);
+        if (transition.getIds() == null && transition.getFromStatus() == null) {
+            throw new BadRequestAlertException("A status transition needs ids or a current status", ENTITY_NAME, "transitioninvalid");
+        }
+        if (transition.getIds() != null && transition.getEmployeeId() != null) {
+            throw new BadRequestAlertException("A status transition cannot filter ids by employee", ENTITY_NAME, "transitioninvalid");
+        }
+        long changed = assetStatusTransitionService.transition(transition);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, String.valueOf(changed)))
+            .body(changed);
+    }
+
     /**
      * {@code PUT  /assets/:id} : Updates an existing asset.
+     * <p>
+     * Only the changed columns are written, and only if the asset was not modified since the client read it,
+     * according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the asset to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param asset the asset to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated asset,
      * or with status {@code 400 (Bad Request)} if the asset is not valid,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the asset couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Asset> updateAsset(@PathVariable(value = "id", required = false) final Long id, @RequestBody Asset asset)
-        throws URISyntaxException {
+    public ResponseEntity<Asset> updateAsset(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Asset asset
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Asset : {}, {}", id, asset);
-        if (asset.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, asset.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!assetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Asset existingAsset = findExistingAsset(id, ifMatch, asset);
+        existingAsset.setNumber(asset.getNumber());
+        existingAsset.setBrand(asset.getBrand());
+        existingAsset.setModel(asset.getModel());
+        existingAsset.setSerialNumber(asset.getSerialNumber());
+        existingAsset.setPurchaseDate(asset.getPurchaseDate());
+        existingAsset.setWarantDate(asset.getWarantDate());
+        existingAsset.setComments(asset.getComments());
+        existingAsset.setStatus(asset.getStatus());
+        existingAsset.setEmployee(asset.getEmployee());
 
-        asset = assetRepository.save(asset);
+        existingAsset = assetRepository.saveAndFlush(existingAsset);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, asset.getId().toString()))
-            .body(asset);
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingAsset.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingAsset.getVersion()))
+            .body(existingAsset);
     }
 
     /**
      * {@code PATCH  /assets/:id} : Partial updates given fields of an existing asset, field will ignore if it is null
+     * <p>
+     * Costs one select and one update of the changed columns, made only if the asset was not modified since
+     * the client read it, according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the asset to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param asset the asset to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated asset,
-     * or with status {@code 400 (Bad Request)} if the asset is not valid,
-     * or with status {@code 404 (Not Found)} if the asset is not found,
+     * or with status {@code 400 (Bad Request)} if the asset is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the asset couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Asset> partialUpdateAsset(@PathVariable(value = "id", required = false) final Long id, @RequestBody Asset asset)
-        throws URISyntaxException {
+    public ResponseEntity<Asset> partialUpdateAsset(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Asset asset
+    ) throws URISyntaxException {
         LOG.debug("REST request to partial update Asset partially : {}, {}", id, asset);
+        Asset existingAsset = findExistingAsset(id, ifMatch, asset);
+        if (asset.getNumber() != null) {
+            existingAsset.setNumber(asset.getNumber());
+        }
+        if (asset.getBrand() != null) {
+            existingAsset.setBrand(asset.getBrand());
+        }
+        if (asset.getModel() != null) {
+            existingAsset.setModel(asset.getModel());
+        }
+        if (asset.getSerialNumber() != null) {
+            existingAsset.setSerialNumber(asset.getSerialNumber());
+        }
+        if (asset.getPurchaseDate() != null) {
+            existingAsset.setPurchaseDate(asset.getPurchaseDate());
+        }
+        if (asset.getWarantDate() != null) {
+            existingAsset.setWarantDate(asset.getWarantDate());
+        }
+        if (asset.getComments() != null) {
+            existingAsset.setComments(asset.getComments());
+        }
+        if (asset.getStatus() != null) {
+            existingAsset.setStatus(asset.getStatus());
+        }
+
+        existingAsset = assetRepository.saveAndFlush(existingAsset);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingAsset.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingAsset.getVersion()))
+            .body(existingAsset);
+    }
+
+    private Asset findExistingAsset(Long id, String ifMatch, Asset asset) {
         if (asset.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
@@ -111,77 +336,272 @@ public class AssetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!assetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Asset> result = assetRepository
-            .findById(asset.getId())
-            .map(existingAsset -> {
-                if (asset.getNumber() != null) {
-                    existingAsset.setNumber(asset.getNumber());
-                }
-                if (asset.getBrand() != null) {
-                    existingAsset.setBrand(asset.getBrand());
-                }
-                if (asset.getModel() != null) {
-                    existingAsset.setModel(asset.getModel());
-                }
-                if (asset.getSerialNumber() != null) {
-                    existingAsset.setSerialNumber(asset.getSerialNumber());
-                }
-                if (asset.getPurchaseDate() != null) {
-                    existingAsset.setPurchaseDate(asset.getPurchaseDate());
-                }
-                if (asset.getWarantDate() != null) {
-                    existingAsset.setWarantDate(asset.getWarantDate());
-                }
-                if (asset.getComments() != null) {
-                    existingAsset.setComments(asset.getComments());
-                }
-                if (asset.getStatus() != null) {
-                    existingAsset.setStatus(asset.getStatus());
-                }
-
-                return existingAsset;
-            })
-            .map(assetRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, asset.getId().toString())
-        );
+        Asset existingAsset = assetRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityVersionUtil.checkVersion(ifMatch, asset.getVersion(), existingAsset.getVersion(), Asset.class, id, ENTITY_NAME);
+        return existingAsset;
     }
 
     /**
      * {@code GET  /assets} : get all the assets.
+     * <p>
+     * The assets are filtered and sorted by the database. When a {@code size} or a {@code cursor} is given, a single page
+     * is returned, using keyset pagination.
      *
      * @param filter the filter of the request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of assets in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the assets, ascending or descending; pages can only be sorted on {@code id}, {@code number},
+     * {@code serialNumber} or {@code warantDate}.
+     * @param ifNoneMatch the entity tag of the list already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of assets in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change since the given entity tag.
      */
     @GetMapping("")
-    public List<Asset> getAllAssets(@RequestParam(name = "filter", required = false) String filter) {
-        if ("assethistory-is-null".equals(filter)) {
+    public ResponseEntity<List<Asset>> getAllAssets(
+        @RequestParam(name = "filter", required = false) String filter,
+        AssetCriteria criteria,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String eTag = EntityVersionUtil.eTag(getListGeneration(filter));
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get all Assets, not modified");
+            return EntityVersionUtil.notModified(eTag);
+        }
+        return EntityVersionUtil.withETag(findAllAssets(filter, criteria, cursor, size, sort), eTag);
+    }
+
+    /**
+     * @return the generation of the lists of assets, which also depend on the asset histories when filtered on them.
+     */
+    private long getListGeneration(String filter) {
+        if (WITHOUT_ASSET_HISTORY_FILTER.equals(filter)) {
+            return tableGenerationService.getGeneration(Asset.class, Employee.class, AssetHistory.class);
+        }
+        return tableGenerationService.getGeneration(Asset.class, Employee.class);
+    }
+
+    private ResponseEntity<List<Asset>> findAllAssets(String filter, AssetCriteria criteria, String cursor, Integer size, String sort) {
+        Specification<Asset> specification = assetQueryService.createSpecification(criteria);
+        if (WITHOUT_ASSET_HISTORY_FILTER.equals(filter)) {
             LOG.debug("REST request to get all Assets where assetHistory is null");
-            return StreamSupport.stream(assetRepository.findAll().spliterator(), false)
-                .filter(asset -> asset.getAssetHistory() == null)
-                .toList();
+            specification = specification.and(AssetHistorySpecifications.withoutAssetHistory(AssetHistory_.asset));
+        }
+        if (cursor != null || size != null) {
+            LOG.debug("REST request to get a page of Assets by criteria: {}", criteria);
+            return getAssetPage(specification, cursor, size, sort);
+        }
+        LOG.debug("REST request to get all Assets by criteria: {}", criteria);
+        Sort assetSort = KeysetPaginationUtil.sort(sort, SORT_PROPERTIES, ENTITY_NAME);
+        if (filter == null) {
+            Optional<List<Asset>> assets = findAllByEmployee(criteria, assetSort);
+            if (assets.isPresent()) {
+                return ResponseEntity.ok(assets.get());
+            }
+        }
+        return ResponseEntity.ok(assetRepository.findAll(specification, assetSort));
+    }
+
+    /**
+     * Read the assets of an employee, or the unassigned assets, with the cached queries, when the criteria filter on nothing
+     * else.
+     */
+    private Optional<List<Asset>> findAllByEmployee(AssetCriteria criteria, Sort sort) {
+        if (criteria == null || criteria.getEmployeeId() == null) {
+            return Optional.empty();
+        }
+        LongFilter employeeId = criteria.getEmployeeId();
+        AssetCriteria employeeCriteria = new AssetCriteria();
+        employeeCriteria.setEmployeeId(employeeId);
+        if (!employeeCriteria.equals(criteria)) {
+            return Optional.empty();
         }
-        LOG.debug("REST request to get all Assets");
-        return assetRepository.findAll();
+        LongFilter byEmployee = new LongFilter();
+        byEmployee.setEquals(employeeId.getEquals());
+        if (employeeId.getEquals() != null && employeeId.equals(byEmployee)) {
+            return Optional.of(assetRepository.findAllByEmployeeId(employeeId.getEquals(), sort));
+        }
+        LongFilter unassigned = new LongFilter();
+        unassigned.setSpecified(false);
+        if (employeeId.equals(unassigned)) {
+            return Optional.of(assetRepository.findAllByEmployeeIsNull(sort));
+        }
+        return Optional.empty();
+    }
+
+    private ResponseEntity<List<Asset>> getAssetPage(Specification<Asset> specification, String cursor, Integer size, String sort) {
+        KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<Asset> rows = assetRepository.findAllAfter(specification, position, pageSize + 1);
+        return KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize);
+    }
+
+    /**
+     * {@code GET  /assets?view=summary} : get a page of the summaries of the assets.
+     * <p>
+     * Only the columns shown in the list screens are read, along with the name of the employee in the same statement,
+     * and no entity is loaded. The summaries are filtered like the assets and always paged, using keyset pagination.
+     *
+     * @param filter the filter of the request.
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the pages, {@code id} or {@code number}, ascending or descending.
+     * @param ifNoneMatch the entity tag of the summaries already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of assets summaries in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change since the given entity tag.
+     */
+    @GetMapping(value = "", params = "view=" + SUMMARY_VIEW)
+    public ResponseEntity<List<AssetSummary>> getAllAssetSummaries(
+        @RequestParam(name = "filter", required = false) String filter,
+        AssetCriteria criteria,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String eTag = EntityVersionUtil.eTag(getListGeneration(filter), SUMMARY_VIEW);
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get the summary of all Assets, not modified");
+            return EntityVersionUtil.notModified(eTag);
+        }
+        LOG.debug("REST request to get a page of the summaries of Assets by criteria: {}", criteria);
+        Specification<Asset> specification = assetQueryService.createSpecification(criteria);
+        if (WITHOUT_ASSET_HISTORY_FILTER.equals(filter)) {
+            specification = specification.and(AssetHistorySpecifications.withoutAssetHistory(AssetHistory_.asset));
+        }
+        KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, SUMMARY_KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<AssetSummary> rows = assetRepository.findAllSummariesAfter(specification, position, pageSize + 1);
+        return EntityVersionUtil.withETag(
+            KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize),
+            eTag
+        );
+    }
+
+    /**
+     * {@code GET  /assets/export} : export all the assets, as newline delimited JSON or, when preferred, as CSV.
+     * <p>
+     * The format is the first one of the accepted media types, ordered by quality value then specificity.
+     * The assets are streamed from the database to the response, without being loaded all at once.
+     *
+     * @param accept the media types accepted by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the assets in body, one per line.
+     */
+    @GetMapping(value = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE })
+    public ResponseEntity<StreamingResponseBody> exportAssets(@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean csv = prefersCsv(accept);
+        LOG.debug("REST request to export all Assets as {}", csv ? "CSV" : "NDJSON");
+        StreamingResponseBody body = csv ? assetExportService::exportCsv : assetExportService::exportNdjson;
+        return ResponseEntity.ok()
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(csv ? "assets.csv" : "assets.ndjson").build().toString()
+            )
+            .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * @return whether CSV comes before newline delimited JSON in the accepted media types, by quality value then
+     * specificity, a wildcard selecting newline delimited JSON.
+     */
+    private static boolean prefersCsv(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (!type.isWildcardSubtype() && type.isCompatibleWith(TEXT_CSV)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code GET  /assets?ids=:ids} : get the assets by id.
+     * <p>
+     * The cached assets are read from the second-level cache in a single round trip, and the others with a single statement.
+     *
+     * @param ids the ids of the assets to retrieve, {@value #MAX_IDS} at most.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the existing assets in body, in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if too many ids are requested.
+     */
+    @GetMapping(value = "", params = "ids")
+    public ResponseEntity<List<Asset>> getAssetsByIds(@RequestParam("ids") List<Long> ids) {
+        LOG.debug("REST request to get Assets : {}", ids);
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_IDS + " assets can be requested at once", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(prefetchingEntityLoader.loadAll(Asset.class, ids));
+    }
+
+    /**
+     * {@code GET  /assets/by-number/:number} : get the asset by its number.
+     *
+     * @param number the number of the asset to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the asset, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/by-number/{number}")
+    public ResponseEntity<Asset> getAssetByNumber(@PathVariable("number") String number) {
+        LOG.debug("REST request to get Asset by number : {}", number);
+        return versioned(naturalKeyLookupService.findAssetByNumber(number));
+    }
+
+    /**
+     * {@code GET  /assets/by-serial/:serial} : get the asset by its serial number.
+     *
+     * @param serialNumber the serial number of the asset to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the asset, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/by-serial/{serial}")
+    public ResponseEntity<Asset> getAssetBySerialNumber(@PathVariable("serial") String serialNumber) {
+        LOG.debug("REST request to get Asset by serial number : {}", serialNumber);
+        return versioned(naturalKeyLookupService.findAssetBySerialNumber(serialNumber));
     }
 
     /**
      * {@code GET  /assets/:id} : get the "id" asset.
      *
      * @param id the id of the asset to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the asset, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the asset already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the asset, or with status {@code 304 (Not Modified)}
+     * if its version did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Asset> getAsset(@PathVariable("id") Long id) {
+    public ResponseEntity<Asset> getAsset(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get Asset : {}", id);
-        Optional<Asset> asset = assetRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(asset);
+        hotKeyTracker.record(Asset.class.getName(), id);
+        if (ifNoneMatch != null) {
+            // Only read the version, so that a revalidation does not load the asset
+            Optional<String> eTag = assetRepository.findVersionById(id).map(EntityVersionUtil::eTag);
+            if (eTag.isPresent() && EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag.get())) {
+                return EntityVersionUtil.notModified(eTag.get());
+            }
+        }
+        return versioned(assetRepository.findById(id));
+    }
+
+    private static ResponseEntity<Asset> versioned(Optional<Asset> asset) {
+        return asset
+            .map(found -> EntityVersionUtil.withETag(ResponseEntity.ok(found), EntityVersionUtil.eTag(found.getVersion())))
+            .orElseGet(() -> ResponseUtil.wrapOrNotFound(asset));
     }
 
     /**
@@ -1,20 +1,45 @@
 package be.johanaerens.web.rest;
 
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.AssetHistory_;
 import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.AssetHistorySpecifications;
+import be.johanaerens.repository.AssetRepository;
 import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.repository.EmployeeSummary;
+import be.johanaerens.repository.KeysetPosition;
+import be.johanaerens.service.NaturalKeyLookupService;
+import be.johanaerens.service.TableGenerationService;
+import be.johanaerens.service.cache.HotKeyTracker;
+import be.johanaerens.service.cache.PrefetchingEntityLoader;
+import be.johanaerens.service.csvimport.CsvImportException;
+import be.johanaerens.service.csvimport.CsvImportService;
+import be.johanaerens.service.csvimport.CsvImportTarget;
+import be.johanaerens.service.dto.CsvImportReportDTO;
+import be.johanaerens.service.search.EmployeeSuggestionService;
 import be.johanaerens.web.rest.errors.BadRequestAlertException;
+import be.johanaerens.web.rest.util.EntityVersionUtil;
+import be.johanaerens.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -30,13 +55,57 @@ public class EmployeeResource {
 
     private static final String ENTITY_NAME = "employee";
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String SUMMARY_VIEW = "summary";
+
+    private static final String WITHOUT_ASSET_HISTORY_FILTER = "assethistory-is-null";
+
+    private static final int MAX_IDS = 500;
+
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of(KeysetPosition.ID_PROPERTY, "lastName");
+
+    private static final String ASSET_ENTITY_NAME = "asset";
+
+    private static final List<String> ASSET_KEYSET_SORT_PROPERTIES = List.of(KeysetPosition.ID_PROPERTY, "number");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeResource(EmployeeRepository employeeRepository) {
+    private final CsvImportService csvImportService;
+
+    private final TableGenerationService tableGenerationService;
+
+    private final EmployeeSuggestionService employeeSuggestionService;
+
+    private final NaturalKeyLookupService naturalKeyLookupService;
+
+    private final PrefetchingEntityLoader prefetchingEntityLoader;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final AssetRepository assetRepository;
+
+    public EmployeeResource(
+        EmployeeRepository employeeRepository,
+        AssetRepository assetRepository,
+        CsvImportService csvImportService,
+        TableGenerationService tableGenerationService,
+        EmployeeSuggestionService employeeSuggestionService,
+        NaturalKeyLookupService naturalKeyLookupService,
+        PrefetchingEntityLoader prefetchingEntityLoader,
+        HotKeyTracker hotKeyTracker
+    ) {
         this.employeeRepository = employeeRepository;
+        this.assetRepository = assetRepository;
+        this.csvImportService = csvImportService;
+        this.tableGenerationService = tableGenerationService;
+        this.employeeSuggestionService = employeeSuggestionService;
+        this.naturalKeyLookupService = naturalKeyLookupService;
+        this.prefetchingEntityLoader = prefetchingEntityLoader;
+        this.hotKeyTracker = hotKeyTracker;
     }
 
     /**
@@ -58,56 +127,124 @@ public class EmployeeResource {
             .body(employee);
     }
 
+    /**
+     * {@code POST  /employees/import} : Import employees from a CSV file.
+     * <p>
+     * The file has the same layout as the Liquibase data files, its invalid records are rejected and reported.
+     *
+     * @param csv the CSV file to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import,
+     * or with status {@code 400 (Bad Request)} if the header of the file is invalid.
+     * @throws IOException if the file could not be read.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<CsvImportReportDTO> importEmployees(InputStream csv) throws IOException {
+        LOG.debug("REST request to import Employees from a CSV file");
+        CsvImportReportDTO report;
+        try {
+            report = csvImportService.importCsv(CsvImportTarget.EMPLOYEE, csv);
+        } catch (CsvImportException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "csvinvalid");
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, String.valueOf(report.getImported())))
+            .body(report);
+    }
+
     /**
      * {@code PUT  /employees/:id} : Updates an existing employee.
+     * <p>
+     * Only the changed columns are written, and only if the employee was not modified since the client read it,
+     * according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the employee to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param employee the employee to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated employee,
      * or with status {@code 400 (Bad Request)} if the employee is not valid,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the employee couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Employee> updateEmployee(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody Employee employee
     ) throws URISyntaxException {
         LOG.debug("REST request to update Employee : {}, {}", id, employee);
-        if (employee.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, employee.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!employeeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Employee existingEmployee = findExistingEmployee(id, ifMatch, employee);
+        existingEmployee.setFirstName(employee.getFirstName());
+        existingEmployee.setLastName(employee.getLastName());
+        existingEmployee.setEmail(employee.getEmail());
+        existingEmployee.setEmployeeNumber(employee.getEmployeeNumber());
+        existingEmployee.setPhoneNumber(employee.getPhoneNumber());
+        existingEmployee.setHireDate(employee.getHireDate());
+        existingEmployee.setLanguage(employee.getLanguage());
 
-        employee = employeeRepository.save(employee);
+        existingEmployee = employeeRepository.saveAndFlush(existingEmployee);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, employee.getId().toString()))
-            .body(employee);
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingEmployee.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingEmployee.getVersion()))
+            .body(existingEmployee);
     }
 
     /**
      * {@code PATCH  /employees/:id} : Partial updates given fields of an existing employee, field will ignore if it is null
+     * <p>
+     * Costs one select and one update of the changed columns, made only if the employee was not modified since
+     * the client read it, according to the {@code If-Match} header or else the version in the body.
      *
      * @param id the id of the employee to save.
+     * @param ifMatch the entity tag of the version the update is based on, if any.
      * @param employee the employee to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated employee,
-     * or with status {@code 400 (Bad Request)} if the employee is not valid,
-     * or with status {@code 404 (Not Found)} if the employee is not found,
+     * or with status {@code 400 (Bad Request)} if the employee is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header does not match the current version,
      * or with status {@code 500 (Internal Server Error)} if the employee couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Employee> partialUpdateEmployee(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody Employee employee
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Employee partially : {}, {}", id, employee);
+        Employee existingEmployee = findExistingEmployee(id, ifMatch, employee);
+        if (employee.getFirstName() != null) {
+            existingEmployee.setFirstName(employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            existingEmployee.setLastName(employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            existingEmployee.setEmail(employee.getEmail());
+        }
+        if (employee.getEmployeeNumber() != null) {
+            existingEmployee.setEmployeeNumber(employee.getEmployeeNumber());
+        }
+        if (employee.getPhoneNumber() != null) {
+            existingEmployee.setPhoneNumber(employee.getPhoneNumber());
+        }
+        if (employee.getHireDate() != null) {
+            existingEmployee.setHireDate(employee.getHireDate());
+        }
+        if (employee.getLanguage() != null) {
+            existingEmployee.setLanguage(employee.getLanguage());
+        }
+
+        existingEmployee = employeeRepository.saveAndFlush(existingEmployee);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, existingEmployee.getId().toString()))
+            .eTag(EntityVersionUtil.eTag(existingEmployee.getVersion()))
+            .body(existingEmployee);
+    }
+
+    private Employee findExistingEmployee(Long id, String ifMatch, Employee employee) {
         if (employee.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
@@ -115,74 +252,259 @@ public class EmployeeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!employeeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Employee> result = employeeRepository
-            .findById(employee.getId())
-            .map(existingEmployee -> {
-                if (employee.getFirstName() != null) {
-                    existingEmployee.setFirstName(employee.getFirstName());
-                }
-                if (employee.getLastName() != null) {
-                    existingEmployee.setLastName(employee.getLastName());
-                }
-                if (employee.getEmail() != null) {
-                    existingEmployee.setEmail(employee.getEmail());
-                }
-                if (employee.getEmployeeNumber() != null) {
-                    existingEmployee.setEmployeeNumber(employee.getEmployeeNumber());
-                }
-                if (employee.getPhoneNumber() != null) {
-                    existingEmployee.setPhoneNumber(employee.getPhoneNumber());
-                }
-                if (employee.getHireDate() != null) {
-                    existingEmployee.setHireDate(employee.getHireDate());
-                }
-                if (employee.getLanguage() != null) {
-                    existingEmployee.setLanguage(employee.getLanguage());
-                }
-
-                return existingEmployee;
-            })
-            .map(employeeRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, employee.getId().toString())
-        );
+        Employee existingEmployee = employeeRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityVersionUtil.checkVersion(ifMatch, employee.getVersion(), existingEmployee.getVersion(), Employee.class, id, ENTITY_NAME);
+        return existingEmployee;
     }
 
     /**
      * {@code GET  /employees} : get all the employees.
+     * <p>
+     * When a {@code size} or a {@code cursor} is given, a single page is returned, using keyset pagination.
      *
      * @param filter the filter of the request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the pages, {@code id} or {@code lastName}, ascending or descending.
+     * @param ifNoneMatch the entity tag of the list already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change since the given entity tag.
      */
     @GetMapping("")
-    public List<Employee> getAllEmployees(@RequestParam(name = "filter", required = false) String filter) {
-        if ("assethistory-is-null".equals(filter)) {
+    public ResponseEntity<List<Employee>> getAllEmployees(
+        @RequestParam(name = "filter", required = false) String filter,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String eTag = EntityVersionUtil.eTag(getListGeneration(filter));
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get all Employees, not modified");
+            return EntityVersionUtil.notModified(eTag);
+        }
+        return EntityVersionUtil.withETag(findAllEmployees(filter, cursor, size, sort), eTag);
+    }
+
+    /**
+     * @return the generation of the lists of employees, which also depend on the asset histories when filtered on them.
+     */
+    private long getListGeneration(String filter) {
+        if (WITHOUT_ASSET_HISTORY_FILTER.equals(filter)) {
+            return tableGenerationService.getGeneration(Employee.class, AssetHistory.class);
+        }
+        return tableGenerationService.getGeneration(Employee.class);
+    }
+
+    private ResponseEntity<List<Employee>> findAllEmployees(String filter, String cursor, Integer size, String sort) {
+        if (WITHOUT_ASSET_HISTORY_FILTER.equals(filter)) {
             LOG.debug("REST request to get all Employees where assetHistory is null");
-            return StreamSupport.stream(employeeRepository.findAll().spliterator(), false)
-                .filter(employee -> employee.getAssetHistory() == null)
-                .toList();
+            Specification<Employee> withoutAssetHistory = AssetHistorySpecifications.withoutAssetHistory(AssetHistory_.employee);
+            if (cursor == null && size == null) {
+                return ResponseEntity.ok(employeeRepository.findAll(withoutAssetHistory));
+            }
+            return getEmployeePage(withoutAssetHistory, cursor, size, sort);
+        }
+        if (cursor != null || size != null) {
+            LOG.debug("REST request to get a page of Employees");
+            return getEmployeePage(Specification.where(null), cursor, size, sort);
         }
         LOG.debug("REST request to get all Employees");
-        return employeeRepository.findAll();
+        return ResponseEntity.ok(employeeRepository.findAll());
+    }
+
+    private ResponseEntity<List<Employee>> getEmployeePage(Specification<Employee> specification, String cursor, Integer size, String sort) {
+        KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<Employee> rows = employeeRepository.findAllAfter(specification, position, pageSize + 1);
+        return KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize);
+    }
+
+    /**
+     * {@code GET  /employees?view=summary} : get a page of the summaries of the employees.
+     * <p>
+     * Only the columns shown in the list screens are read, and no entity is loaded. The summaries are filtered like the
+     * employees and always paged, using keyset pagination.
+     *
+     * @param filter the filter of the request.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the pages, {@code id} or {@code lastName}, ascending or descending.
+     * @param ifNoneMatch the entity tag of the summaries already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of employees summaries in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change since the given entity tag.
+     */
+    @GetMapping(value = "", params = "view=" + SUMMARY_VIEW)
+    public ResponseEntity<List<EmployeeSummary>> getAllEmployeeSummaries(
+        @RequestParam(name = "filter", required = false) String filter,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String eTag = EntityVersionUtil.eTag(getListGeneration(filter), SUMMARY_VIEW);
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get the summary of all Employees, not modified");
+            return EntityVersionUtil.notModified(eTag);
+        }
+        LOG.debug("REST request to get a page of the summaries of Employees");
+        Specification<Employee> specification = WITHOUT_ASSET_HISTORY_FILTER.equals(filter)
+            ? AssetHistorySpecifications.withoutAssetHistory(AssetHistory_.employee)
+            : Specification.where(null);
+        KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<EmployeeSummary> rows = employeeRepository.findAllSummariesAfter(specification, position, pageSize + 1);
+        return EntityVersionUtil.withETag(
+            KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize),
+            eTag
+        );
+    }
+
+    /**
+     * {@code GET  /employees/suggest?prefix=:prefix} : suggest the employees whose first name, last name, email or
+     * employee number starts with a prefix.
+     * <p>
+     * The suggestions are served from memory, without querying the database.
+     *
+     * @param prefix the first characters typed by the user.
+     * @param size the maximum number of employees to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summaries of the matching employees in body,
+     * or with status {@code 503 (Service Unavailable)} while the suggestion index is being built.
+     */
+    @GetMapping("/suggest")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<EmployeeSummary>> suggestEmployees(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(name = "size", required = false) Integer size
+    ) {
+        LOG.debug("REST request to suggest Employees for prefix {}", prefix);
+        if (!employeeSuggestionService.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The suggestion index is being built");
+        }
+        int limit = size == null || size < 1 ? EmployeeSuggestionService.DEFAULT_LIMIT : size;
+        return ResponseEntity.ok(employeeSuggestionService.suggest(prefix, limit));
+    }
+
+    /**
+     * {@code GET  /employees?ids=:ids} : get the employees by id.
+     * <p>
+     * The cached employees are read from the second-level cache in a single round trip, and the others with a single statement.
+     *
+     * @param ids the ids of the employees to retrieve, {@value #MAX_IDS} at most.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the existing employees in body, in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if too many ids are requested.
+     */
+    @GetMapping(value = "", params = "ids")
+    public ResponseEntity<List<Employee>> getEmployeesByIds(@RequestParam("ids") List<Long> ids) {
+        LOG.debug("REST request to get Employees : {}", ids);
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_IDS + " employees can be requested at once", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(prefetchingEntityLoader.loadAll(Employee.class, ids));
+    }
+
+    /**
+     * {@code GET  /employees/by-number/:number} : get the employee by its employee number.
+     *
+     * @param employeeNumber the employee number of the employee to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/by-number/{number}")
+    public ResponseEntity<Employee> getEmployeeByNumber(@PathVariable("number") String employeeNumber) {
+        LOG.debug("REST request to get Employee by number : {}", employeeNumber);
+        return versioned(naturalKeyLookupService.findEmployeeByNumber(employeeNumber));
     }
 
     /**
      * {@code GET  /employees/:id} : get the "id" employee.
      *
      * @param id the id of the employee to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the employee already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 304 (Not Modified)}
+     * if its version did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployee(@PathVariable("id") Long id) {
+    public ResponseEntity<Employee> getEmployee(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get Employee : {}", id);
-        Optional<Employee> employee = employeeRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(employee);
+        hotKeyTracker.record(Employee.class.getName(), id);
+        if (ifNoneMatch != null) {
+            // Only read the version, so that a revalidation does not load the employee
+            Optional<String> eTag = employeeRepository.findVersionById(id).map(EntityVersionUtil::eTag);
+            if (eTag.isPresent() && EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag.get())) {
+                return EntityVersionUtil.notModified(eTag.get());
+            }
+        }
+        return versioned(employeeRepository.findById(id));
+    }
+
+    private static ResponseEntity<Employee> versioned(Optional<Employee> employee) {
+        return employee
+            .map(found -> EntityVersionUtil.withETag(ResponseEntity.ok(found), EntityVersionUtil.eTag(found.getVersion())))
+            .orElseGet(() -> ResponseUtil.wrapOrNotFound(employee));
+    }
+
+    /**
+     * {@code GET  /employees/:id/assets} : get a page of the assets used by the "id" employee.
+     * <p>
+     * The page is read with keyset pagination on the indexes of the assets by employee, without loading the
+     * {@code Employee.assets} collection, whose size is only bounded by the number of assets.
+     *
+     * @param id the id of the employee.
+     * @param cursor the continuation token of the page to get, as found in the {@code Link} header of the previous page.
+     * @param size the size of the page to get.
+     * @param sort the sort of the pages, {@code id} or {@code number}, ascending or descending.
+     * @param ifNoneMatch the entity tag of the page already known by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of assets in body,
+     * or with status {@code 304 (Not Modified)} if the assets did not change since the given entity tag,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/assets")
+    public ResponseEntity<List<Asset>> getEmployeeAssets(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", required = false) Integer size,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (!employeeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        // The entity tags and the cursors of the pages of an employee do not apply to the pages of the others
+        String scope = ENTITY_NAME + "-" + id;
+        String eTag = EntityVersionUtil.eTag(tableGenerationService.getGeneration(Asset.class), scope + "-assets");
+        if (EntityVersionUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            LOG.debug("REST request to get a page of the Assets of Employee : {}, not modified", id);
+            return EntityVersionUtil.notModified(eTag);
+        }
+        LOG.debug("REST request to get a page of the Assets of Employee : {}", id);
+        KeysetPosition position = KeysetPaginationUtil.position(sort, cursor, ASSET_KEYSET_SORT_PROPERTIES, ASSET_ENTITY_NAME, scope);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<Asset> rows = assetRepository.findAllByEmployeeIdAfter(id, position, pageSize + 1);
+        return EntityVersionUtil.withETag(
+            KeysetPaginationUtil.keysetResponse(ServletUriComponentsBuilder.fromCurrentRequest(), position, rows, pageSize, scope),
+            eTag
+        );
+    }
+
+    /**
+     * {@code GET  /employees/:id/assets/count} : count the assets used by the "id" employee.
+     *
+     * @param id the id of the employee.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, or with status
+     * {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/assets/count")
+    public ResponseEntity<Long> countEmployeeAssets(@PathVariable("id") Long id) {
+        LOG.debug("REST request to count the Assets of Employee : {}", id);
+        if (!employeeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().body(assetRepository.countByEmployeeId(id));
     }
 
     /**
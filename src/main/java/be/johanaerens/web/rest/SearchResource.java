@@ -0,0 +1,80 @@
+package be.johanaerens.web.rest;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.service.search.EntitySearchService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller for the full-text search of {@link Asset}s and {@link Employee}s.
+ * <p>
+ * A query matches the entities containing all its terms, anywhere in a word for terms of three characters or more,
+ * at the start of a word for shorter ones, ignoring case, accents and punctuation.
+ */
+@RestController
+@RequestMapping("/api/_search")
+public class SearchResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResource.class);
+
+    private final EntitySearchService entitySearchService;
+
+    public SearchResource(EntitySearchService entitySearchService) {
+        this.entitySearchService = entitySearchService;
+    }
+
+    /**
+     * {@code GET  /_search/assets?q=:query} : search the assets by number, brand, model, serial number and comments.
+     *
+     * @param query the query of the search.
+     * @param size the maximum number of assets to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching assets in body,
+     * or with status {@code 503 (Service Unavailable)} while the search index is being built.
+     */
+    @GetMapping("/assets")
+    public ResponseEntity<List<Asset>> searchAssets(
+        @RequestParam("q") String query,
+        @RequestParam(name = "size", required = false) Integer size
+    ) {
+        LOG.debug("REST request to search Assets for query {}", query);
+        checkReady(Asset.class);
+        return ResponseEntity.ok(entitySearchService.searchAssets(query, limit(size)));
+    }
+
+    /**
+     * {@code GET  /_search/employees?q=:query} : search the employees by first name, last name, email and employee number.
+     *
+     * @param query the query of the search.
+     * @param size the maximum number of employees to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching employees in body,
+     * or with status {@code 503 (Service Unavailable)} while the search index is being built.
+     */
+    @GetMapping("/employees")
+    public ResponseEntity<List<Employee>> searchEmployees(
+        @RequestParam("q") String query,
+        @RequestParam(name = "size", required = false) Integer size
+    ) {
+        LOG.debug("REST request to search Employees for query {}", query);
+        checkReady(Employee.class);
+        return ResponseEntity.ok(entitySearchService.searchEmployees(query, limit(size)));
+    }
+
+    private void checkReady(Class<?> entityClass) {
+        if (!entitySearchService.isReady(entityClass)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The search index is being built");
+        }
+    }
+
+    private static int limit(Integer size) {
+        if (size == null || size < 1) {
+            return EntitySearchService.DEFAULT_LIMIT;
+        }
+        return Math.min(size, EntitySearchService.MAX_LIMIT);
+    }
+}
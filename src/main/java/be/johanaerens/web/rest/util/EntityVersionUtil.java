@@ -0,0 +1,126 @@
+package be.johanaerens.web.rest.util;
+
+import be.johanaerens.web.rest.errors.PreconditionFailedAlertException;
+import java.util.Objects;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Utility class for the entity tags of the resources, and the optimistic locking of the entities through their {@code version}.
+ * <p>
+ * The version of an entity is its strong entity tag: a client sends it back, in an {@code If-Match} header
+ * or in the body, to have its update rejected when the entity changed since it was read, or in an
+ * {@code If-None-Match} header to skip downloading it again when it did not change.
+ * The entity tag of a list is the modification generation of its table.
+ */
+public final class EntityVersionUtil {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityVersionUtil() {}
+
+    /**
+     * @param version the version of an entity, or the generation of a table.
+     * @return the strong entity tag of this version.
+     */
+    public static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param version the version of an entity, or the generation of a table.
+     * @param view the name of a partial representation of the resource.
+     * @return the strong entity tag of this version, in this view.
+     */
+    public static String eTag(Long version, String view) {
+        return "\"" + view + "-" + version + "\"";
+    }
+
+    /**
+     * Check whether the client already has the current representation of a resource.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request, if any.
+     * @param eTag the entity tag of the current representation.
+     * @return whether the {@code If-None-Match} header matches the entity tag, using the weak comparison.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.startsWith(WEAK_PREFIX)) {
+                trimmed = trimmed.substring(WEAK_PREFIX.length());
+            }
+            if (ANY.equals(trimmed) || eTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param eTag the entity tag of the current representation.
+     * @param <X> type of the response.
+     * @return a {@code 304 (Not Modified)} response.
+     */
+    public static <X> ResponseEntity<X> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    /**
+     * Add an entity tag to a response, and let clients store it as long as they revalidate it.
+     *
+     * @param response the response.
+     * @param eTag the entity tag of the response.
+     * @param <X> type of the response.
+     * @return the response with its entity tag.
+     */
+    public static <X> ResponseEntity<X> withETag(ResponseEntity<X> response, String eTag) {
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache())
+            .body(response.getBody());
+    }
+
+    /**
+     * Check that an update is made against the current version of an entity.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, if any.
+     * @param requestVersion the version in the body of the request, only used without {@code If-Match} header.
+     * @param currentVersion the current version of the entity.
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     * @param entityName the name of the entity.
+     * @throws PreconditionFailedAlertException if the {@code If-Match} header does not match the current version.
+     * @throws ObjectOptimisticLockingFailureException if the version in the body is not the current version.
+     */
+    public static void checkVersion(String ifMatch, Long requestVersion, Long currentVersion, Class<?> entityClass, Object id, String entityName) {
+        if (ifMatch != null) {
+            if (!matches(ifMatch, currentVersion)) {
+                throw new PreconditionFailedAlertException("The entity was modified since it was read", entityName, "versionmismatch");
+            }
+        } else if (requestVersion != null && !Objects.equals(requestVersion, currentVersion)) {
+            throw new ObjectOptimisticLockingFailureException(entityClass, id);
+        }
+    }
+
+    /**
+     * Weak entity tags never match, as {@code If-Match} uses the strong comparison.
+     */
+    static boolean matches(String ifMatch, Long currentVersion) {
+        String currentTag = eTag(currentVersion);
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (ANY.equals(trimmed) || currentTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,251 @@
+package be.johanaerens.web.rest.util;
+
+import be.johanaerens.repository.KeysetPosition;
+import be.johanaerens.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination.
+ * <p>
+ * Pages are addressed by an opaque continuation token, the {@code cursor}, encoding the sort order and the
+ * position of the last row of the previous page, and the resource the pages belong to for the sub-resources, like the
+ * assets of an employee. The next page is advertised in the {@code Link} header,
+ * following the <a href="https://tools.ietf.org/html/rfc5988">RFC 5988 (Link header)</a>.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private static final String SEPARATOR = "|";
+
+    private static final String SCOPE_SEPARATOR = "#";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Resolve the position to read from, either the one encoded in the cursor or the initial position of the requested sort.
+     *
+     * @param sort the requested sort, as {@code property[,asc|desc]}, {@code id,asc} when absent.
+     * @param cursor the continuation token of the previous page, if any.
+     * @param allowedProperties the sort properties backed by a {@code (property, id)} index.
+     * @param entityName the entity name used in error messages.
+     * @return the keyset position.
+     */
+    public static KeysetPosition position(String sort, String cursor, Collection<String> allowedProperties, String entityName) {
+        return position(sort, cursor, allowedProperties, entityName, null);
+    }
+
+    /**
+     * Resolve the position to read from in the pages of a sub-resource, either the one encoded in the cursor or the
+     * initial position of the requested sort.
+     *
+     * @param sort the requested sort, as {@code property[,asc|desc]}, {@code id,asc} when absent.
+     * @param cursor the continuation token of the previous page, if any.
+     * @param allowedProperties the sort properties backed by a {@code (property, id)} index.
+     * @param entityName the entity name used in error messages.
+     * @param scope the resource the pages belong to, which the cursor must have been created for, or {@code null}.
+     * @return the keyset position.
+     */
+    public static KeysetPosition position(
+        String sort,
+        String cursor,
+        Collection<String> allowedProperties,
+        String entityName,
+        String scope
+    ) {
+        KeysetPosition initial = parseSort(sort, entityName);
+        if (!allowedProperties.contains(initial.property())) {
+            throw new BadRequestAlertException("Sorting is not supported on this property", entityName, "sortinvalid");
+        }
+        if (cursor == null) {
+            return initial;
+        }
+        KeysetPosition position = decodeCursor(cursor, entityName, scope);
+        if (!position.property().equals(initial.property()) || position.direction() != initial.direction()) {
+            throw new BadRequestAlertException("The cursor does not match the requested sort", entityName, "cursorinvalid");
+        }
+        return position;
+    }
+
+    /**
+     * Resolve the sort of a full list, requested with the same syntax as the keyset pagination.
+     *
+     * @param sort the requested sort, as {@code property[,asc|desc]}, {@code id,asc} when absent.
+     * @param allowedProperties the properties the list can be sorted on.
+     * @param entityName the entity name used in error messages.
+     * @return the sort on the requested property, then on {@code id} so that the order is stable.
+     */
+    public static Sort sort(String sort, Collection<String> allowedProperties, String entityName) {
+        return position(sort, null, allowedProperties, entityName).toSort();
+    }
+
+    /**
+     * Resolve the page size, defaulting to {@link #DEFAULT_PAGE_SIZE} and capped to {@link #MAX_PAGE_SIZE}.
+     *
+     * @param size the requested page size.
+     * @return the page size.
+     */
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Build the response for a page read with one extra row, the extra row only telling that a next page exists.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param position the position the page was read from.
+     * @param rows the rows read, at most {@code size + 1}.
+     * @param size the page size.
+     * @param <T> the type of the rows.
+     * @return the {@link ResponseEntity} with the page in body and the {@code Link} header of the next page, if any.
+     */
+    public static <T> ResponseEntity<List<T>> keysetResponse(UriComponentsBuilder uriBuilder, KeysetPosition position, List<T> rows, int size) {
+        return keysetResponse(uriBuilder, position, rows, size, null);
+    }
+
+    /**
+     * Build the response of a page of a sub-resource, whose cursor is bound to the resource the pages belong to.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param position the position the page was read from.
+     * @param rows the rows read, one more than the page size when there is a next page.
+     * @param size the page size.
+     * @param scope the resource the pages belong to, or {@code null}.
+     * @param <T> the type of the rows.
+     * @return the {@link ResponseEntity} with the page in body and the {@code Link} header of the next page, if any.
+     */
+    public static <T> ResponseEntity<List<T>> keysetResponse(
+        UriComponentsBuilder uriBuilder,
+        KeysetPosition position,
+        List<T> rows,
+        int size,
+        String scope
+    ) {
+        if (rows.size() <= size) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, size);
+        T lastRow = page.get(size - 1);
+        // Records have no bean getters, their components are read from their fields
+        PropertyAccessor last = lastRow instanceof Record
+            ? PropertyAccessorFactory.forDirectFieldAccess(lastRow)
+            : PropertyAccessorFactory.forBeanPropertyAccess(lastRow);
+        KeysetPosition next = position.next(
+            (Long) last.getPropertyValue(KeysetPosition.ID_PROPERTY),
+            position.isIdOnly() ? null : asString(last.getPropertyValue(position.property()))
+        );
+        String link = uriBuilder.replaceQueryParam("cursor", encodeCursor(next, scope)).replaceQueryParam("size", size).toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, String.format(HEADER_LINK_FORMAT, link, "next"));
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * Encode a position as an opaque, URL safe, continuation token.
+     *
+     * @param position the position to encode.
+     * @return the continuation token.
+     */
+    public static String encodeCursor(KeysetPosition position) {
+        return encodeCursor(position, null);
+    }
+
+    /**
+     * Encode a position in the pages of a sub-resource as an opaque, URL safe, continuation token.
+     *
+     * @param position the position to encode.
+     * @param scope the resource the pages belong to, or {@code null}.
+     * @return the continuation token.
+     */
+    public static String encodeCursor(KeysetPosition position, String scope) {
+        StringBuilder token = new StringBuilder();
+        if (scope != null) {
+            token.append(scope).append(SCOPE_SEPARATOR);
+        }
+        token
+            .append(position.property())
+            .append(SEPARATOR)
+            .append(position.direction().name())
+            .append(SEPARATOR)
+            .append(position.id());
+        if (position.value() != null) {
+            token.append(SEPARATOR).append(position.value());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token created by {@link #encodeCursor(KeysetPosition)}.
+     *
+     * @param cursor the continuation token.
+     * @param entityName the entity name used in error messages.
+     * @return the position.
+     */
+    public static KeysetPosition decodeCursor(String cursor, String entityName) {
+        return decodeCursor(cursor, entityName, null);
+    }
+
+    /**
+     * Decode a continuation token created by {@link #encodeCursor(KeysetPosition, String)}.
+     *
+     * @param cursor the continuation token.
+     * @param entityName the entity name used in error messages.
+     * @param scope the resource the pages belong to, which the cursor must have been created for, or {@code null}.
+     * @return the position.
+     */
+    public static KeysetPosition decodeCursor(String cursor, String entityName, String scope) {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (scope != null) {
+                if (!token.startsWith(scope + SCOPE_SEPARATOR)) {
+                    throw new IllegalArgumentException("Cursor of another resource");
+                }
+                token = token.substring(scope.length() + SCOPE_SEPARATOR.length());
+            }
+            String[] parts = token.split("\\" + SEPARATOR, 4);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Missing cursor parts");
+            }
+            return new KeysetPosition(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    private static KeysetPosition parseSort(String sort, String entityName) {
+        if (sort == null || sort.isBlank()) {
+            return KeysetPosition.initial(KeysetPosition.ID_PROPERTY, Sort.Direction.ASC);
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2) {
+            throw new BadRequestAlertException("Sorting is only supported on a single property", entityName, "sortinvalid");
+        }
+        Sort.Direction direction = parts.length == 2
+            ? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+            : Sort.Direction.ASC;
+        return KeysetPosition.initial(parts[0].trim(), direction);
+    }
+
+    private static String asString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> enumValue ? enumValue.name() : value.toString();
+    }
+}
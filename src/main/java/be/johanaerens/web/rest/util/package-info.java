@@ -0,0 +1,4 @@
+/**
+ * Utilities for the Rest layer.
+ */
+package be.johanaerens.web.rest.util;
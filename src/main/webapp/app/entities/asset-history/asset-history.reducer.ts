@@ -21,7 +21,7 @@ const apiUrl = 'api/asset-histories';
 export const getEntities = createAsyncThunk(
   'assetHistory/fetch_entity_list',
   async ({ sort }: IQueryParams) => {
-    const requestUrl = `${apiUrl}?${sort ? `sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
+    const requestUrl = `${apiUrl}${sort ? `?sort=${sort}` : ''}`;
     return axios.get<IAssetHistory[]>(requestUrl);
   },
   { serializeError: serializeAxiosError },
@@ -1,6 +1,5 @@
 import axios from 'axios';
 import { createAsyncThunk, isFulfilled, isPending } from '@reduxjs/toolkit';
-import { ASC } from 'app/shared/util/pagination.constants';
 import { cleanEntity } from 'app/shared/util/entity-utils';
 import { EntityState, IQueryParams, createEntitySlice, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IAsset, defaultValue } from 'app/shared/model/asset.model';
@@ -21,7 +20,7 @@ const apiUrl = 'api/assets';
 export const getEntities = createAsyncThunk(
   'asset/fetch_entity_list',
   async ({ sort }: IQueryParams) => {
-    const requestUrl = `${apiUrl}?${sort ? `sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
+    const requestUrl = `${apiUrl}${sort ? `?sort=${sort}` : ''}`;
     return axios.get<IAsset[]>(requestUrl);
   },
   { serializeError: serializeAxiosError },
@@ -96,17 +95,11 @@ export const AssetSlice = createEntitySlice({
       .addMatcher(isFulfilled(getEntities), (state, action) => {
         const { data } = action.payload;
 
+        // The assets are sorted by the server
         return {
           ...state,
           loading: false,
-          entities: data.sort((a, b) => {
-            if (!action.meta?.arg?.sort) {
-              return 1;
-            }
-            const order = action.meta.arg.sort.split(',')[1];
-            const predicate = action.meta.arg.sort.split(',')[0];
-            return order === ASC ? (a[predicate] < b[predicate] ? -1 : 1) : b[predicate] < a[predicate] ? -1 : 1;
-          }),
+          entities: data,
         };
       })
       .addMatcher(isFulfilled(createEntity, updateEntity, partialUpdateEntity), (state, action) => {
@@ -21,7 +21,7 @@ const apiUrl = 'api/employees';
 export const getEntities = createAsyncThunk(
   'employee/fetch_entity_list',
   async ({ sort }: IQueryParams) => {
-    const requestUrl = `${apiUrl}?${sort ? `sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
+    const requestUrl = `${apiUrl}${sort ? `?sort=${sort}` : ''}`;
     return axios.get<IEmployee[]>(requestUrl);
   },
   { serializeError: serializeAxiosError },
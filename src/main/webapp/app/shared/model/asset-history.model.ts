@@ -4,6 +4,7 @@ import { IEmployee } from 'app/shared/model/employee.model';
 
 export interface IAssetHistory {
   id?: number;
+  version?: number;
   startDate?: dayjs.Dayjs | null;
   endDate?: dayjs.Dayjs | null;
   asset?: IAsset | null;
@@ -4,6 +4,7 @@ import { Status } from 'app/shared/model/enumerations/status.model';
 
 export interface IAsset {
   id?: number;
+  version?: number;
   number?: string | null;
   brand?: string | null;
   model?: string | null;
@@ -3,6 +3,7 @@ import { Language } from 'app/shared/model/enumerations/language.model';
 
 export interface IEmployee {
   id?: number;
+  version?: number;
   firstName?: string | null;
   lastName?: string | null;
   email?: string | null;
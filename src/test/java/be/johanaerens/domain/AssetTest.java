@@ -1,6 +1,5 @@
 package be.johanaerens.domain;
 
-import static be.johanaerens.domain.AssetHistoryTestSamples.*;
 import static be.johanaerens.domain.AssetTestSamples.*;
 import static be.johanaerens.domain.EmployeeTestSamples.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +23,16 @@ class AssetTest {
         assertThat(asset1).isNotEqualTo(asset2);
     }
 
+    @Test
+    void compareToTest() {
+        Asset asset1 = getAssetSample1();
+        Asset asset2 = getAssetSample2();
+        Asset transientAsset = new Asset();
+
+        assertThat(asset1).isLessThan(asset2).isLessThan(transientAsset);
+        assertThat(asset1).isEqualByComparingTo(new Asset().id(asset1.getId()));
+    }
+
     @Test
     void employeeTest() {
         Asset asset = getAssetRandomSampleGenerator();
@@ -35,18 +44,4 @@ class AssetTest {
         asset.employee(null);
         assertThat(asset.getEmployee()).isNull();
     }
-
-    @Test
-    void assetHistoryTest() {
-        Asset asset = getAssetRandomSampleGenerator();
-        AssetHistory assetHistoryBack = getAssetHistoryRandomSampleGenerator();
-
-        asset.setAssetHistory(assetHistoryBack);
-        assertThat(asset.getAssetHistory()).isEqualTo(assetHistoryBack);
-        assertThat(assetHistoryBack.getAsset()).isEqualTo(asset);
-
-        asset.assetHistory(null);
-        assertThat(asset.getAssetHistory()).isNull();
-        assertThat(assetHistoryBack.getAsset()).isNull();
-    }
 }
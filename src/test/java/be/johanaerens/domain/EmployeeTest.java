@@ -1,6 +1,5 @@
 package be.johanaerens.domain;
 
-import static be.johanaerens.domain.AssetHistoryTestSamples.*;
 import static be.johanaerens.domain.AssetTestSamples.*;
 import static be.johanaerens.domain.EmployeeTestSamples.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -49,16 +48,26 @@ class EmployeeTest {
     }
 
     @Test
-    void assetHistoryTest() {
+    void assetTestWithManyAssets() {
         Employee employee = getEmployeeRandomSampleGenerator();
-        AssetHistory assetHistoryBack = getAssetHistoryRandomSampleGenerator();
+        Set<Asset> held = new HashSet<>();
+        for (long id = 1; id <= 100; id++) {
+            held.add(new Asset().id(id));
+        }
+        employee.assets(held);
 
-        employee.setAssetHistory(assetHistoryBack);
-        assertThat(employee.getAssetHistory()).isEqualTo(assetHistoryBack);
-        assertThat(assetHistoryBack.getEmployee()).isEqualTo(employee);
+        Asset assetBack = new Asset();
+        employee.addAsset(assetBack);
+        assertThat(employee.getAssets()).hasSize(101).contains(assetBack);
+        assertThat(assetBack.getEmployee()).isEqualTo(employee);
+
+        // Persisted
+        assetBack.setId(101L);
+        assertThat(employee.getAssets()).contains(assetBack);
+        assertThat(assetBack.getEmployee()).isEqualTo(employee);
 
-        employee.assetHistory(null);
-        assertThat(employee.getAssetHistory()).isNull();
-        assertThat(assetHistoryBack.getEmployee()).isNull();
+        employee.removeAsset(assetBack);
+        assertThat(employee.getAssets()).hasSize(100).doesNotContain(assetBack);
+        assertThat(assetBack.getEmployee()).isNull();
     }
 }
@@ -0,0 +1,118 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+
+/**
+ * Test class for the {@link CacheCircuitBreaker} class.
+ */
+class CacheCircuitBreakerTest {
+
+    private RBucket<Object> probe;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        probe = mock(RBucket.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString())).thenReturn(probe);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CacheCircuitBreaker(new ApplicationProperties(), redissonClient, meterRegistry);
+    }
+
+    @Test
+    void testCachesAreLocalUntilRedisAnswers() {
+        assertThat(circuitBreaker.getMode()).isEqualTo(CacheCircuitBreaker.Mode.LOCAL);
+        assertThat(circuitBreaker.read(() -> "remote", () -> "local")).isEqualTo("local");
+        assertThat(circuitBreaker.write(() -> {})).isFalse();
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.getMode()).isEqualTo(CacheCircuitBreaker.Mode.REMOTE);
+        assertThat(circuitBreaker.read(() -> "remote", () -> "local")).isEqualTo("remote");
+        assertThat(meterRegistry.get("cache.mode").tag("mode", "remote").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.mode").tag("mode", "local").gauge().value()).isZero();
+    }
+
+    @Test
+    void testCachesStayLocalWhileRedisFails() {
+        when(probe.isExists()).thenThrow(new IllegalStateException("Redis is down"));
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+        assertThat(circuitBreaker.getLastFailure()).isEqualTo("Redis is down");
+    }
+
+    @Test
+    void testConsecutiveFailedReadsSwitchToLocal() {
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.read(this::fail, () -> "local")).isEqualTo("local");
+        assertThat(circuitBreaker.read(this::fail, () -> "local")).isEqualTo("local");
+        assertThat(circuitBreaker.read(() -> "remote", () -> "local")).isEqualTo("remote");
+        assertThat(circuitBreaker.read(this::fail, () -> "local")).isEqualTo("local");
+        assertThat(circuitBreaker.read(this::fail, () -> "local")).isEqualTo("local");
+        assertThat(circuitBreaker.isRemote()).isTrue();
+
+        circuitBreaker.read(this::fail, () -> "local");
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+        assertThat(circuitBreaker.read(() -> "remote", () -> "local")).isEqualTo("local");
+        assertThat(meterRegistry.get("cache.remote.failures").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void testFailedWriteSwitchesToLocal() {
+        circuitBreaker.probe();
+
+        assertThat(
+            circuitBreaker.write(() -> {
+                throw new IllegalStateException("Redis is down");
+            })
+        ).isFalse();
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+    }
+
+    @Test
+    void testReconcilersRunBeforeSwitchingToRemote() {
+        AtomicInteger attempts = new AtomicInteger();
+        circuitBreaker.onRecovery(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Redis is down");
+            }
+        });
+        LocalCache fallbackCache = circuitBreaker.fallbackCache("assets");
+        fallbackCache.put("key", "value");
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+        assertThat(fallbackCache.get("key")).isEqualTo("value");
+
+        circuitBreaker.probe();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(circuitBreaker.isRemote()).isTrue();
+        assertThat(fallbackCache.get("key")).isNull();
+    }
+
+    private String fail() {
+        throw new IllegalStateException("Redis is down");
+    }
+}
@@ -0,0 +1,67 @@
+package be.johanaerens.service.cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+
+/**
+ * Test class for the {@link CacheMappingVerifier} class.
+ */
+class CacheMappingVerifierTest {
+
+    private static final String ASSET_REGION = "be.johanaerens.domain.Asset";
+
+    private static final String EMPLOYEE_REGION = "be.johanaerens.domain.Employee";
+
+    private RMap<String, String> stored;
+
+    private Cache<Object, Object> assets;
+
+    private Cache<Object, Object> employees;
+
+    private CacheMappingVerifier verifier;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stored = mock(RMap.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<String, String>getMap(CacheMappingVerifier.MAPPINGS_KEY)).thenReturn(stored);
+        assets = mock(Cache.class);
+        employees = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(ASSET_REGION)).thenReturn(assets);
+        when(cacheManager.getCache(EMPLOYEE_REGION)).thenReturn(employees);
+        verifier = new CacheMappingVerifier(cacheManager, redissonClient, mock(CacheCircuitBreaker.class));
+    }
+
+    @Test
+    void testRegionsWithAnotherMappingAreCleared() {
+        when(stored.get(ASSET_REGION)).thenReturn("previous");
+        when(stored.get(EMPLOYEE_REGION)).thenReturn("employee");
+
+        verifier.verify(Map.of(ASSET_REGION, "asset", EMPLOYEE_REGION, "employee"));
+
+        verify(assets).clear();
+        verify(stored).put(ASSET_REGION, "asset");
+        verify(employees, never()).clear();
+        verify(stored, never()).put(EMPLOYEE_REGION, "employee");
+    }
+
+    @Test
+    void testRegionsWithoutStoredMappingAreCleared() {
+        verifier.verify(Map.of(ASSET_REGION, "asset"));
+
+        verify(assets).clear();
+        verify(stored).put(ASSET_REGION, "asset");
+    }
+}
@@ -0,0 +1,272 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.cache.Cache;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+
+/**
+ * Test class for the {@link CacheRegionStorageAccess} class.
+ */
+class CacheRegionStorageAccessTest {
+
+    private Cache<Object, Object> cache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NearCache nearCache;
+
+    private HotKeyTracker hotKeyTracker;
+
+    private CacheCircuitBreaker circuitBreaker;
+
+    private CacheRegionStorageAccess storageAccess;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = mock(Cache.class);
+        when(cache.getName()).thenReturn("assets");
+        when(cache.get("cached")).thenReturn("from cache");
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = mock(NearCache.class);
+        hotKeyTracker = mock(HotKeyTracker.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString())).thenReturn(mock(RBucket.class));
+        circuitBreaker = new CacheCircuitBreaker(new ApplicationProperties(), redissonClient, meterRegistry);
+        circuitBreaker.probe();
+        storageAccess = new CacheRegionStorageAccess(cache, region(2), nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+    }
+
+    @Test
+    void testGetFromCacheWithoutPrefetch() {
+        assertThat(storageAccess.getFromCache("cached", null)).isEqualTo("from cache");
+        assertThat(storageAccess.getFromCache("missing", null)).isNull();
+        verify(hotKeyTracker).record("assets", "missing");
+        verify(hotKeyTracker, never()).record("assets", "cached");
+
+        assertThat(meterRegistry.get("cache.region.gets").tag("cache", "assets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.region.gets").tag("cache", "assets").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.region.latency").tag("cache", "assets").tag("operation", "get").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetFromCacheServesThePrefetchedEntries() {
+        Object result = CachePrefetch.withPrefetched("assets", Map.of("cached", "prefetched"), () ->
+            storageAccess.getFromCache("cached", null)
+        );
+
+        assertThat(result).isEqualTo("prefetched");
+        verify(cache, never()).get("cached");
+    }
+
+    @Test
+    void testGetFromCacheMissesTheKeysNotPrefetched() {
+        Object result = CachePrefetch.withPrefetched("assets", Map.of(), () -> storageAccess.getFromCache("cached", null));
+
+        assertThat(result).isNull();
+        verify(cache, never()).get("cached");
+    }
+
+    @Test
+    void testGetFromCacheIgnoresTheEntriesPrefetchedFromOtherCaches() {
+        Object result = CachePrefetch.withPrefetched("employees", Map.of("cached", "prefetched"), () ->
+            storageAccess.getFromCache("cached", null)
+        );
+
+        assertThat(result).isEqualTo("from cache");
+    }
+
+    @Test
+    void testPrefetchedEntriesAreDroppedAfterTheLoad() {
+        CachePrefetch.withPrefetched("assets", Map.of("cached", "prefetched"), () -> null);
+
+        assertThat(storageAccess.getFromCache("cached", null)).isEqualTo("from cache");
+    }
+
+    @Test
+    void testEntriesLoadedWithinAPrefetchArePutTogetherWithoutInvalidation() {
+        Map<Object, Object> put = new HashMap<>();
+
+        CachePrefetch.withPrefetched(
+            "assets",
+            Map.of("cached", "prefetched"),
+            () -> {
+                storageAccess.putIntoCache("missing", "loaded", null);
+                storageAccess.putIntoCache("cached", "changed", null);
+                return null;
+            },
+            put::putAll
+        );
+
+        assertThat(put).containsExactly(Map.entry("missing", "loaded"));
+        verify(cache, never()).put(eq("missing"), any());
+        verify(nearCache, never()).invalidate("assets", "missing");
+        verify(cache).put("cached", "changed");
+        assertThat(meterRegistry.get("cache.region.puts").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testPutIntoCacheEvictsTheLeastRecentlyUsedEntries() {
+        when(cache.get("first")).thenReturn("1");
+        storageAccess.putIntoCache("first", "1", null);
+        storageAccess.putIntoCache("second", "2", null);
+        storageAccess.getFromCache("first", null);
+        storageAccess.putIntoCache("third", "3", null);
+
+        verify(cache).remove("second");
+        verify(cache, never()).remove("first");
+        assertThat(meterRegistry.get("cache.region.puts").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.region.evictions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemovedEntriesAreNotEvictedAgain() {
+        storageAccess.putIntoCache("first", "1", null);
+        storageAccess.putIntoCache("second", "2", null);
+        storageAccess.removeFromCache("first", null);
+        storageAccess.putIntoCache("third", "3", null);
+
+        assertThat(meterRegistry.get("cache.region.evictions").counter().count()).isZero();
+    }
+
+    @Test
+    void testGetFromCacheReadsTheNearCacheFirst() {
+        when(nearCache.localCache("assets")).thenReturn(new LocalCache("assets", 10, Duration.ofMinutes(1), meterRegistry));
+        storageAccess = new CacheRegionStorageAccess(cache, region(0), nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+
+        assertThat(storageAccess.getFromCache("cached", null)).isEqualTo("from cache");
+        assertThat(storageAccess.getFromCache("cached", null)).isEqualTo("from cache");
+
+        verify(cache, times(1)).get("cached");
+    }
+
+    @Test
+    void testPutIntoCacheInvalidatesTheNearCaches() {
+        when(nearCache.localCache("assets")).thenReturn(new LocalCache("assets", 10, Duration.ofMinutes(1), meterRegistry));
+        storageAccess = new CacheRegionStorageAccess(cache, region(0), nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+
+        storageAccess.putIntoCache("cached", "put", null);
+
+        verify(nearCache).invalidate("assets", "cached");
+        assertThat(storageAccess.getFromCache("cached", null)).isEqualTo("put");
+        verify(cache, never()).get("cached");
+    }
+
+    @Test
+    void testRemoveFromCacheInvalidatesTheNearCaches() {
+        storageAccess.removeFromCache("cached", null);
+        storageAccess.evictData();
+
+        verify(nearCache).invalidate("assets", "cached");
+        verify(nearCache).clear("assets");
+    }
+
+    @Test
+    void testConcurrentMissesLoadTheEntryOnce() throws Exception {
+        when(cache.get("loaded")).thenReturn(null, null, "loaded");
+        storageAccess = new CacheRegionStorageAccess(cache, region(0), nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+
+        assertThat(storageAccess.getFromCache("loaded", null)).isNull();
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        CompletableFuture<Object> waited = CompletableFuture.supplyAsync(() -> {
+            waiter.set(Thread.currentThread());
+            return storageAccess.getFromCache("loaded", null);
+        });
+        while (waiter.get() == null || waiter.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        storageAccess.putIntoCache("loaded", "loaded", null);
+
+        assertThat(waited.get()).isEqualTo("loaded");
+        assertThat(meterRegistry.get("cache.region.coalesced.loads").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testLoadsOfEntriesNeverPutAreDroppedOnceExpired() throws Exception {
+        ApplicationProperties.Cache.Region region = region(0);
+        region.setLoadWaitTimeout(Duration.ofMillis(1));
+        storageAccess = new CacheRegionStorageAccess(cache, region, nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+
+        for (int i = 0; i < 256; i++) {
+            assertThat(storageAccess.getFromCache("missing-" + i, null)).isNull();
+        }
+        Thread.sleep(10);
+        for (int i = 256; i < 512; i++) {
+            assertThat(storageAccess.getFromCache("missing-" + i, null)).isNull();
+        }
+
+        assertThat(storageAccess.inFlightLoads()).isLessThanOrEqualTo(256);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHotEntriesAreRefreshedEarlyByASingleReader() throws Exception {
+        MutableConfiguration<Object, Object> configuration = new MutableConfiguration<>();
+        configuration.setExpiryPolicyFactory(FactoryBuilder.factoryOf(new JitteredExpiryPolicy(Duration.ZERO, 0, false)));
+        when(cache.getConfiguration(CompleteConfiguration.class)).thenReturn(configuration);
+        when(cache.get("hot")).thenReturn(new CachedValue("hot", System.currentTimeMillis(), 0));
+        storageAccess = new CacheRegionStorageAccess(cache, region(0), nearCache, hotKeyTracker, circuitBreaker, meterRegistry);
+
+        assertThat(storageAccess.getFromCache("hot", null)).isNull();
+        assertThat(storageAccess.getFromCache("hot", null)).isNull();
+        assertThat(CompletableFuture.supplyAsync(() -> storageAccess.getFromCache("hot", null)).get()).isEqualTo("hot");
+        assertThat(meterRegistry.get("cache.region.early.refreshes").counter().count()).isEqualTo(1);
+
+        storageAccess.putIntoCache("hot", "refreshed", null);
+
+        verify(cache).put(eq("hot"), any(CachedValue.class));
+    }
+
+    @Test
+    void testEntriesAreKeptLocallyWhileRedisIsUnavailable() {
+        doThrow(new IllegalStateException("Redis is down")).when(cache).put(eq("changed"), any());
+
+        storageAccess.putIntoCache("changed", "new", null);
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+        assertThat(storageAccess.getFromCache("changed", null)).isEqualTo("new");
+        verify(cache, never()).get("changed");
+    }
+
+    @Test
+    void testRegionChangedWhileRedisWasUnavailableIsClearedWhenItIsBack() {
+        doThrow(new IllegalStateException("Redis is down")).when(cache).put(eq("changed"), any());
+        storageAccess.putIntoCache("changed", "new", null);
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.isRemote()).isTrue();
+        verify(cache).clear();
+        assertThat(storageAccess.getFromCache("changed", null)).isNull();
+    }
+
+    private static ApplicationProperties.Cache.Region region(int maxEntries) {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setMaxEntries(maxEntries);
+        region.setLoadWaitTimeout(Duration.ofSeconds(10));
+        return region;
+    }
+}
@@ -0,0 +1,92 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.johanaerens.domain.enumeration.Status;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.SerializationCodec;
+
+/**
+ * Test class for the {@link CompactCacheCodec} class.
+ */
+class CompactCacheCodecTest {
+
+    private final CompactCacheCodec codec = new CompactCacheCodec(1024);
+
+    @Test
+    void testDecodeReturnsTheEncodedValue() throws IOException {
+        Serializable[] state = entityState();
+
+        assertThat((Object[]) roundTrip(codec, state)).containsExactly(state);
+        assertThat(roundTrip(codec, 42L)).isEqualTo(42L);
+        assertThat(roundTrip(codec, "ASSET-0001")).isEqualTo("ASSET-0001");
+        assertThat(roundTrip(codec, null)).isNull();
+    }
+
+    @Test
+    void testEncodeIsMoreCompactThanJavaSerialization() throws IOException {
+        Serializable[] state = entityState();
+
+        assertThat(encodedSize(codec, state)).isLessThan(encodedSize(new SerializationCodec(), state) / 2);
+    }
+
+    @Test
+    void testEncodeCompressesTheLargeEntries() throws IOException {
+        ArrayList<Long> ids = new ArrayList<>(LongStream.range(1000, 2000).boxed().toList());
+
+        assertThat(roundTrip(codec, ids)).isEqualTo(ids);
+        assertThat(encodedSize(codec, ids)).isLessThan(encodedSize(new CompactCacheCodec(0), ids));
+    }
+
+    @Test
+    void testDecodeIgnoresTheEntriesOfAnotherCodec() throws IOException {
+        ByteBuf buf = new SerializationCodec().getValueEncoder().encode(entityState());
+        try {
+            assertThat(codec.getValueDecoder().decode(buf, null)).isNull();
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Serializable[] entityState() {
+        return new Serializable[] {
+            1L,
+            0L,
+            "ASSET-0001",
+            "Lenovo",
+            "ThinkPad T14",
+            "SN-0001",
+            Instant.parse("2024-01-15T00:00:00Z"),
+            Instant.parse("2027-01-15T00:00:00Z"),
+            new BigDecimal("1299.99"),
+            Status.IN_USE,
+            1001L,
+        };
+    }
+
+    private static Object roundTrip(Codec codec, Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return codec.getValueDecoder().decode(buf, null);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static int encodedSize(Codec codec, Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.johanaerens.service.cache.FrequencySketch.HotKey;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link FrequencySketch} class.
+ */
+class FrequencySketchTest {
+
+    @Test
+    void testFrequencyIsNeverUnderestimated() {
+        FrequencySketch sketch = new FrequencySketch(1024, 10);
+        for (long id = 0; id < 100; id++) {
+            for (int i = 0; i < id % 5; i++) {
+                sketch.increment(id);
+            }
+        }
+
+        for (long id = 0; id < 100; id++) {
+            assertThat(sketch.frequency(id)).isGreaterThanOrEqualTo((int) (id % 5));
+        }
+        assertThat(sketch.frequency(1000L)).isLessThan(5);
+    }
+
+    @Test
+    void testTopKeysAreTheMostFrequentlyRead() {
+        FrequencySketch sketch = new FrequencySketch(1024, 2);
+        read(sketch, "cold", 1);
+        read(sketch, "warm", 3);
+        read(sketch, "hot", 5);
+        read(sketch, "cool", 2);
+
+        assertThat(sketch.topKeys()).extracting(HotKey::key).containsExactly("hot", "warm");
+        assertThat(sketch.topKeys()).extracting(HotKey::frequency).containsExactly(5, 3);
+    }
+
+    @Test
+    void testFrequenciesAreHalvedEverySamplePeriod() {
+        FrequencySketch sketch = new FrequencySketch(2, 1);
+        read(sketch, "hot", 19);
+
+        assertThat(sketch.frequency("hot")).isEqualTo(19);
+
+        sketch.increment("hot");
+
+        assertThat(sketch.frequency("hot")).isEqualTo(10);
+        assertThat(sketch.topKeys()).containsExactly(new HotKey("hot", 10));
+    }
+
+    private void read(FrequencySketch sketch, Object key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.increment(key);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.johanaerens.IntegrationTest;
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the hot keys published to Redis by several instances of the {@link HotKeyTracker}.
+ */
+@IntegrationTest
+class HotKeyTrackerIT {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final long period = applicationProperties.getCache().getHotKeys().getPublishedPeriod().toMillis();
+
+    private String cacheName;
+
+    private HotKeyTracker first;
+
+    private HotKeyTracker second;
+
+    @BeforeEach
+    void initTest() {
+        cacheName = "hot-key-tracker-" + UUID.randomUUID();
+        first = newInstance();
+        second = newInstance();
+    }
+
+    @Test
+    void testHighestFrequencyOfAllTheInstancesIsKept() {
+        read(first, 1L, 5);
+        read(first, 2L, 1);
+        read(second, 1L, 1);
+        read(second, 2L, 3);
+        read(second, 3L, 2);
+
+        first.publish(NOW);
+        // Publishing last must not lower the frequency of the keys read more often by the first instance
+        second.publish(NOW);
+
+        assertThat(first.publishedTopKeys(cacheName, NOW)).containsExactly(1L, 2L, 3L);
+        assertThat(second.publishedTopKeys(cacheName, NOW)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testKeysNotReadAnymoreAgeOut() {
+        read(first, 1L, 5);
+        first.publish(NOW);
+        read(second, 2L, 1);
+        second.publish(NOW + period);
+
+        // The keys of the previous period come after the keys of the current one
+        assertThat(first.publishedTopKeys(cacheName, NOW + period)).containsExactly(2L, 1L);
+        assertThat(first.publishedTopKeys(cacheName, NOW + 2 * period)).containsExactly(2L);
+        assertThat(first.publishedTopKeys(cacheName, NOW + 3 * period)).isEmpty();
+    }
+
+    private HotKeyTracker newInstance() {
+        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(applicationProperties, redissonClient, new SimpleMeterRegistry());
+        circuitBreaker.probe();
+        return new HotKeyTracker(applicationProperties, redissonClient, circuitBreaker);
+    }
+
+    private void read(HotKeyTracker instance, Long key, int times) {
+        for (int i = 0; i < times; i++) {
+            instance.record(cacheName, key);
+        }
+    }
+}
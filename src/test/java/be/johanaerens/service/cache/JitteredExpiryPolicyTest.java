@@ -0,0 +1,40 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link JitteredExpiryPolicy} class.
+ */
+class JitteredExpiryPolicyTest {
+
+    @Test
+    void testTimesToLiveAreShortenedByUpToTheJitter() {
+        JitteredExpiryPolicy expiryPolicy = new JitteredExpiryPolicy(Duration.ofSeconds(3600), 0.1, false);
+
+        long distinctTimesToLive = IntStream.range(0, 100)
+            .mapToLong(i -> expiryPolicy.getExpiryForCreation().getAdjustedTime(0))
+            .peek(timeToLive -> assertThat(timeToLive).isBetween(3_240_000L, 3_600_000L))
+            .distinct()
+            .count();
+
+        assertThat(distinctTimesToLive).isGreaterThan(1);
+        assertThat(expiryPolicy.getMinimumTimeToLive()).isEqualTo(Duration.ofSeconds(3240));
+    }
+
+    @Test
+    void testTimesToLiveStartAgainOnAccessOnlyWhenRefreshedOnAccess() {
+        assertThat(new JitteredExpiryPolicy(Duration.ofMinutes(10), 0.1, false).getExpiryForAccess()).isNull();
+        assertThat(new JitteredExpiryPolicy(Duration.ofMinutes(10), 0.1, true).getExpiryForAccess()).isNotNull();
+        assertThat(new JitteredExpiryPolicy(Duration.ofMinutes(10), 0.1, true).getExpiryForUpdate()).isNull();
+    }
+
+    @Test
+    void testJitterMustBeAFraction() {
+        assertThatThrownBy(() -> new JitteredExpiryPolicy(Duration.ofMinutes(10), 1, false)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
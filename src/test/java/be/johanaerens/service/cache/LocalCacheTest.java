@@ -0,0 +1,115 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LocalCache} class.
+ */
+class LocalCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LocalCache localCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        localCache = new LocalCache("assets", 2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void testGetReturnsThePutEntries() {
+        localCache.put("key", "value");
+
+        assertThat(localCache.get("key")).isEqualTo("value");
+        assertThat(localCache.get("other")).isNull();
+        assertThat(meterRegistry.get("cache.near.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.near.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPutEvictsTheLeastRecentlyUsedEntry() {
+        localCache.put("first", "1");
+        localCache.put("second", "2");
+        localCache.get("first");
+        localCache.put("third", "3");
+
+        assertThat(localCache.get("first")).isEqualTo("1");
+        assertThat(localCache.get("second")).isNull();
+        assertThat(localCache.get("third")).isEqualTo("3");
+        assertThat(meterRegistry.get("cache.near.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void testAdmissionKeepsTheLeastRecentlyUsedEntryOverAColderOne() {
+        localCache = new LocalCache(
+            "cache.near",
+            "assets",
+            2,
+            Duration.ofMinutes(1),
+            (candidate, victim) -> !"cold".equals(candidate),
+            meterRegistry
+        );
+        localCache.put("first", "1");
+        localCache.put("second", "2");
+        localCache.put("cold", "3");
+
+        assertThat(localCache.get("first")).isEqualTo("1");
+        assertThat(localCache.get("cold")).isNull();
+        assertThat(meterRegistry.get("cache.near.rejections").counter().count()).isEqualTo(1);
+
+        localCache.put("hot", "4");
+
+        assertThat(localCache.get("second")).isNull();
+        assertThat(localCache.get("hot")).isEqualTo("4");
+    }
+
+    @Test
+    void testEntriesExpire() {
+        localCache = new LocalCache("assets", 2, Duration.ZERO, meterRegistry);
+        localCache.put("key", "value");
+
+        assertThat(localCache.get("key")).isNull();
+        assertThat(localCache.size()).isZero();
+    }
+
+    @Test
+    void testPutIfUnchangedKeepsTheEntryReadWithoutConcurrentChange() {
+        long version = localCache.version();
+        localCache.putIfUnchanged("key", "read", version);
+
+        assertThat(localCache.get("key")).isEqualTo("read");
+    }
+
+    @Test
+    void testPutIfUnchangedDropsTheEntryReadBeforeAnInvalidation() {
+        long version = localCache.version();
+        localCache.remove("key");
+        localCache.putIfUnchanged("key", "stale", version);
+
+        assertThat(localCache.get("key")).isNull();
+    }
+
+    @Test
+    void testPutIfUnchangedDropsTheEntryReadBeforeAWrite() {
+        long version = localCache.version();
+        localCache.put("key", "written");
+        localCache.putIfUnchanged("key", "stale", version);
+
+        assertThat(localCache.get("key")).isEqualTo("written");
+    }
+
+    @Test
+    void testClearRemovesAllTheEntries() {
+        localCache.put("first", "1");
+        localCache.put("second", "2");
+        localCache.clear();
+
+        assertThat(localCache.size()).isZero();
+    }
+}
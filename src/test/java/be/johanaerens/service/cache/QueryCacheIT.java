@@ -0,0 +1,193 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.johanaerens.IntegrationTest;
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.domain.enumeration.Status;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.service.AssetStatusTransitionService;
+import be.johanaerens.service.csvimport.CsvImportService;
+import be.johanaerens.service.csvimport.CsvImportTarget;
+import be.johanaerens.service.dto.AssetStatusTransitionDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the query cache regions of the {@link AssetRepository}, with the second-level and query caches
+ * enabled like in production.
+ * <p>
+ * The tests do not run in a test transaction: the query results are cached, and invalidated, when the transactions commit.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    }
+)
+class QueryCacheIT {
+
+    private static final Sort SORT = Sort.by("id");
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AssetStatusTransitionService assetStatusTransitionService;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    private Asset asset;
+
+    @BeforeEach
+    void initTest() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        String unique = "QUERY-CACHE-" + UUID.randomUUID();
+        employee = employeeRepository.saveAndFlush(new Employee().firstName("Query").lastName("Cache").employeeNumber(unique));
+        asset = assetRepository.saveAndFlush(
+            new Asset().number(unique).serialNumber(unique).brand("brand").status(Status.NEW).employee(employee)
+        );
+        // The update timestamps have a millisecond resolution: results cached in the millisecond of the inserts are stale
+        long inserted = sessionFactory.getCache().getRegionFactory().nextTimestamp();
+        while (sessionFactory.getCache().getRegionFactory().nextTimestamp() <= inserted) {
+            Thread.onSpinWait();
+        }
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        statistics.setStatisticsEnabled(false);
+        assetRepository.deleteById(asset.getId());
+        employeeRepository.deleteById(employee.getId());
+    }
+
+    @Test
+    void assetsOfAnEmployeeAreReadFromTheQueryCache() {
+        assertThat(assetRepository.findAllByEmployeeId(employee.getId(), SORT)).extracting(Asset::getId).containsExactly(asset.getId());
+        assertThat(assetRepository.findAllByEmployeeId(employee.getId(), SORT)).extracting(Asset::getId).containsExactly(asset.getId());
+
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(AssetRepository.ASSETS_BY_EMPLOYEE_QUERY_CACHE);
+        assertThat(region.getPutCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unassignedAssetsAreReadFromTheQueryCache() {
+        assetRepository.findAllByEmployeeIsNull(SORT);
+        assetRepository.findAllByEmployeeIsNull(SORT);
+
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(AssetRepository.UNASSIGNED_ASSETS_QUERY_CACHE);
+        assertThat(region.getPutCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedResultsAreInvalidatedByAnEntityUpdate() {
+        assetRepository.findAllByEmployeeId(employee.getId(), SORT);
+
+        asset = assetRepository.saveAndFlush(asset.brand("updated"));
+
+        assertThat(assetRepository.findAllByEmployeeId(employee.getId(), SORT)).extracting(Asset::getBrand).containsExactly("updated");
+        assertStale(AssetRepository.ASSETS_BY_EMPLOYEE_QUERY_CACHE);
+    }
+
+    @Test
+    void cachedResultsAreInvalidatedByAStatusTransition() {
+        assetRepository.findAllByEmployeeId(employee.getId(), SORT);
+
+        AssetStatusTransitionDTO transition = new AssetStatusTransitionDTO();
+        transition.setIds(Set.of(asset.getId()));
+        transition.setStatus(Status.IN_USE);
+        assertThat(assetStatusTransitionService.transition(transition)).isEqualTo(1);
+
+        assertThat(assetRepository.findAllByEmployeeId(employee.getId(), SORT))
+            .extracting(Asset::getStatus)
+            .containsExactly(Status.IN_USE);
+        assertStale(AssetRepository.ASSETS_BY_EMPLOYEE_QUERY_CACHE);
+    }
+
+    @Test
+    void cachedResultsAreInvalidatedByACsvImport() throws Exception {
+        List<Long> unassignedIds = assetRepository.findAllByEmployeeIsNull(SORT).stream().map(Asset::getId).toList();
+        String number = "QUERY-CACHE-CSV-" + UUID.randomUUID();
+        String csv = "number;serial_number;status\n" + number + ";" + number + ";NEW\n";
+
+        try {
+            assertThat(csvImportService.importCsv(CsvImportTarget.ASSET, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                .extracting("imported")
+                .isEqualTo(1L);
+
+            List<Asset> unassigned = assetRepository.findAllByEmployeeIsNull(SORT);
+            assertThat(unassigned).hasSize(unassignedIds.size() + 1).extracting(Asset::getNumber).contains(number);
+            assertStale(AssetRepository.UNASSIGNED_ASSETS_QUERY_CACHE);
+        } finally {
+            assetRepository.deleteAll(assetRepository.findAll().stream().filter(a -> number.equals(a.getNumber())).toList());
+        }
+    }
+
+    @Test
+    void updateTimestampsAreSharedWithTheOtherInstances() {
+        Cache<Object, Object> timestamps = cacheManager.getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+        long beforeUpdate = sessionFactory.getCache().getRegionFactory().nextTimestamp();
+
+        // The timestamps written by this instance are read by the others from Redis
+        asset = assetRepository.saveAndFlush(asset.brand("updated"));
+        Object written = timestamps.get("asset");
+        assertThat(written).isInstanceOf(Long.class);
+        assertThat((Long) written).isGreaterThanOrEqualTo(beforeUpdate);
+
+        // The results cached by this instance are stale once another instance, with its own session factory, wrote the table
+        assetRepository.findAllByEmployeeId(employee.getId(), SORT);
+        timestamps.put("asset", sessionFactory.getCache().getRegionFactory().nextTimestamp() + 1);
+        assetRepository.findAllByEmployeeId(employee.getId(), SORT);
+
+        assertStale(AssetRepository.ASSETS_BY_EMPLOYEE_QUERY_CACHE);
+    }
+
+    /**
+     * Assert that the results cached before a change of the table were not returned, and were cached again.
+     */
+    private void assertStale(String regionName) {
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(regionName);
+        assertThat(region.getHitCount()).isZero();
+        assertThat(region.getPutCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,93 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Test class for the {@link SingleFlightCache} class.
+ */
+class SingleFlightCacheTest {
+
+    private final ConcurrentMapCache delegate = new ConcurrentMapCache("usersByLogin");
+
+    @Test
+    void testConcurrentMissesLoadTheValueOnce() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, 1);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> callers = IntStream.range(0, 4)
+            .mapToObj(i ->
+                CompletableFuture.supplyAsync(() ->
+                    cache.get("admin", () -> {
+                        loads.incrementAndGet();
+                        loading.await(1, TimeUnit.SECONDS);
+                        return "loaded";
+                    })
+                )
+            )
+            .toList();
+        Thread.sleep(100);
+        loading.countDown();
+
+        for (CompletableFuture<String> caller : callers) {
+            assertThat(caller.get()).isEqualTo("loaded");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("admin", String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    void testLoadFailuresAreNotCached() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, 1);
+
+        assertThatThrownBy(() ->
+            cache.get("admin", () -> {
+                throw new IllegalStateException("database down");
+            })
+        ).isInstanceOf(Cache.ValueRetrievalException.class);
+        assertThat(cache.get("admin", () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void testValuesAreStoredWithTheirRefreshTime() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, new JitteredExpiryPolicy(Duration.ofHours(1), 0.1, false), 1);
+
+        cache.put("admin", "cached");
+
+        assertThat(delegate.get("admin").get()).isInstanceOf(CachedValue.class);
+        assertThat(cache.get("admin").get()).isEqualTo("cached");
+        assertThat(cache.get("admin", () -> "loaded")).isEqualTo("cached");
+    }
+
+    @Test
+    void testValuesDueForRefreshAreLoadedAgain() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, new JitteredExpiryPolicy(Duration.ZERO, 0, false), 1);
+
+        cache.put("admin", "cached");
+
+        assertThat(cache.get("admin", () -> "refreshed")).isEqualTo("refreshed");
+        assertThat(cache.get("admin").get()).isEqualTo("refreshed");
+    }
+
+    @Test
+    void testValuesAreNotRefreshedWithoutEarlyRefresh() {
+        SingleFlightCache cache = new SingleFlightCache(delegate, new JitteredExpiryPolicy(Duration.ZERO, 0, false), 0);
+
+        cache.put("admin", "cached");
+
+        assertThat(delegate.get("admin").get()).isEqualTo("cached");
+        assertThat(cache.get("admin", () -> "refreshed")).isEqualTo("cached");
+    }
+}
@@ -0,0 +1,82 @@
+package be.johanaerens.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import be.johanaerens.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+
+/**
+ * Test class for the {@link TimestampsStorageAccess} class.
+ */
+class TimestampsStorageAccessTest {
+
+    private StorageAccess delegate;
+
+    private CacheCircuitBreaker circuitBreaker;
+
+    private TimestampsStorageAccess storageAccess;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delegate = mock(StorageAccess.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString())).thenReturn(mock(RBucket.class));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CacheCircuitBreaker(new ApplicationProperties(), redissonClient, meterRegistry);
+        circuitBreaker.probe();
+        storageAccess = new TimestampsStorageAccess(delegate, "default-update-timestamps-region", () -> 42L, circuitBreaker, meterRegistry);
+    }
+
+    @Test
+    void testTimestampsAreWrittenToRedis() {
+        when(delegate.getFromCache("asset", null)).thenReturn(7L);
+
+        storageAccess.putIntoCache("asset", 8L, null);
+
+        verify(delegate).putIntoCache("asset", 8L, null);
+        assertThat(storageAccess.getFromCache("asset", null)).isEqualTo(7L);
+    }
+
+    @Test
+    void testTablesChangedWhileLocalAreTimestampedOnRecovery() {
+        doThrow(new IllegalStateException("Redis is down")).when(delegate).putIntoCache("asset", 8L, null);
+
+        storageAccess.putIntoCache("asset", 8L, null);
+
+        assertThat(circuitBreaker.isRemote()).isFalse();
+        assertThat(storageAccess.getFromCache("asset", null)).isEqualTo(8L);
+        verify(delegate, never()).putIntoCache("asset", 42L, null);
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.isRemote()).isTrue();
+        verify(delegate).putIntoCache("asset", 42L, null);
+    }
+
+    @Test
+    void testTablesNotChangedWhileLocalAreLeftAlone() {
+        doThrow(new IllegalStateException("Redis is down")).when(delegate).getFromCache("asset", null);
+        for (int i = 0; i < new ApplicationProperties().getCache().getFallback().getFailureThreshold(); i++) {
+            storageAccess.getFromCache("asset", null);
+        }
+        assertThat(circuitBreaker.isRemote()).isFalse();
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.isRemote()).isTrue();
+        verify(delegate, never()).putIntoCache(any(), any(), any());
+    }
+}
@@ -0,0 +1,69 @@
+package be.johanaerens.service.csvimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.johanaerens.service.csvimport.CsvImportService.Chunk;
+import be.johanaerens.service.csvimport.CsvImportService.ParsedChunk;
+import be.johanaerens.service.csvimport.CsvRecordReader.CsvRecord;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the parsers of the {@link CsvImportService} class.
+ */
+class CsvImportServiceTest {
+
+    private static final int[] FIELDS = { -1, 0 };
+
+    @Test
+    void testRowFailingUnexpectedlyIsRejected() {
+        List<CsvColumn> columns = columns(value -> {
+            if ("bad".equals(value)) {
+                throw new IllegalStateException("unexpected");
+            }
+            return value;
+        });
+
+        Chunk chunk = new Chunk(List.of(new CsvRecord(2, "good"), new CsvRecord(3, "bad")));
+
+        ParsedChunk parsed = CsvImportService.parse(columns, FIELDS, 1, chunk);
+
+        assertThat(parsed.read()).isEqualTo(2);
+        assertThat(parsed.rows()).hasSize(1);
+        assertThat(parsed.lines()).containsExactly(2L);
+        assertThat(parsed.errors()).singleElement().satisfies(error -> {
+            assertThat(error.line()).isEqualTo(3);
+            assertThat(error.message()).contains("value").contains("unexpected");
+        });
+        assertThat(parsed.failure()).isNull();
+    }
+
+    @Test
+    void testFailingParserHandsItsFailureToTheWriter() throws Exception {
+        AssertionError failure = new AssertionError("parser bug");
+        List<CsvColumn> columns = columns(value -> {
+            throw failure;
+        });
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(2);
+        BlockingQueue<ParsedChunk> parsedChunks = new ArrayBlockingQueue<>(2);
+        chunks.put(new Chunk(List.of(new CsvRecord(2, "value"))));
+
+        Thread parser = new Thread(() -> CsvImportService.parse(columns, FIELDS, 1, chunks, parsedChunks));
+        parser.start();
+
+        ParsedChunk parsed = parsedChunks.poll(10, TimeUnit.SECONDS);
+        assertThat(parsed).isNotNull();
+        assertThat(parsed.failure()).isSameAs(failure);
+        parser.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(parser.isAlive()).isFalse();
+    }
+
+    private static List<CsvColumn> columns(Function<String, Object> converter) {
+        return List.of(CsvColumn.ID, new CsvColumn("value", Types.VARCHAR, CsvColumn.MAX_STRING_LENGTH, 0, converter));
+    }
+}
@@ -0,0 +1,43 @@
+package be.johanaerens.service.csvimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.johanaerens.service.csvimport.CsvRecordReader.CsvRecord;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link CsvRecordReader} class.
+ */
+class CsvRecordReaderTest {
+
+    @Test
+    void testNextSkipsBlankLinesAndJoinsQuotedLines() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\uFEFFid;comments\n\n1;\"two\nlines\"\n2;one line\n"));
+
+        assertThat(reader.next()).isEqualTo(new CsvRecord(1, "id;comments"));
+        assertThat(reader.next()).isEqualTo(new CsvRecord(3, "1;\"two\nlines\""));
+        assertThat(reader.next()).isEqualTo(new CsvRecord(5, "2;one line"));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void testSplit() {
+        assertThat(CsvRecordReader.split("1;;\"a;b\";\"say \"\"hi\"\"\"")).containsExactly("1", "", "a;b", "say \"hi\"");
+    }
+
+    @Test
+    void testSplitUnclosedQuote() {
+        assertThatThrownBy(() -> CsvRecordReader.split("1;\"open")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testEnumerationColumn() {
+        CsvColumn status = CsvImportTarget.ASSET.getColumns().get(CsvImportTarget.ASSET.getColumns().size() - 1);
+
+        assertThat(status.convert("")).isNull();
+        assertThat(status.convert("NEW")).isEqualTo("NEW");
+        assertThatThrownBy(() -> status.convert("BROKEN")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package be.johanaerens.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link PrefixIndex} class.
+ */
+class PrefixIndexTest {
+
+    private PrefixIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex<>(value -> Stream.of(value.split("\\|")));
+        index.putAll(Map.of(1L, "John Doe|E-0001", 2L, "Jane Doe|E-0002", 3L, "Jérôme Dupont|E-0003"));
+    }
+
+    @Test
+    void testSuggestMatchesEveryWord() {
+        assertThat(index.suggest("jo", 10)).containsExactly("John Doe|E-0001");
+        assertThat(index.suggest("doe", 10)).containsExactly("John Doe|E-0001", "Jane Doe|E-0002");
+        assertThat(index.suggest("john d", 10)).containsExactly("John Doe|E-0001");
+        assertThat(index.suggest("e 0003", 10)).containsExactly("Jérôme Dupont|E-0003");
+    }
+
+    @Test
+    void testSuggestIgnoresCaseAndAccents() {
+        assertThat(index.suggest("JERO", 10)).containsExactly("Jérôme Dupont|E-0003");
+    }
+
+    @Test
+    void testSuggestReturnsEachValueOnce() {
+        index.put(4, "Dave Doe|E-0004");
+
+        assertThat(index.suggest("d", 10)).containsExactly(
+            "Dave Doe|E-0004",
+            "John Doe|E-0001",
+            "Jane Doe|E-0002",
+            "Jérôme Dupont|E-0003"
+        );
+    }
+
+    @Test
+    void testSuggestOrdersByKey() {
+        assertThat(index.suggest("j", 10)).containsExactly("Jane Doe|E-0002", "Jérôme Dupont|E-0003", "John Doe|E-0001");
+    }
+
+    @Test
+    void testSuggestStopsAtLimit() {
+        assertThat(index.suggest("j", 2)).containsExactly("Jane Doe|E-0002", "Jérôme Dupont|E-0003");
+        assertThat(index.suggest("j", 0)).isEmpty();
+    }
+
+    @Test
+    void testSuggestWithoutPrefix() {
+        assertThat(index.suggest(" ", 10)).isEmpty();
+        assertThat(index.suggest(null, 10)).isEmpty();
+    }
+
+    @Test
+    void testPutReplacesPreviousKeys() {
+        index.put(1, "Johnny Smith|E-0001");
+
+        assertThat(index.suggest("doe", 10)).containsExactly("Jane Doe|E-0002");
+        assertThat(index.suggest("smi", 10)).containsExactly("Johnny Smith|E-0001");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(2);
+        index.remove(42);
+
+        assertThat(index.suggest("doe", 10)).containsExactly("John Doe|E-0001");
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,97 @@
+package be.johanaerens.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import be.johanaerens.service.cache.CacheCircuitBreaker;
+import be.johanaerens.service.search.SearchIndexSynchronizer.ChangeType;
+import be.johanaerens.service.search.SearchIndexSynchronizer.IndexChange;
+import be.johanaerens.service.search.SearchIndexSynchronizer.IndexListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+/**
+ * Test class for the {@link SearchIndexSynchronizer} class.
+ */
+class SearchIndexSynchronizerTest {
+
+    private static final String INDEX = "search.Asset";
+
+    private RTopic topic;
+
+    private CacheCircuitBreaker circuitBreaker;
+
+    private IndexListener listener;
+
+    private SearchIndexSynchronizer synchronizer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        topic = mock(RTopic.class);
+        RFuture<Object> future = mock(RFuture.class, Answers.RETURNS_SELF);
+        when(topic.addListenerAsync(any(), any())).thenReturn((RFuture) future);
+        when(topic.publishAsync(any())).thenReturn((RFuture) future);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(SearchIndexSynchronizer.CHANGE_TOPIC)).thenReturn(topic);
+        circuitBreaker = mock(CacheCircuitBreaker.class);
+        listener = mock(IndexListener.class);
+        synchronizer = new SearchIndexSynchronizer(redissonClient, circuitBreaker, Runnable::run);
+        synchronizer.register(INDEX, listener);
+    }
+
+    @Test
+    void testChangesOfOtherInstancesAreApplied() {
+        synchronizer.receive(new IndexChange("other", INDEX, ChangeType.PUT, 1L, "document"));
+        synchronizer.receive(new IndexChange("other", INDEX, ChangeType.REMOVE, 2L, null));
+        synchronizer.receive(new IndexChange("other", INDEX, ChangeType.REBUILD, null, null));
+        synchronizer.receive(new IndexChange("other", "search.Unknown", ChangeType.REBUILD, null, null));
+
+        verify(listener).put(1L, "document");
+        verify(listener).remove(2L);
+        verify(listener).rebuild();
+    }
+
+    @Test
+    void testOwnChangesAreBroadcastButNotApplied() {
+        when(circuitBreaker.isRemote()).thenReturn(true);
+
+        synchronizer.publishPut(INDEX, 1L, "document");
+
+        ArgumentCaptor<IndexChange> published = ArgumentCaptor.forClass(IndexChange.class);
+        verify(topic).publishAsync(published.capture());
+        assertThat(published.getValue().type()).isEqualTo(ChangeType.PUT);
+        assertThat(published.getValue().document()).isEqualTo("document");
+        synchronizer.receive(published.getValue());
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void testChangesMadeWhileLocalRebuildAllTheInstancesOnRecovery() {
+        synchronizer.subscribe();
+        ArgumentCaptor<Runnable> reconciler = ArgumentCaptor.forClass(Runnable.class);
+        verify(circuitBreaker).onRecovery(reconciler.capture());
+
+        synchronizer.publishRemove(INDEX, 1L);
+
+        verify(topic, never()).publishAsync(any());
+
+        reconciler.getValue().run();
+
+        verify(topic).publish(argThat(change -> change instanceof IndexChange indexChange && indexChange.type() == ChangeType.REBUILD));
+        // Published without instance, so that this instance rebuilds its index as well
+        synchronizer.receive(new IndexChange(null, INDEX, ChangeType.REBUILD, null, null));
+        verify(listener).rebuild();
+    }
+}
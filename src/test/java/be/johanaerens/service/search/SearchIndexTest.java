@@ -0,0 +1,92 @@
+package be.johanaerens.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SearchIndex} class.
+ */
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.put(1, "LPT-0001 Dell Latitude 7440 SN-ABC12345 Cracked screen");
+        index.put(2, "LPT-0002 Lenovo ThinkPad X1 SN-XYZ98765");
+        index.put(3, "Jérôme Dupont jerome.dupont@example.com E-0042");
+    }
+
+    @Test
+    void testNormalize() {
+        assertThat(SearchIndex.normalize("  Jérôme.DUPONT@example.com ")).isEqualTo("jerome dupont example com");
+        assertThat(SearchIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void testSearchMatchesPartialWords() {
+        assertThat(index.search("2345", 10)).containsExactly(1L);
+        assertThat(index.search("think", 10)).containsExactly(2L);
+        assertThat(index.search("lpt", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testSearchRequiresAllTerms() {
+        assertThat(index.search("dell screen", 10)).containsExactly(1L);
+        assertThat(index.search("dell thinkpad", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearchIgnoresCaseAndAccents() {
+        assertThat(index.search("JEROME", 10)).containsExactly(3L);
+        assertThat(index.search("Jérô", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void testSearchChecksTheTrigramsAreContiguous() {
+        // All the trigrams of "abcxyz" are absent, but "abc" and "xyz" alone are found
+        assertThat(index.search("abcxyz", 10)).isEmpty();
+        assertThat(index.search("abc", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void testSearchShortTermsMatchWordStarts() {
+        assertThat(index.search("x1", 10)).containsExactly(2L);
+        assertThat(index.search("1", 10)).isEmpty();
+        assertThat(index.search("e", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void testSearchLimit() {
+        assertThat(index.search("sn", 1)).containsExactly(1L);
+        assertThat(index.search("", 10)).isEmpty();
+        assertThat(index.search("--", 10)).isEmpty();
+    }
+
+    @Test
+    void testPutReplacesTheDocument() {
+        index.put(1, "HP EliteBook");
+
+        assertThat(index.search("dell", 10)).isEmpty();
+        assertThat(index.search("elite", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(2);
+
+        assertThat(index.search("lpt", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testPutOutOfOrder() {
+        index.put(0, "Dell Precision");
+
+        assertThat(index.search("dell", 10)).containsExactly(0L, 1L);
+    }
+}
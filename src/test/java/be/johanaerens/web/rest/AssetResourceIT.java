@@ -3,28 +3,44 @@ package be.johanaerens.web.rest;
 import static be.johanaerens.domain.AssetAsserts.*;
 import static be.johanaerens.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import be.johanaerens.IntegrationTest;
 import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.AssetHistory;
+import be.johanaerens.domain.Employee;
 import be.johanaerens.domain.enumeration.Status;
+import be.johanaerens.repository.AssetHistoryRepository;
 import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.service.dto.AssetStatusTransitionDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -71,6 +87,9 @@ class AssetResourceIT {
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -117,6 +136,14 @@ class AssetResourceIT {
             .status(UPDATED_STATUS);
     }
 
+    /**
+     * Create an entity for this test, with a number and a serial number unique to it, for the tests creating several entities.
+     */
+    public static Asset createUniqueEntity() {
+        long unique = longCount.incrementAndGet();
+        return createEntity().number(DEFAULT_NUMBER + unique).serialNumber(DEFAULT_SERIAL_NUMBER + unique);
+    }
+
     @BeforeEach
     public void initTest() {
         asset = createEntity();
@@ -169,6 +196,188 @@ class AssetResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createAssetsInBulk() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        // The second asset has an ID, so it must be rejected
+        Asset assetWithId = createEntity().id(1L);
+
+        restAssetMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(List.of(asset, assetWithId)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.errors[0].index").value(1))
+            .andExpect(jsonPath("$.errors[0].errorKey").value("idexists"));
+
+        // Validate the Asset in the database
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createAssetsInBulkRejectingUnknownEmployeesAndUsedNaturalKeys() throws Exception {
+        Asset existing = assetRepository.saveAndFlush(createUniqueEntity());
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        List<Asset> assets = List.of(
+            asset,
+            createUniqueEntity().number(existing.getNumber()),
+            createEntity(),
+            createUniqueEntity().serialNumber(existing.getSerialNumber()),
+            createUniqueEntity().employee(new Employee().id(Long.MAX_VALUE))
+        );
+
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(assets)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.rejected").value(4))
+            .andExpect(jsonPath("$.errors[?(@.index == 1)].errorKey").value("numberexists"))
+            .andExpect(jsonPath("$.errors[?(@.index == 2)].errorKey").value("numberexists"))
+            .andExpect(jsonPath("$.errors[?(@.index == 3)].errorKey").value("serialnumberexists"))
+            .andExpect(jsonPath("$.errors[?(@.index == 4)].errorKey").value("employeenotfound"));
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createAssetsInBulkWithInvalidJson() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content("[{\"number\": \"AAA\""))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    void importAssetsFromCsv() throws Exception {
+        String number = "CSV-IMPORT";
+        String csv =
+            "id;number;brand;model;serial_number;purchase_date;warant_date;comments;status\n" +
+            "1;" + number + ";brand;model;serial;2024-11-10T02:36:27;2024-11-09T12:18:42;\"multi-line\n\"\"comment\"\"; here\";NEW\n" +
+            "2;" + number + ";brand;model;serial;2024-11-10T02:36:27;2024-11-09T12:18:42;comment;BROKEN\n";
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // The import writes in its own transactions, outside of any test transaction
+        try {
+            restAssetMockMvc
+                .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("status")));
+
+            assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+            Asset imported = assetRepository.findAll().stream().filter(a -> number.equals(a.getNumber())).findFirst().orElseThrow();
+            assertThat(imported.getComments()).isEqualTo("multi-line\n\"comment\"; here");
+            assertThat(imported.getPurchaseDate()).isEqualTo(Instant.parse("2024-11-10T02:36:27Z"));
+            assertThat(imported.getStatus()).isEqualTo(Status.NEW);
+        } finally {
+            assetRepository.deleteAll(assetRepository.findAll().stream().filter(a -> number.equals(a.getNumber())).toList());
+        }
+    }
+
+    @Test
+    void importAssetsFromCsvRejectingUsedNaturalKeys() throws Exception {
+        String number = "CSV-IMPORT-KEYS";
+        Asset existing = assetRepository.saveAndFlush(createUniqueEntity());
+        String csv =
+            "number;serial_number;status\n" +
+            existing.getNumber() + ";serial-1;NEW\n" +
+            number + ";serial-2;NEW\n" +
+            number + ";serial-3;NEW\n" +
+            number + "-2;" + existing.getSerialNumber() + ";NEW\n";
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // The import writes in its own transactions, outside of any test transaction
+        try {
+            restAssetMockMvc
+                .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(4))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].errorKey").value("numberexists"))
+                .andExpect(jsonPath("$.errors[1].line").value(4))
+                .andExpect(jsonPath("$.errors[1].errorKey").value("numberexists"))
+                .andExpect(jsonPath("$.errors[2].line").value(5))
+                .andExpect(jsonPath("$.errors[2].errorKey").value("serialnumberexists"));
+
+            assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        } finally {
+            assetRepository.deleteAll(
+                assetRepository.findAll().stream().filter(a -> a.getNumber() != null && a.getNumber().startsWith(number)).toList()
+            );
+            assetRepository.delete(existing);
+        }
+    }
+
+    @Test
+    @Transactional
+    void importAssetsFromCsvWithUnknownField() throws Exception {
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content("id;number;color\n1;A;red\n"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void transitionAssetStatusByIds() throws Exception {
+        Asset inUse = assetRepository.saveAndFlush(createUniqueEntity().status(Status.IN_USE));
+        Asset notWorking = assetRepository.saveAndFlush(createUniqueEntity().status(Status.NOT_WORKING));
+        AssetStatusTransitionDTO transition = new AssetStatusTransitionDTO();
+        transition.setIds(Set.of(inUse.getId(), notWorking.getId()));
+        transition.setFromStatus(Status.IN_USE);
+        transition.setStatus(Status.SOLD);
+
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/status-transitions").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(transition)))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        assertThat(assetRepository.findById(inUse.getId()).orElseThrow().getStatus()).isEqualTo(Status.SOLD);
+        assertThat(assetRepository.findById(notWorking.getId()).orElseThrow().getStatus()).isEqualTo(Status.NOT_WORKING);
+    }
+
+    @Test
+    @Transactional
+    void transitionAssetStatusByFilter() throws Exception {
+        Asset notWorking = assetRepository.saveAndFlush(createUniqueEntity().status(Status.NOT_WORKING));
+        long notWorkingCount = assetRepository.findIdsByStatusAfter(Status.NOT_WORKING, Long.MIN_VALUE, Pageable.unpaged()).size();
+        AssetStatusTransitionDTO transition = new AssetStatusTransitionDTO();
+        transition.setFromStatus(Status.NOT_WORKING);
+        transition.setStatus(Status.SOLD);
+
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/status-transitions").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(transition)))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(notWorkingCount)));
+
+        assertThat(assetRepository.findById(notWorking.getId()).orElseThrow().getStatus()).isEqualTo(Status.SOLD);
+        assertThat(assetRepository.findIdsByStatusAfter(Status.NOT_WORKING, Long.MIN_VALUE, Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void transitionAssetStatusWithoutSelection() throws Exception {
+        AssetStatusTransitionDTO transition = new AssetStatusTransitionDTO();
+        transition.setStatus(Status.SOLD);
+
+        restAssetMockMvc
+            .perform(post(ENTITY_API_URL + "/status-transitions").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(transition)))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAllAssets() throws Exception {
@@ -191,6 +400,287 @@ class AssetResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllAssetSummaries() throws Exception {
+        // Initialize the database
+        Employee employee = EmployeeResourceIT.createEntity().firstName("Jane").lastName("Doe");
+        em.persist(employee);
+        insertedAsset = assetRepository.saveAndFlush(asset.employee(employee));
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            restAssetMockMvc
+                .perform(get(ENTITY_API_URL + "?view=summary&sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].number").value(DEFAULT_NUMBER))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].brand").value(DEFAULT_BRAND))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].model").value(DEFAULT_MODEL))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].status").value(DEFAULT_STATUS.toString()))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].employeeId").value(employee.getId().intValue()))
+                .andExpect(jsonPath("$.[?(@.id == " + asset.getId() + ")].employeeName").value("Jane Doe"))
+                .andExpect(jsonPath("$.[*].comments").doesNotExist())
+                .andExpect(jsonPath("$.[*].serialNumber").doesNotExist());
+
+            // The summaries and the names of the employees are read with a single statement, without loading any entity
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetSummariesWithCriteriaAndKeysetPagination() throws Exception {
+        // Initialize the database
+        Asset first = assetRepository.saveAndFlush(createUniqueEntity().brand(UPDATED_BRAND));
+        assetRepository.saveAndFlush(createUniqueEntity());
+        Asset third = assetRepository.saveAndFlush(createUniqueEntity().brand(UPDATED_BRAND));
+
+        // Get the first page, only the assets matching the criteria
+        String link = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&brand.equals=" + UPDATED_BRAND + "&size=1&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+
+        // Get the next page through the continuation token
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length()).split("[&>]")[0];
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&brand.equals=" + UPDATED_BRAND + "&size=1&sort=id,desc&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()));
+
+        // The summaries can only be sorted on the columns they have
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "?view=summary&sort=serialNumber")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        Asset first = assetRepository.saveAndFlush(createUniqueEntity());
+        Asset second = assetRepository.saveAndFlush(createUniqueEntity());
+        Asset third = assetRepository.saveAndFlush(createUniqueEntity());
+
+        // Get the first page, newest assets first
+        String link = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+
+        // Get the next page through the continuation token
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length()).split("[&>]")[0];
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&sort=id,desc&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsWhereAssetHistoryIsNull() throws Exception {
+        // Initialize the database
+        Asset unassigned = assetRepository.saveAndFlush(createUniqueEntity());
+        Asset assigned = assetRepository.saveAndFlush(createUniqueEntity());
+        em.persist(new AssetHistory().startDate(DEFAULT_PURCHASE_DATE).asset(assigned));
+        em.flush();
+
+        // Get the assets without an asset history
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(unassigned.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(assigned.getId().intValue()))));
+
+        // Get the same assets, one page at a time
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null&size=1&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(unassigned.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsIssuesASingleStatement() throws Exception {
+        // Initialize the database with assets referenced by an asset history
+        for (int i = 0; i < 5; i++) {
+            Asset assigned = assetRepository.save(createUniqueEntity());
+            em.persist(new AssetHistory().startDate(DEFAULT_PURCHASE_DATE).asset(assigned));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            restAssetMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isOk());
+
+            // Loading the assets must not load their asset history one by one
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsWithInvalidCursor() throws Exception {
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "?size=2&cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsWithUnsupportedKeysetSort() throws Exception {
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "?size=2&sort=comments,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsByStatusAndEmployee() throws Exception {
+        // Initialize the database
+        Employee employee = EmployeeResourceIT.createEntity();
+        em.persist(employee);
+        insertedAsset = assetRepository.saveAndFlush(asset.employee(employee));
+
+        defaultAssetFiltering(
+            "status.equals=" + DEFAULT_STATUS + "&employeeId.equals=" + employee.getId(),
+            "status.equals=" + UPDATED_STATUS + "&employeeId.equals=" + employee.getId()
+        );
+        defaultAssetFiltering("employeeId.equals=" + employee.getId(), "employeeId.equals=" + (employee.getId() + 1));
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsBySerialNumberPrefix() throws Exception {
+        // Initialize the database
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        defaultAssetFiltering("serialNumber.startsWith=" + DEFAULT_SERIAL_NUMBER.substring(0, 3), "serialNumber.startsWith=" + UPDATED_SERIAL_NUMBER);
+        // LIKE wildcards are matched literally
+        defaultAssetShouldNotBeFound("serialNumber.startsWith=_");
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsByWarantDateRange() throws Exception {
+        // Initialize the database
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        defaultAssetFiltering(
+            "warantDate.greaterThanOrEqual=" + DEFAULT_WARANT_DATE + "&warantDate.lessThan=" + UPDATED_WARANT_DATE,
+            "warantDate.greaterThan=" + DEFAULT_WARANT_DATE
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllAssetsSortedByTheDatabase() throws Exception {
+        // Initialize the database
+        Asset first = assetRepository.saveAndFlush(createUniqueEntity().brand("B"));
+        Asset second = assetRepository.saveAndFlush(createUniqueEntity().brand("A"));
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?id.in=" + first.getId() + "," + second.getId() + "&sort=brand,asc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(List.of(second.getId().intValue(), first.getId().intValue())));
+    }
+
+    private void defaultAssetFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
+        defaultAssetShouldBeFound(shouldBeFound);
+        defaultAssetShouldNotBeFound(shouldNotBeFound);
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultAssetShouldBeFound(String filter) throws Exception {
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.equals=" + asset.getId() + "&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(asset.getId().intValue())))
+            .andExpect(jsonPath("$.[*].serialNumber").value(hasItem(DEFAULT_SERIAL_NUMBER)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultAssetShouldNotBeFound(String filter) throws Exception {
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.equals=" + asset.getId() + "&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void exportAssetsAsNdjson() throws Exception {
+        // Initialize the database, outside of the test transaction as the export runs in its own transaction
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        MvcResult result = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/export").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restAssetMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("{\"id\":" + asset.getId() + ",\"number\":\"" + DEFAULT_NUMBER + "\"")));
+    }
+
+    @Test
+    void exportAssetsAsCsv() throws Exception {
+        // Initialize the database, outside of the test transaction as the export runs in its own transaction
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        MvcResult result = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/export").accept("text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restAssetMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(content().string(startsWith("id;number;brand;model;serial_number;purchase_date;warant_date;comments;status;employee_id\n")))
+            .andExpect(content().string(containsString("\n" + asset.getId() + ";" + DEFAULT_NUMBER + ";" + DEFAULT_BRAND + ";")));
+    }
+
+    @Test
+    void exportAssetsAsNdjsonWhenPreferredToCsv() throws Exception {
+        // Initialize the database, outside of the test transaction as the export runs in its own transaction
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        MvcResult result = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/export").header(HttpHeaders.ACCEPT, "text/csv;q=0.1, application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restAssetMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("{\"id\":" + asset.getId() + ",\"number\":\"" + DEFAULT_NUMBER + "\"")));
+    }
+
     @Test
     @Transactional
     void getAsset() throws Exception {
@@ -220,6 +710,143 @@ class AssetResourceIT {
         restAssetMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getAssetsByIds() throws Exception {
+        // Initialize the database
+        Asset first = assetRepository.saveAndFlush(createUniqueEntity());
+        Asset second = assetRepository.saveAndFlush(createUniqueEntity());
+
+        // The assets are returned once, in the order of the ids, without the missing ones
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + second.getId() + "," + Long.MAX_VALUE + "," + first.getId() + "," + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(List.of(second.getId().intValue(), first.getId().intValue())))
+            .andExpect(jsonPath("$.[0].number").value(second.getNumber()));
+    }
+
+    @Test
+    @Transactional
+    void getAssetsByTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 501).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "?ids=" + ids)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAssetByNumber() throws Exception {
+        // Initialize the database
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/by-number/{number}", DEFAULT_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + asset.getVersion() + "\""))
+            .andExpect(jsonPath("$.id").value(asset.getId().intValue()))
+            .andExpect(jsonPath("$.number").value(DEFAULT_NUMBER));
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "/by-number/{number}", UPDATED_NUMBER)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAssetBySerialNumber() throws Exception {
+        // Initialize the database
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/by-serial/{serial}", DEFAULT_SERIAL_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(asset.getId().intValue()))
+            .andExpect(jsonPath("$.serialNumber").value(DEFAULT_SERIAL_NUMBER));
+
+        // The serial number moves to another asset: the cached resolution must not be trusted anymore
+        assetRepository.saveAndFlush(asset.serialNumber(UPDATED_SERIAL_NUMBER));
+        Asset other = assetRepository.saveAndFlush(createUniqueEntity().serialNumber(DEFAULT_SERIAL_NUMBER));
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "/by-serial/{serial}", DEFAULT_SERIAL_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(other.getId().intValue()));
+        restAssetMockMvc.perform(get(ENTITY_API_URL + "/by-serial/{serial}", "unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllAssetsWithIfNoneMatch() throws Exception {
+        String eTag = restAssetMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // The list did not change
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // Change the list, outside of a test transaction so that the change is committed
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(asset.getId().intValue())));
+    }
+
+    @Test
+    void getAllAssetsWhereAssetHistoryIsNullWithIfNoneMatch() throws Exception {
+        // Initialize the database, outside of a test transaction so that the changes are committed
+        insertedAsset = assetRepository.saveAndFlush(asset);
+        String eTag = restAssetMockMvc
+            .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(asset.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Only the asset histories change
+        AssetHistory assetHistory = assetHistoryRepository.saveAndFlush(new AssetHistory().startDate(DEFAULT_PURCHASE_DATE).asset(asset));
+        try {
+            restAssetMockMvc
+                .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(asset.getId().intValue()))));
+        } finally {
+            assetHistoryRepository.delete(assetHistory);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAssetWithIfNoneMatch() throws Exception {
+        // Initialize the database
+        insertedAsset = assetRepository.saveAndFlush(asset);
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL_ID, asset.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL_ID, asset.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        restAssetMockMvc
+            .perform(get(ENTITY_API_URL_ID, asset.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"41\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(asset.getId().intValue()));
+    }
+
     @Test
     @Transactional
     void putExistingAsset() throws Exception {
@@ -337,6 +964,75 @@ class AssetResourceIT {
         assertAssetUpdatableFieldsEquals(createUpdateProxyForBean(partialUpdatedAsset, asset), getPersistedAsset(asset));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateAssetIssuesOneSelectAndOneUpdate() throws Exception {
+        // Initialize the database
+        assetRepository.saveAndFlush(asset);
+        em.clear();
+
+        Asset partialUpdatedAsset = new Asset().id(asset.getId()).comments(UPDATED_COMMENTS);
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            restAssetMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedAsset.getId())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(om.writeValueAsBytes(partialUpdatedAsset))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThat(getPersistedAsset(asset).getComments()).isEqualTo(UPDATED_COMMENTS);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateAssetWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        assetRepository.saveAndFlush(asset);
+
+        Asset partialUpdatedAsset = new Asset().id(asset.getId()).comments(UPDATED_COMMENTS);
+
+        restAssetMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedAsset.getId())
+                    .contentType("application/merge-patch+json")
+                    .header(HttpHeaders.IF_MATCH, "\"41\"")
+                    .content(om.writeValueAsBytes(partialUpdatedAsset))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(getPersistedAsset(asset).getComments()).isEqualTo(DEFAULT_COMMENTS);
+    }
+
+    @Test
+    @Transactional
+    void putAssetWithStaleVersion() throws Exception {
+        // Initialize the database
+        assetRepository.saveAndFlush(asset);
+        em.detach(asset);
+
+        Asset updatedAsset = assetRepository.findById(asset.getId()).orElseThrow();
+        em.detach(updatedAsset);
+        updatedAsset.comments(UPDATED_COMMENTS).version(updatedAsset.getVersion() + 1);
+
+        restAssetMockMvc
+            .perform(put(ENTITY_API_URL_ID, updatedAsset.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(updatedAsset)))
+            .andExpect(status().isConflict());
+
+        assertThat(getPersistedAsset(asset).getComments()).isEqualTo(DEFAULT_COMMENTS);
+    }
+
     @Test
     @Transactional
     void fullUpdateAssetWithPatch() throws Exception {
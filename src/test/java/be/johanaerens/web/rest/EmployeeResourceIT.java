@@ -3,26 +3,40 @@ package be.johanaerens.web.rest;
 import static be.johanaerens.domain.EmployeeAsserts.*;
 import static be.johanaerens.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import be.johanaerens.IntegrationTest;
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.AssetHistory;
 import be.johanaerens.domain.Employee;
 import be.johanaerens.domain.enumeration.Language;
+import be.johanaerens.repository.AssetHistoryRepository;
+import be.johanaerens.repository.AssetRepository;
 import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.service.TableGenerationService;
+import be.johanaerens.service.search.EmployeeSuggestionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -68,6 +82,18 @@ class EmployeeResourceIT {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Autowired
+    private EmployeeSuggestionService employeeSuggestionService;
+
+    @Autowired
+    private TableGenerationService tableGenerationService;
+
     @Autowired
     private EntityManager em;
 
@@ -112,6 +138,13 @@ class EmployeeResourceIT {
             .language(UPDATED_LANGUAGE);
     }
 
+    /**
+     * Create an entity for this test, with an employee number unique to it, for the tests creating several entities.
+     */
+    public static Employee createUniqueEntity() {
+        return createEntity().employeeNumber(DEFAULT_EMPLOYEE_NUMBER + longCount.incrementAndGet());
+    }
+
     @BeforeEach
     public void initTest() {
         employee = createEntity();
@@ -185,6 +218,105 @@ class EmployeeResourceIT {
             .andExpect(jsonPath("$.[*].language").value(hasItem(DEFAULT_LANGUAGE.toString())));
     }
 
+    @Test
+    void suggestEmployees() throws Exception {
+        // The index is loaded in the background once the application is ready
+        for (int i = 0; i < 100 && !employeeSuggestionService.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(employeeSuggestionService.isReady()).isTrue();
+
+        // Committed employees are indexed
+        insertedEmployee = employeeRepository.saveAndFlush(employee.firstName("Zéphyrin").lastName("Quaglia"));
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?prefix=zephyrin qu"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(employee.getId().intValue())))
+            .andExpect(jsonPath("$.[*].lastName").value(contains("Quaglia")));
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?prefix=QUAG"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(employee.getId().intValue())));
+
+        employeeRepository.delete(insertedEmployee);
+        insertedEmployee = null;
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?prefix=quag"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeeSummaries() throws Exception {
+        // Initialize the database
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())))
+            .andExpect(jsonPath("$.[*].employeeNumber").value(hasItem(DEFAULT_EMPLOYEE_NUMBER)))
+            .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRST_NAME)))
+            .andExpect(jsonPath("$.[*].lastName").value(hasItem(DEFAULT_LAST_NAME)))
+            .andExpect(jsonPath("$.[*].email").value(hasItem(DEFAULT_EMAIL)))
+            .andExpect(jsonPath("$.[*].phoneNumber").doesNotExist())
+            .andExpect(jsonPath("$.[*].assets").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesIssuesASingleStatement() throws Exception {
+        // Initialize the database with employees referenced by an asset history
+        for (int i = 0; i < 5; i++) {
+            Employee assigned = employeeRepository.save(createUniqueEntity());
+            em.persist(new AssetHistory().startDate(DEFAULT_HIRE_DATE).employee(assigned));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            restEmployeeMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isOk());
+
+            // Loading the employees must not load their asset history one by one
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void getAllEmployeesWhereAssetHistoryIsNullWithIfNoneMatch() throws Exception {
+        // Initialize the database, outside of a test transaction so that the changes are committed
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+        String eTag = restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Only the asset histories change
+        AssetHistory assetHistory = assetHistoryRepository.saveAndFlush(new AssetHistory().startDate(DEFAULT_HIRE_DATE).employee(employee));
+        try {
+            restEmployeeMockMvc
+                .perform(get(ENTITY_API_URL + "?filter=assethistory-is-null").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(employee.getId().intValue()))));
+        } finally {
+            assetHistoryRepository.delete(assetHistory);
+        }
+    }
+
     @Test
     @Transactional
     void getEmployee() throws Exception {
@@ -206,6 +338,132 @@ class EmployeeResourceIT {
             .andExpect(jsonPath("$.language").value(DEFAULT_LANGUAGE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getEmployeesByIds() throws Exception {
+        // Initialize the database
+        Employee first = employeeRepository.saveAndFlush(createUniqueEntity());
+        Employee second = employeeRepository.saveAndFlush(createUniqueEntity());
+
+        // The employees are returned once, in the order of the ids, without the missing ones
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + second.getId() + "," + Long.MAX_VALUE + "," + first.getId() + "," + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(List.of(second.getId().intValue(), first.getId().intValue())))
+            .andExpect(jsonPath("$.[0].employeeNumber").value(second.getEmployeeNumber()));
+    }
+
+    @Test
+    @Transactional
+    void getEmployeeByNumber() throws Exception {
+        // Initialize the database
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "/by-number/{number}", DEFAULT_EMPLOYEE_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(employee.getId().intValue()))
+            .andExpect(jsonPath("$.employeeNumber").value(DEFAULT_EMPLOYEE_NUMBER));
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "/by-number/{number}", UPDATED_EMPLOYEE_NUMBER)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getEmployeeAssetsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        Employee holder = employeeRepository.saveAndFlush(createUniqueEntity());
+        Asset first = assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(holder));
+        Asset second = assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(holder));
+        Asset third = assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(holder));
+        assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(employeeRepository.saveAndFlush(createUniqueEntity())));
+
+        // Get the first page, newest assets first
+        String link = restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=2&sort=id,desc", holder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(List.of(third.getId().intValue(), second.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+
+        // Get the next page through the continuation token, without the assets of the other employee
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length()).split("[&>]")[0];
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=2&sort=id,desc&cursor=" + cursor, holder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(List.of(first.getId().intValue())));
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets/count", holder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("3"));
+    }
+
+    @Test
+    @Transactional
+    void getEmployeeAssetsSortedByNumber() throws Exception {
+        // Initialize the database
+        Employee holder = employeeRepository.saveAndFlush(createUniqueEntity());
+        Asset second = assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().number("B-" + holder.getId()).employee(holder));
+        Asset first = assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().number("A-" + holder.getId()).employee(holder));
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?sort=number,asc", holder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(List.of(first.getId().intValue(), second.getId().intValue())));
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?sort=brand,asc", holder.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAssetsOfNonExistingEmployee() throws Exception {
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL_ID + "/assets", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL_ID + "/assets/count", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getEmployeeAssetsWithTheETagOrCursorOfAnotherEmployee() throws Exception {
+        // Initialize the database
+        Employee holder = employeeRepository.saveAndFlush(createUniqueEntity());
+        Employee other = employeeRepository.saveAndFlush(createUniqueEntity());
+        assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(holder));
+        assetRepository.saveAndFlush(AssetResourceIT.createUniqueEntity().employee(holder));
+        MockHttpServletResponse response = restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=1", holder.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse();
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        String link = response.getHeader(HttpHeaders.LINK);
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length()).split("[&>]")[0];
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=1", holder.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        // The changes of the employees do not change their assets
+        tableGenerationService.bump(Employee.class);
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=1", holder.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=1", other.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotFound());
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/assets?size=1&cursor=" + cursor, other.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingEmployee() throws Exception {
@@ -0,0 +1,111 @@
+package be.johanaerens.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import be.johanaerens.IntegrationTest;
+import be.johanaerens.domain.Asset;
+import be.johanaerens.domain.Employee;
+import be.johanaerens.repository.AssetRepository;
+import be.johanaerens.repository.EmployeeRepository;
+import be.johanaerens.service.search.EntitySearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchResource} REST controller.
+ * <p>
+ * The indexes are maintained after the commits, so the entities are saved outside of any test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SearchResourceIT {
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntitySearchService entitySearchService;
+
+    @Autowired
+    private MockMvc restSearchMockMvc;
+
+    private Asset insertedAsset;
+
+    private Employee insertedEmployee;
+
+    @BeforeEach
+    public void awaitIndexes() throws InterruptedException {
+        // The indexes are built in the background once the application is ready
+        for (int i = 0; i < 100 && !(entitySearchService.isReady(Asset.class) && entitySearchService.isReady(Employee.class)); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(entitySearchService.isReady(Asset.class)).isTrue();
+        assertThat(entitySearchService.isReady(Employee.class)).isTrue();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (insertedAsset != null) {
+            assetRepository.delete(insertedAsset);
+            insertedAsset = null;
+        }
+        if (insertedEmployee != null) {
+            employeeRepository.delete(insertedEmployee);
+            insertedEmployee = null;
+        }
+    }
+
+    @Test
+    void searchAssets() throws Exception {
+        insertedAsset = assetRepository.saveAndFlush(
+            AssetResourceIT.createEntity().brand("Dell").model("Latitude 7440").serialNumber("SN-QZX48151623").comments("Cracked screen")
+        );
+
+        restSearchMockMvc
+            .perform(get("/api/_search/assets?q=qzx4815 latitude"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(insertedAsset.getId().intValue())));
+
+        // Updates are indexed once committed
+        insertedAsset = assetRepository.saveAndFlush(insertedAsset.serialNumber("SN-QZX00000000"));
+
+        restSearchMockMvc.perform(get("/api/_search/assets?q=qzx4815")).andExpect(status().isOk()).andExpect(jsonPath("$").isEmpty());
+        restSearchMockMvc
+            .perform(get("/api/_search/assets?q=qzx0000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(insertedAsset.getId().intValue())));
+    }
+
+    @Test
+    void searchEmployees() throws Exception {
+        insertedEmployee = employeeRepository.saveAndFlush(
+            EmployeeResourceIT.createEntity().firstName("Zéphyrin").lastName("Quaglia").email("zephyrin.quaglia@example.com")
+        );
+
+        restSearchMockMvc
+            .perform(get("/api/_search/employees?q=zephy QUAG"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(insertedEmployee.getId().intValue())));
+
+        // Deletions are removed from the index once committed
+        employeeRepository.delete(insertedEmployee);
+        insertedEmployee = null;
+
+        restSearchMockMvc.perform(get("/api/_search/employees?q=zephy quag")).andExpect(status().isOk()).andExpect(jsonPath("$").isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package be.johanaerens.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.johanaerens.domain.Asset;
+import be.johanaerens.repository.KeysetPosition;
+import be.johanaerens.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Test class for the {@link KeysetPaginationUtil} utility class.
+ */
+class KeysetPaginationUtilTest {
+
+    private static final List<String> SORT_PROPERTIES = List.of("id", "number");
+
+    @Test
+    void testCursorRoundTrip() {
+        KeysetPosition position = new KeysetPosition("number", Sort.Direction.DESC, 1051L, "LAP|0042");
+
+        KeysetPosition decoded = KeysetPaginationUtil.decodeCursor(KeysetPaginationUtil.encodeCursor(position), "asset");
+
+        assertThat(decoded).isEqualTo(position);
+    }
+
+    @Test
+    void testCursorRoundTripWithNullValue() {
+        KeysetPosition position = new KeysetPosition("number", Sort.Direction.ASC, 1051L, null);
+
+        KeysetPosition decoded = KeysetPaginationUtil.decodeCursor(KeysetPaginationUtil.encodeCursor(position), "asset");
+
+        assertThat(decoded).isEqualTo(position);
+    }
+
+    @Test
+    void testCursorBoundToAResource() {
+        KeysetPosition position = new KeysetPosition("id", Sort.Direction.ASC, 1051L, null);
+        String cursor = KeysetPaginationUtil.encodeCursor(position, "employee-1");
+
+        assertThat(KeysetPaginationUtil.position("id,asc", cursor, SORT_PROPERTIES, "asset", "employee-1")).isEqualTo(position);
+        assertThatThrownBy(() -> KeysetPaginationUtil.position("id,asc", cursor, SORT_PROPERTIES, "asset", "employee-2")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> KeysetPaginationUtil.position("id,asc", cursor, SORT_PROPERTIES, "asset")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void testDefaultPosition() {
+        KeysetPosition position = KeysetPaginationUtil.position(null, null, SORT_PROPERTIES, "asset");
+
+        assertThat(position.isInitial()).isTrue();
+        assertThat(position.property()).isEqualTo("id");
+        assertThat(position.direction()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void testCursorNotMatchingSort() {
+        String cursor = KeysetPaginationUtil.encodeCursor(new KeysetPosition("id", Sort.Direction.ASC, 1051L, null));
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.position("number,asc", cursor, SORT_PROPERTIES, "asset")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void testPageSize() {
+        assertThat(KeysetPaginationUtil.pageSize(null)).isEqualTo(KeysetPaginationUtil.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetPaginationUtil.pageSize(5)).isEqualTo(5);
+        assertThat(KeysetPaginationUtil.pageSize(Integer.MAX_VALUE)).isEqualTo(KeysetPaginationUtil.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void testKeysetResponse() {
+        KeysetPosition position = KeysetPosition.initial("number", Sort.Direction.ASC);
+        List<Asset> rows = List.of(new Asset().id(1L).number("A"), new Asset().id(2L).number("B"), new Asset().id(3L).number("C"));
+
+        ResponseEntity<List<Asset>> response = KeysetPaginationUtil.keysetResponse(
+            UriComponentsBuilder.fromUriString("http://localhost/api/assets?sort=number,asc&size=2"),
+            position,
+            rows,
+            2
+        );
+
+        assertThat(response.getBody()).extracting(Asset::getId).containsExactly(1L, 2L);
+        String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"");
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length()).split("[&>]")[0];
+        assertThat(KeysetPaginationUtil.decodeCursor(cursor, "asset")).isEqualTo(position.next(2L, "B"));
+    }
+}